@@ -0,0 +1,62 @@
+package com.trading.bot.bench;
+
+import com.trading.bot.config.MarketProperties;
+import com.trading.bot.domain.dto.BinanceKlineMessage;
+import com.trading.bot.domain.dto.MarketTickDto;
+import com.trading.bot.service.binance.BinanceFrameDecoder;
+import com.trading.bot.service.binance.JsonFrameReader;
+import com.trading.bot.service.binance.KlineFrame;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class BinanceDecodeBenchmark {
+
+    @Param({"combined", "raw"})
+    public String shape;
+
+    private BinanceFrameDecoder decoder;
+    private JsonFrameReader reader;
+    private KlineFrame frame;
+    private String json;
+    private DataBuffer payload;
+
+    @Setup
+    public void setUp() {
+        MarketProperties props = new MarketProperties();
+        props.setSymbols(List.of("BTCUSDT"));
+        decoder = new BinanceFrameDecoder(JsonMapper.builder().build(), props);
+        reader = decoder.newReader();
+        frame = new KlineFrame();
+        json = "combined".equals(shape) ? Payloads.KLINE_COMBINED : Payloads.KLINE_RAW;
+        payload = DefaultDataBufferFactory.sharedInstance.wrap(json.getBytes(StandardCharsets.UTF_8));
+        decoder.decodeKline(payload, reader, frame);
+    }
+
+    @Benchmark
+    public BinanceKlineMessage parseBinanceMessage() {
+        return decoder.parseBinanceMessage(json);
+    }
+
+    @Benchmark
+    public boolean decodeKlineInPlace() {
+        payload.readPosition(0);
+        return decoder.decodeKline(payload, reader, frame);
+    }
+
+    @Benchmark
+    public MarketTickDto convertToTick() {
+        return decoder.convertToTick(frame);
+    }
+}
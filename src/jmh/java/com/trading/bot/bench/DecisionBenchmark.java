@@ -0,0 +1,43 @@
+package com.trading.bot.bench;
+
+import com.trading.bot.config.TradingProperties;
+import com.trading.bot.domain.dto.AgentDecisionDto;
+import com.trading.bot.domain.dto.BotDecisionDto;
+import com.trading.bot.domain.dto.MarketTickDto;
+import com.trading.bot.service.AgentDecisionMapper;
+import org.openjdk.jmh.annotations.*;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class DecisionBenchmark {
+
+    private AgentDecisionMapper mapper;
+    private BotDecisionDto decision;
+    private MarketTickDto tick;
+
+    @Setup
+    public void setUp() {
+        TradingProperties trading = new TradingProperties();
+        trading.setInitialBalance(10_000.0);
+        mapper = new AgentDecisionMapper(trading);
+        decision = JsonMapper.builder().build()
+                .readValue(Payloads.AGENT_DECISION, BotDecisionDto.class);
+        tick = new MarketTickDto("BTCUSDT", "1s", LocalDateTime.of(2023, 1, 1, 0, 3, 0),
+                1672515780000L, 1672515780999L, 16541.01, 16542.99, 16540.00, 16541.37, 12.34567, true,
+                Map.of("ema_9", 16540.9, "ema_21", 16538.2, "rsi_14", 55.1));
+    }
+
+    @Benchmark
+    public AgentDecisionDto buildAgentDecisionDto() {
+        return mapper.toAgentDecision(decision, tick);
+    }
+}
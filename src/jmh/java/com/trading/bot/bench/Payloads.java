@@ -0,0 +1,31 @@
+package com.trading.bot.bench;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Recorded frames shared by the benchmarks, loaded from {@code /payloads}.
+ */
+final class Payloads {
+
+    static final String KLINE_COMBINED = load("kline-combined.json");
+    static final String KLINE_RAW = load("kline-raw.json");
+    static final String AGG_TRADE_COMBINED = load("agg-trade-combined.json");
+    static final String AGENT_DECISION = load("agent-decision.json");
+
+    private Payloads() {
+    }
+
+    private static String load(String name) {
+        try (InputStream in = Payloads.class.getResourceAsStream("/payloads/" + name)) {
+            if (in == null) {
+                throw new IllegalStateException("Missing benchmark payload " + name);
+            }
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8).trim();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package com.trading.bot.bench;
+
+import com.trading.bot.config.TradingProperties;
+import com.trading.bot.domain.dto.AgentDecisionDto;
+import com.trading.bot.domain.dto.BotDecisionDto;
+import com.trading.bot.domain.dto.MarketTickDto;
+import com.trading.bot.service.AgentDecisionMapper;
+import org.openjdk.jmh.annotations.*;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class SerializationBenchmark {
+
+    private JsonMapper jsonMapper;
+    private MarketTickDto tick;
+    private AgentDecisionDto decision;
+
+    @Setup
+    public void setUp() {
+        jsonMapper = JsonMapper.builder().build();
+        tick = new MarketTickDto("BTCUSDT", "1s", LocalDateTime.of(2023, 1, 1, 0, 3, 0),
+                1672515780000L, 1672515780999L, 16541.01, 16542.99, 16540.00, 16541.37, 12.34567, true,
+                Map.of("ema_9", 16540.9, "ema_21", 16538.2, "rsi_14", 55.1));
+        TradingProperties trading = new TradingProperties();
+        trading.setInitialBalance(10_000.0);
+        decision = new AgentDecisionMapper(trading)
+                .toAgentDecision(jsonMapper.readValue(Payloads.AGENT_DECISION, BotDecisionDto.class), tick);
+    }
+
+    @Benchmark
+    public byte[] serializeTick() {
+        return jsonMapper.writeValueAsBytes(tick);
+    }
+
+    @Benchmark
+    public byte[] serializeDecision() {
+        return jsonMapper.writeValueAsBytes(decision);
+    }
+}
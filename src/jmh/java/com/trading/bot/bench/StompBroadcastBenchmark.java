@@ -0,0 +1,79 @@
+package com.trading.bot.bench;
+
+import com.trading.bot.domain.dto.MarketTickDto;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.converter.JacksonJsonMessageConverter;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.messaging.simp.broker.SimpleBrokerMessageHandler;
+import org.springframework.messaging.support.ExecutorSubscribableChannel;
+import org.springframework.messaging.support.MessageBuilder;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@code convertAndSend} through the simple broker with synchronous channels,
+ * so each op covers conversion, destination matching and per-subscriber
+ * message creation. Outbound messages land in a blackhole.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class StompBroadcastBenchmark {
+
+    @Param({"1", "100"})
+    public int subscribers;
+
+    private SimpleBrokerMessageHandler broker;
+    private SimpMessagingTemplate template;
+    private MarketTickDto tick;
+
+    @Setup
+    public void setUp(Blackhole blackhole) {
+        ExecutorSubscribableChannel brokerChannel = new ExecutorSubscribableChannel();
+        MessageChannel clientOutbound = (message, timeout) -> {
+            blackhole.consume(message);
+            return true;
+        };
+        broker = new SimpleBrokerMessageHandler(new ExecutorSubscribableChannel(), clientOutbound,
+                brokerChannel, List.of("/topic"));
+        broker.start();
+        for (int i = 0; i < subscribers; i++) {
+            broker.handleMessage(subscribe("session-" + i, "/topic/market"));
+        }
+
+        template = new SimpMessagingTemplate(brokerChannel);
+        template.setMessageConverter(new JacksonJsonMessageConverter());
+        tick = new MarketTickDto("BTCUSDT", "1s", LocalDateTime.of(2023, 1, 1, 0, 3, 0),
+                1672515780000L, 1672515780999L, 16541.01, 16542.99, 16540.00, 16541.37, 12.34567, true,
+                Map.of("ema_9", 16540.9, "ema_21", 16538.2, "rsi_14", 55.1));
+    }
+
+    @TearDown
+    public void tearDown() {
+        broker.stop();
+    }
+
+    @Benchmark
+    public void convertAndSend() {
+        template.convertAndSend("/topic/market", tick);
+    }
+
+    private static Message<byte[]> subscribe(String sessionId, String destination) {
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.create(SimpMessageType.SUBSCRIBE);
+        accessor.setSessionId(sessionId);
+        accessor.setSubscriptionId("sub-0");
+        accessor.setDestination(destination);
+        return MessageBuilder.createMessage(new byte[0], accessor.getMessageHeaders());
+    }
+}
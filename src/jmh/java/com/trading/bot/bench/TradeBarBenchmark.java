@@ -0,0 +1,63 @@
+package com.trading.bot.bench;
+
+import com.trading.bot.config.MarketProperties;
+import com.trading.bot.domain.dto.MarketTickDto;
+import com.trading.bot.service.binance.BinanceFrameDecoder;
+import com.trading.bot.service.binance.JsonFrameReader;
+import com.trading.bot.service.binance.TradeFrame;
+import com.trading.bot.service.trade.TradeBarSpec;
+import com.trading.bot.service.trade.TradeBars;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-trade cost of the aggTrade path: in-place decode plus folding into
+ * a time, a tick and a volume bar. Trade times advance 1 ms per call so
+ * bars close at a realistic rate.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class TradeBarBenchmark {
+
+    private BinanceFrameDecoder decoder;
+    private JsonFrameReader reader;
+    private TradeFrame frame;
+    private DataBuffer payload;
+    private TradeBars bars;
+    private long time;
+
+    @Setup
+    public void setUp() {
+        MarketProperties props = new MarketProperties();
+        props.setSymbols(List.of("BTCUSDT"));
+        decoder = new BinanceFrameDecoder(JsonMapper.builder().build(), props);
+        reader = decoder.newReader();
+        frame = new TradeFrame();
+        payload = DefaultDataBufferFactory.sharedInstance.wrap(Payloads.AGG_TRADE_COMBINED.getBytes(StandardCharsets.UTF_8));
+        bars = new TradeBars(List.of(TradeBarSpec.parse("250ms"), TradeBarSpec.parse("500t"), TradeBarSpec.parse("10v")),
+                decoder::toLocalDateTime);
+    }
+
+    @Benchmark
+    public boolean decodeTradeInPlace() {
+        payload.readPosition(0);
+        return decoder.decodeTrade(payload, reader, frame);
+    }
+
+    @Benchmark
+    public List<MarketTickDto> decodeAndFold() {
+        payload.readPosition(0);
+        decoder.decodeTrade(payload, reader, frame);
+        return bars.onTrade(frame.getSymbol(), time++, frame.getPrice(), frame.getQuantity(), frame.isBuyerMaker());
+    }
+}
@@ -0,0 +1,31 @@
+package com.trading.bot.config;
+
+import com.trading.bot.service.candle.Intervals;
+import lombok.Data;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "market.candles")
+public class CandleProperties implements InitializingBean {
+    private boolean enabled = true;
+    private String sourceInterval;
+    private List<String> timeframes = new ArrayList<>(List.of("1m", "5m", "15m", "1h", "1d"));
+    private int capacity = 1000;
+
+    @Override
+    public void afterPropertiesSet() {
+        for (String timeframe : timeframes) {
+            try {
+                Intervals.validate(timeframe);
+            } catch (IllegalArgumentException e) {
+                throw new IllegalStateException("Unsupported market.candles.timeframes entry: " + timeframe, e);
+            }
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package com.trading.bot.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "market.depth")
+public class DepthProperties {
+    private boolean enabled = false;
+    /** Diff stream cadence suffix, {@code 100ms} or {@code 1000ms}; blank uses Binance's default. */
+    private String updateSpeed = "100ms";
+    private int snapshotLimit = 1000;
+    private long snapshotRetryMs = 1000;
+    /** Levels kept per side; inserts deeper than this are dropped. */
+    private int maxLevels = 5000;
+    private int defaultDepth = 10;
+    private int imbalanceLevels = 10;
+    /** Adds book imbalance and spread to each tick's indicators. */
+    private boolean tickFeatures = true;
+}
@@ -0,0 +1,13 @@
+package com.trading.bot.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "market.history")
+public class HistoryProperties {
+    private int capacity = 3600;
+    private int defaultLimit = 500;
+}
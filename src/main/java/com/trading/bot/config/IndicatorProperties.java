@@ -0,0 +1,32 @@
+package com.trading.bot.config;
+
+import lombok.Data;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "market.indicators")
+public class IndicatorProperties implements InitializingBean {
+    private boolean enabled = true;
+    private List<Integer> emaPeriods = new ArrayList<>(List.of(9, 21));
+    private int rsiPeriod = 14;
+    private int atrPeriod = 14;
+    private int bollingerPeriod = 20;
+    private double bollingerStdDev = 2.0;
+    private boolean vwap = true;
+
+    @Override
+    public void afterPropertiesSet() {
+        for (Integer period : emaPeriods) {
+            if (period == null || period < 1) {
+                throw new IllegalStateException("market.indicators.ema-periods must all be at least 1, got "
+                        + emaPeriods);
+            }
+        }
+    }
+}
@@ -0,0 +1,14 @@
+package com.trading.bot.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "market.journal")
+public class JournalProperties {
+    private boolean enabled = false;
+    private String dir = "journal";
+    private long segmentBytes = 64L * 1024 * 1024;
+}
@@ -1,13 +1,70 @@
 package com.trading.bot.config;
 
+import com.trading.bot.service.candle.Intervals;
 import lombok.Data;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.InitializingBean;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.context.annotation.Configuration;
 
+import java.util.ArrayList;
+import java.util.List;
+
 @Data
+@Slf4j
 @Configuration
 @ConfigurationProperties(prefix = "market.binance")
-public class MarketProperties {
+public class MarketProperties implements InitializingBean {
+    /**
+     * @deprecated ignored; streams are built from {@code symbols} and
+     * {@code intervals} on {@code combined-stream-url}
+     */
+    @Deprecated
     private String streamUrl;
     private String symbol;
+
+    private String combinedStreamUrl = "wss://stream.binance.com:9443/stream";
+    private String restUrl = "https://api.binance.com";
+    private List<String> symbols = new ArrayList<>();
+    private List<String> intervals = new ArrayList<>(List.of("1s"));
+    private int streamsPerConnection = 200;
+    private int workers = Runtime.getRuntime().availableProcessors();
+    private long reconnectMinBackoffMs = 250;
+    private long reconnectMaxBackoffMs = 30_000;
+    /** Most bars fetched per stream over REST after a reconnect; 0 disables backfill. */
+    private int backfillMaxBars = 5000;
+
+    public List<String> getSymbolsOrDefault() {
+        return symbols.isEmpty() ? List.of(symbol) : symbols;
+    }
+
+    public String getDefaultSymbol() {
+        return symbol != null ? symbol : getSymbolsOrDefault().get(0);
+    }
+
+    public String getDefaultInterval() {
+        return intervals.get(0);
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        if (symbols.isEmpty() && (symbol == null || symbol.isBlank())) {
+            throw new IllegalStateException(
+                    "Set market.binance.symbols (or market.binance.symbol) to at least one symbol");
+        }
+        if (intervals.isEmpty()) {
+            throw new IllegalStateException("Set market.binance.intervals to at least one kline interval");
+        }
+        for (String interval : intervals) {
+            try {
+                Intervals.validate(interval);
+            } catch (IllegalArgumentException e) {
+                throw new IllegalStateException("Unsupported market.binance.intervals entry: " + interval, e);
+            }
+        }
+        if (streamUrl != null) {
+            log.warn("market.binance.stream-url (MARKET_BINANCE_STREAM_URL) is deprecated and ignored; "
+                    + "use market.binance.symbols, market.binance.intervals and market.binance.combined-stream-url");
+        }
+    }
 }
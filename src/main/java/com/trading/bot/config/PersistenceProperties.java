@@ -0,0 +1,25 @@
+package com.trading.bot.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "persistence")
+public class PersistenceProperties {
+    private boolean enabled = false;
+    private boolean initSchema = true;
+    private boolean finalBarsOnly = true;
+    private int queueCapacity = 65536;
+    private int batchSize = 500;
+    private long flushIntervalMs = 200;
+    private OverflowPolicy overflowPolicy = OverflowPolicy.DROP_OLDEST;
+    private String spillDir = "spill";
+
+    public enum OverflowPolicy {
+        DROP_NEWEST,
+        DROP_OLDEST,
+        SPILL
+    }
+}
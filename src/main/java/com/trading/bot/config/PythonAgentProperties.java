@@ -1,14 +1,139 @@
 package com.trading.bot.config;
 
+import com.trading.bot.service.codec.PayloadEncoding;
 import lombok.Data;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.context.annotation.Configuration;
 
+import java.util.ArrayList;
+import java.util.List;
+
 @Data
 @Configuration
 @ConfigurationProperties(prefix = "python.agent")
 public class PythonAgentProperties {
 
     private String baseUrl;
+    /** Agent instances to spread symbols over; when empty, {@code base-url} is the only one. */
+    private List<Endpoint> endpoints = new ArrayList<>();
+    /** Upper bound for any agent call; the adaptive timeout never exceeds it. */
     private long timeoutMs = 2000;
-}
\ No newline at end of file
+    private long connectTimeoutMs = 3000;
+    private int maxInFlightPerSymbol = 1;
+    private Transport transport = Transport.HTTP;
+    /**
+     * Body encoding of HTTP agent calls; an agent that answers 415 to a
+     * binary encoding, or refuses it before ever accepting it and then
+     * takes the request as JSON, is sent JSON from then on.
+     */
+    private PayloadEncoding encoding = PayloadEncoding.JSON;
+    private Batch batch = new Batch();
+    private Stream stream = new Stream();
+    private Dispatch dispatch = new Dispatch();
+    private Hedge hedge = new Hedge();
+    private Resilience resilience = new Resilience();
+    private Pool pool = new Pool();
+
+    public List<Endpoint> getEndpointsOrDefault() {
+        if (!endpoints.isEmpty()) {
+            return endpoints;
+        }
+        Endpoint single = new Endpoint();
+        single.setUrl(baseUrl);
+        return List.of(single);
+    }
+
+    public enum Transport {
+        HTTP,
+        WEBSOCKET
+    }
+
+    public enum DispatchPolicy {
+        /** Only closed klines reach the agent. */
+        FINAL_ONLY,
+        /** Open klines are sent when price or volume moved past the thresholds; closed klines always. */
+        ON_CHANGE,
+        /** Every update that differs from the last one sent. */
+        EVERY_UPDATE
+    }
+
+    @Data
+    public static class Dispatch {
+        private DispatchPolicy policy = DispatchPolicy.ON_CHANGE;
+        /** Minimum close move, in percent of the last sent close; 0 sends on any change. */
+        private double minPriceChangePct = 0.0;
+        /** Minimum volume growth, in percent of the last sent volume; 0 sends on any change. */
+        private double minVolumeChangePct = 0.0;
+    }
+
+    /**
+     * Latency-budget mode: when the agent has not answered within the
+     * deadline a rule-based decision is published provisionally and the
+     * agent's late answer replaces it.
+     */
+    @Data
+    public static class Hedge {
+        private boolean enabled = false;
+        private long deadlineMs = 300;
+    }
+
+    @Data
+    public static class Resilience {
+        /** Derive the per-call timeout from recent latencies instead of always using timeout-ms. */
+        private boolean adaptiveTimeout = true;
+        private double timeoutPercentile = 0.99;
+        private double timeoutMultiplier = 2.0;
+        private long minTimeoutMs = 50;
+        private int latencyWindow = 512;
+        private int minSamples = 32;
+        /** Consecutive failures that open the circuit; 0 disables the breaker. */
+        private int failureThreshold = 5;
+        private long openStateMs = 5000;
+    }
+
+    @Data
+    public static class Endpoint {
+        private String url;
+        /** HTTP connections to this instance; 0 uses {@code pool.max-connections}. */
+        private int maxConnections = 0;
+    }
+
+    /**
+     * Symbol-affine routing over {@link #endpoints}: each symbol hashes onto
+     * a ring of virtual nodes and stays on its instance unless that one is
+     * down, its circuit is open, or it is overloaded.
+     */
+    @Data
+    public static class Pool {
+        private int virtualNodes = 128;
+        private int maxConnections = 16;
+        private int pendingAcquireMaxCount = 256;
+        /** Probed on every instance; any answer below 500 counts as up. Blank disables probing. */
+        private String healthPath = "/health";
+        private long healthIntervalMs = 5000;
+        private long healthTimeoutMs = 1000;
+        /**
+         * An instance whose average latency exceeds this multiple of the
+         * fastest usable one is passed over while another has capacity;
+         * 0 disables.
+         */
+        private double slowFactor = 3.0;
+    }
+
+    @Data
+    public static class Batch {
+        private boolean enabled = false;
+        private String path = "/api/agent/on-tick/batch";
+        private int maxSize = 32;
+        private long windowMs = 10;
+        private int maxConcurrentBatches = 4;
+    }
+
+    @Data
+    public static class Stream {
+        private String path = "/api/agent/stream";
+        private long reconnectMinBackoffMs = 200;
+        private long reconnectMaxBackoffMs = 10000;
+        private boolean fallbackToHttp = true;
+    }
+}
@@ -0,0 +1,27 @@
+package com.trading.bot.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "market.replay")
+public class ReplayProperties {
+    private boolean enabled = false;
+    private String file;
+    private Format format = Format.AUTO;
+    private String symbol;
+    private String interval;
+    /**
+     * Playback speed relative to the recorded timestamps; 0 or less replays
+     * as fast as the pipeline accepts ticks.
+     */
+    private double speed = 0;
+
+    public enum Format {
+        AUTO,
+        JSON,
+        CSV
+    }
+}
@@ -1,5 +1,8 @@
 package com.trading.bot.config;
 
+import com.trading.bot.service.agent.AgentWebClientFactory;
+import com.trading.bot.service.codec.PayloadCodecs;
+import com.trading.bot.service.codec.PayloadEncoding;
 import io.netty.channel.ChannelOption;
 import io.netty.handler.timeout.ReadTimeoutHandler;
 import io.netty.handler.timeout.WriteTimeoutHandler;
@@ -7,12 +10,19 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.MediaType;
 import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.http.codec.cbor.JacksonCborDecoder;
+import org.springframework.http.codec.smile.JacksonSmileDecoder;
 import org.springframework.web.reactive.function.client.ExchangeFilterFunction;
 import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.socket.client.ReactorNettyWebSocketClient;
+import org.springframework.web.reactive.socket.client.WebSocketClient;
 import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
 
 import java.time.Duration;
+import java.util.List;
 import java.util.concurrent.TimeUnit;
 
 @Configuration
@@ -21,25 +31,60 @@ import java.util.concurrent.TimeUnit;
 public class RestClientConfig {
 
     private final PythonAgentProperties agentProps;
+    private final PayloadCodecs payloadCodecs;
 
+    /**
+     * Builds one WebClient per agent instance, each with its own connection
+     * pool so a slow instance cannot starve the others of connections.
+     */
     @Bean
-    public WebClient pythonAgentWebClient() {
-        HttpClient httpClient = HttpClient.create()
-                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, 3000)
+    public AgentWebClientFactory pythonAgentWebClientFactory() {
+        return this::pythonAgentWebClient;
+    }
+
+    private WebClient pythonAgentWebClient(PythonAgentProperties.Endpoint endpoint) {
+        PythonAgentProperties.Pool pool = agentProps.getPool();
+        int maxConnections = endpoint.getMaxConnections() > 0 ? endpoint.getMaxConnections() : pool.getMaxConnections();
+        ConnectionProvider connections = ConnectionProvider.builder("python-agent-" + endpoint.getUrl())
+                .maxConnections(Math.max(1, maxConnections))
+                .pendingAcquireMaxCount(pool.getPendingAcquireMaxCount())
+                .pendingAcquireTimeout(Duration.ofMillis(agentProps.getTimeoutMs()))
+                .build();
+        HttpClient httpClient = HttpClient.create(connections)
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, (int) agentProps.getConnectTimeoutMs())
                 .responseTimeout(Duration.ofMillis(agentProps.getTimeoutMs()))
                 .doOnConnected(conn -> conn
                         .addHandlerLast(new ReadTimeoutHandler(agentProps.getTimeoutMs(), TimeUnit.MILLISECONDS))
                         .addHandlerLast(new WriteTimeoutHandler(agentProps.getTimeoutMs(), TimeUnit.MILLISECONDS)));
 
         return WebClient.builder()
-                .baseUrl(agentProps.getBaseUrl())
+                .baseUrl(endpoint.getUrl())
                 .clientConnector(new ReactorClientHttpConnector(httpClient))
-                .defaultHeader("Accept", "application/json")
+                // request bodies in binary encodings are written by HttpAgentTransport
+                .codecs(codecs -> {
+                    codecs.defaultCodecs().jacksonCborDecoder(new JacksonCborDecoder(payloadCodecs.cbor()));
+                    codecs.defaultCodecs().jacksonSmileDecoder(new JacksonSmileDecoder(payloadCodecs.smile()));
+                })
+                .defaultHeaders(headers -> headers.setAccept(accepted(agentProps.getEncoding())))
                 .filter(logRequest())
                 .filter(logResponse())
                 .build();
     }
 
+    /** The configured encoding first, JSON as a fallback the agent may always answer with. */
+    private static List<MediaType> accepted(PayloadEncoding encoding) {
+        return encoding == PayloadEncoding.JSON
+                ? List.of(MediaType.APPLICATION_JSON)
+                : List.of(encoding.mediaType(), MediaType.APPLICATION_JSON);
+    }
+
+    @Bean
+    public WebSocketClient pythonAgentWebSocketClient() {
+        HttpClient httpClient = HttpClient.create()
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, (int) agentProps.getConnectTimeoutMs());
+        return new ReactorNettyWebSocketClient(httpClient);
+    }
+
     private ExchangeFilterFunction logRequest() {
         return ExchangeFilterFunction.ofRequestProcessor(request -> {
             log.info("PythonAgent Request: {} {}", request.method(), request.url());
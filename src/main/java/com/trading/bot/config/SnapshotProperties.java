@@ -0,0 +1,15 @@
+package com.trading.bot.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "market.snapshots")
+public class SnapshotProperties {
+    /** Upper bound on how long a long-poll request waits for a newer snapshot. */
+    private long longPollMaxMs = 30_000;
+    /** Interval of SSE comment frames that keep idle connections open through proxies; 0 disables. */
+    private long sseHeartbeatMs = 15_000;
+}
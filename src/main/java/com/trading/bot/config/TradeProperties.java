@@ -0,0 +1,22 @@
+package com.trading.bot.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "market.trades")
+public class TradeProperties {
+    private boolean enabled = false;
+    /**
+     * Bars built from {@code @aggTrade}: a duration such as {@code 250ms}
+     * or {@code 5s}, a trade count such as {@code 500t}, or a base-asset
+     * volume such as {@code 10v}. The spec becomes the bar's interval, so
+     * it should not repeat a kline interval.
+     */
+    private List<String> bars = new ArrayList<>(List.of("250ms"));
+}
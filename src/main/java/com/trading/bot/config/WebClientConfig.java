@@ -18,7 +18,7 @@ import java.util.concurrent.TimeUnit;
 @Configuration
 @Slf4j
 public class WebClientConfig {
-    @Value("${market.binance.stream-url}")
+    @Value("${market.binance.rest-url}")
     private String baseUrl;
 
     @Bean
@@ -1,19 +1,27 @@
 package com.trading.bot.config;
 
+import lombok.RequiredArgsConstructor;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.messaging.simp.config.ChannelRegistration;
 import org.springframework.messaging.simp.config.MessageBrokerRegistry;
+import org.springframework.messaging.simp.config.TaskExecutorRegistration;
 import org.springframework.web.socket.config.annotation.EnableWebSocketMessageBroker;
 import org.springframework.web.socket.config.annotation.StompEndpointRegistry;
 import org.springframework.web.socket.config.annotation.WebSocketMessageBrokerConfigurer;
+import org.springframework.web.socket.config.annotation.WebSocketTransportRegistration;
 
 @Configuration
 @EnableWebSocketMessageBroker
+@RequiredArgsConstructor
 public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
 
+    private final WebSocketProperties webSocketProps;
+
     @Override
     public void configureMessageBroker(MessageBrokerRegistry config) {
         config.enableSimpleBroker("/topic");
         config.setApplicationDestinationPrefixes("/app");
+        configure(config.configureBrokerChannel().taskExecutor(), webSocketProps.getBroker());
     }
 
     @Override
@@ -21,5 +29,37 @@ public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
         registry.addEndpoint("/ws-market")
                 .setAllowedOriginPatterns("*")
                 .withSockJS();
+        // SockJS frames are text only; binary-encoded topics need a plain WebSocket
+        registry.addEndpoint("/ws-market-native")
+                .setAllowedOriginPatterns("*");
+    }
+
+    @Override
+    public void configureWebSocketTransport(WebSocketTransportRegistration registration) {
+        registration.setSendTimeLimit((int) webSocketProps.getSendTimeLimitMs())
+                .setSendBufferSizeLimit(webSocketProps.getSendBufferSizeLimitBytes())
+                .setMessageSizeLimit(webSocketProps.getMessageSizeLimitBytes());
+    }
+
+    @Override
+    public void configureClientInboundChannel(ChannelRegistration registration) {
+        configure(registration.taskExecutor(), webSocketProps.getInbound());
+    }
+
+    @Override
+    public void configureClientOutboundChannel(ChannelRegistration registration) {
+        configure(registration.taskExecutor(), webSocketProps.getOutbound());
+    }
+
+    private static void configure(TaskExecutorRegistration executor, WebSocketProperties.Channel channel) {
+        if (channel.getCorePoolSize() > 0) {
+            executor.corePoolSize(channel.getCorePoolSize());
+        }
+        if (channel.getMaxPoolSize() > 0) {
+            executor.maxPoolSize(channel.getMaxPoolSize());
+        }
+        if (channel.getQueueCapacity() > 0) {
+            executor.queueCapacity(channel.getQueueCapacity());
+        }
     }
-}
\ No newline at end of file
+}
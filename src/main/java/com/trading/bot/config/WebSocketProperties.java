@@ -0,0 +1,47 @@
+package com.trading.bot.config;
+
+import com.trading.bot.service.codec.PayloadEncoding;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "websocket")
+public class WebSocketProperties {
+
+    /** Conflated tiers published under /topic/throttled/{ms}/... in addition to the realtime topics. */
+    private List<Long> throttleTiersMs = new ArrayList<>(List.of(1000L));
+    /** Binary encodings published under /topic/{encoding}/... in addition to JSON. */
+    private List<PayloadEncoding> encodings = new ArrayList<>();
+    private DecisionDeltas decisionDeltas = new DecisionDeltas();
+    /** A session whose pending sends exceed either limit is closed. */
+    private long sendTimeLimitMs = 10_000;
+    private int sendBufferSizeLimitBytes = 512 * 1024;
+    private int messageSizeLimitBytes = 64 * 1024;
+    private Channel inbound = new Channel();
+    private Channel outbound = new Channel();
+    private Channel broker = new Channel();
+
+    /**
+     * Field-level deltas of consecutive decisions per symbol on
+     * /topic/agent/decision/delta, never throttled; every keyframe-interval-th
+     * message carries all fields.
+     */
+    @Data
+    public static class DecisionDeltas {
+        private boolean enabled = false;
+        private int keyframeInterval = 20;
+    }
+
+    /** Thread pool for a message channel; zero values keep Spring's defaults. */
+    @Data
+    public static class Channel {
+        private int corePoolSize;
+        private int maxPoolSize;
+        private int queueCapacity;
+    }
+}
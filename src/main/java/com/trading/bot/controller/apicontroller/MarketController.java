@@ -1,38 +1,176 @@
 package com.trading.bot.controller.apicontroller;
 
-import com.trading.bot.domain.dto.AgentDecisionDto;
-import com.trading.bot.domain.dto.MarketTickDto;
+import com.trading.bot.config.MarketProperties;
+import com.trading.bot.config.SnapshotProperties;
+import com.trading.bot.domain.dto.CandleDto;
+import com.trading.bot.domain.dto.DispatchStatsDto;
+import com.trading.bot.domain.dto.OrderBookDto;
+import com.trading.bot.domain.dto.PersistenceStatsDto;
+import com.trading.bot.domain.dto.TickHistoryDto;
+import com.trading.bot.service.AgentDispatcher;
 import com.trading.bot.service.MarketDataService;
+import com.trading.bot.service.book.OrderBookService;
+import com.trading.bot.service.candle.CandleAggregator;
+import com.trading.bot.service.history.TickHistoryStore;
+import com.trading.bot.service.persistence.WriteBehindWriter;
+import com.trading.bot.service.snapshot.Snapshot;
+import com.trading.bot.service.snapshot.SnapshotStore;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.codec.ServerSentEvent;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.List;
 
 @RestController
 @RequestMapping("/api/market")
 @RequiredArgsConstructor
 public class MarketController {
 
+    static final String SEQ_HEADER = "X-Snapshot-Seq";
+
     private final MarketDataService marketDataService;
+    private final MarketProperties marketProps;
+    private final AgentDispatcher agentDispatcher;
+    private final TickHistoryStore tickHistoryStore;
+    private final CandleAggregator candleAggregator;
+    private final WriteBehindWriter writeBehindWriter;
+    private final OrderBookService orderBookService;
+    private final SnapshotStore snapshotStore;
+    private final SnapshotProperties snapshotProps;
 
     @GetMapping("/current")
-    public ResponseEntity<MarketTickDto> getCurrentPrice() {
-        MarketTickDto tick = marketDataService.getLastTick();
-        if (tick == null) {
-            return ResponseEntity.noContent().build();
-        }
-        return ResponseEntity.ok(tick);
+    public ResponseEntity<byte[]> getCurrentPrice(
+            @RequestParam(required = false) String symbol,
+            @RequestParam(required = false) String interval,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        return snapshotResponse(snapshotStore.latest(tickKey(symbol, interval)), ifNoneMatch);
     }
 
     @GetMapping("/last-decision")
-    public ResponseEntity<AgentDecisionDto> getLastDecision() {
-        AgentDecisionDto decision = marketDataService.getLastDecision();
-        if (decision == null) {
+    public ResponseEntity<byte[]> getLastDecision(
+            @RequestParam(required = false) String symbol,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        return snapshotResponse(snapshotStore.latest(decisionKey(symbol)), ifNoneMatch);
+    }
+
+    @GetMapping("/account")
+    public ResponseEntity<byte[]> getAccount(
+            @RequestParam(required = false) String symbol,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        return snapshotResponse(snapshotStore.latest(
+                SnapshotStore.accountKey(symbol != null ? symbol : marketProps.getDefaultSymbol())), ifNoneMatch);
+    }
+
+    /**
+     * Long-poll for the first tick with a sequence number above
+     * {@code since}; answers 204 if none arrives within {@code timeoutMs}.
+     * A {@code since} ahead of the channel, as a client holds across a
+     * server restart, gets the current tick straight away.
+     */
+    @GetMapping("/current/poll")
+    public Mono<ResponseEntity<byte[]>> pollCurrentPrice(
+            @RequestParam(required = false) String symbol,
+            @RequestParam(required = false) String interval,
+            @RequestParam(defaultValue = "0") long since,
+            @RequestParam(required = false) Long timeoutMs) {
+        return poll(knownChannel(tickKey(symbol, interval), symbol, interval), since, timeoutMs);
+    }
+
+    @GetMapping("/last-decision/poll")
+    public Mono<ResponseEntity<byte[]>> pollLastDecision(
+            @RequestParam(required = false) String symbol,
+            @RequestParam(defaultValue = "0") long since,
+            @RequestParam(required = false) Long timeoutMs) {
+        return poll(knownChannel(decisionKey(symbol), symbol, null), since, timeoutMs);
+    }
+
+    /**
+     * Server-sent {@code market} and {@code decision} events for one
+     * symbol, starting with the current snapshots. A client that falls
+     * behind skips to the latest snapshot instead of queueing stale ones.
+     */
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public Flux<ServerSentEvent<byte[]>> stream(
+            @RequestParam(required = false) String symbol,
+            @RequestParam(required = false) String interval) {
+        Flux<ServerSentEvent<byte[]>> ticks = snapshotStore.updates(knownChannel(tickKey(symbol, interval), symbol,
+                        interval))
+                .onBackpressureLatest()
+                .map(snapshot -> event("market", snapshot));
+        Flux<ServerSentEvent<byte[]>> decisions = snapshotStore.updates(knownChannel(decisionKey(symbol), symbol, null))
+                .onBackpressureLatest()
+                .map(snapshot -> event("decision", snapshot));
+        Flux<ServerSentEvent<byte[]>> heartbeat = snapshotProps.getSseHeartbeatMs() > 0
+                ? Flux.interval(Duration.ofMillis(snapshotProps.getSseHeartbeatMs()))
+                        .onBackpressureDrop()
+                        .map(n -> ServerSentEvent.<byte[]>builder().comment("keepalive").build())
+                : Flux.empty();
+        return Flux.merge(1, ticks, decisions, heartbeat);
+    }
+
+    @GetMapping("/history")
+    public ResponseEntity<TickHistoryDto> getHistory(
+            @RequestParam String symbol,
+            @RequestParam(required = false) String interval,
+            @RequestParam(required = false) Long from,
+            @RequestParam(required = false) Long to,
+            @RequestParam(required = false) Integer limit) {
+        return ResponseEntity.ok(tickHistoryStore.query(symbol,
+                interval != null ? interval : marketProps.getDefaultInterval(), from, to, limit));
+    }
+
+    @GetMapping("/candles")
+    public ResponseEntity<TickHistoryDto> getCandles(
+            @RequestParam String symbol,
+            @RequestParam String timeframe,
+            @RequestParam(required = false) Long from,
+            @RequestParam(required = false) Long to,
+            @RequestParam(required = false) Integer limit) {
+        return ResponseEntity.ok(candleAggregator.query(symbol, timeframe, from, to, limit));
+    }
+
+    @GetMapping("/candles/current")
+    public ResponseEntity<List<CandleDto>> getCurrentCandles(@RequestParam String symbol) {
+        return ResponseEntity.ok(candleAggregator.currentBars(symbol));
+    }
+
+    @GetMapping("/book")
+    public ResponseEntity<OrderBookDto> getOrderBook(
+            @RequestParam(required = false) String symbol,
+            @RequestParam(required = false) Integer depth) {
+        OrderBookDto book = orderBookService.view(symbol != null ? symbol : marketProps.getDefaultSymbol(), depth);
+        if (book == null) {
             return ResponseEntity.noContent().build();
         }
-        return ResponseEntity.ok(decision);
+        return ResponseEntity.ok(book);
+    }
+
+    @GetMapping("/symbols")
+    public ResponseEntity<List<String>> getSymbols() {
+        return ResponseEntity.ok(marketProps.getSymbolsOrDefault());
+    }
+
+    @GetMapping("/dispatch-stats")
+    public ResponseEntity<List<DispatchStatsDto>> getDispatchStats() {
+        return ResponseEntity.ok(agentDispatcher.getStats());
+    }
+
+    @GetMapping("/persistence-stats")
+    public ResponseEntity<PersistenceStatsDto> getPersistenceStats() {
+        return ResponseEntity.ok(writeBehindWriter.getStats());
     }
 
     @PostMapping("/force-update")
@@ -40,4 +178,65 @@ public class MarketController {
         marketDataService.fetchAndBroadcastMarketData();
         return ResponseEntity.ok("Update request sent to background service");
     }
-}
\ No newline at end of file
+
+    private String tickKey(String symbol, String interval) {
+        return SnapshotStore.tickKey(symbol != null ? symbol : marketProps.getDefaultSymbol(),
+                interval != null ? interval : marketProps.getDefaultInterval());
+    }
+
+    private String decisionKey(String symbol) {
+        return SnapshotStore.decisionKey(symbol != null ? symbol : marketProps.getDefaultSymbol());
+    }
+
+    /**
+     * Waiting on a channel creates it, so clients may only wait on
+     * configured symbols and intervals, or on channels that already carry
+     * data, such as trade bars or replayed symbols.
+     *
+     * @throws ResponseStatusException 404 for any other channel
+     */
+    private String knownChannel(String key, String symbol, String interval) {
+        boolean configured = (symbol == null || marketProps.getSymbolsOrDefault().stream()
+                .anyMatch(symbol::equalsIgnoreCase))
+                && (interval == null || marketProps.getIntervals().contains(interval));
+        if (!configured && snapshotStore.latest(key) == null) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Unknown channel " + key);
+        }
+        return key;
+    }
+
+    private Mono<ResponseEntity<byte[]>> poll(String key, long since, Long timeoutMs) {
+        long wait = Math.min(timeoutMs != null ? Math.max(0, timeoutMs) : snapshotProps.getLongPollMaxMs(),
+                snapshotProps.getLongPollMaxMs());
+        return snapshotStore.updates(key)
+                .filter(snapshot -> snapshot.seq() != since)
+                .next()
+                .timeout(Duration.ofMillis(wait), Mono.empty())
+                .map(snapshot -> snapshotResponse(snapshot, null))
+                .defaultIfEmpty(ResponseEntity.noContent().build());
+    }
+
+    private static ResponseEntity<byte[]> snapshotResponse(Snapshot snapshot, String ifNoneMatch) {
+        if (snapshot == null) {
+            return ResponseEntity.noContent().build();
+        }
+        if (ifNoneMatch != null && (ifNoneMatch.equals("*") || ifNoneMatch.contains(snapshot.etag()))) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                    .eTag(snapshot.etag())
+                    .header(SEQ_HEADER, Long.toString(snapshot.seq()))
+                    .build();
+        }
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .eTag(snapshot.etag())
+                .header(SEQ_HEADER, Long.toString(snapshot.seq()))
+                .body(snapshot.body());
+    }
+
+    private static ServerSentEvent<byte[]> event(String name, Snapshot snapshot) {
+        return ServerSentEvent.builder(snapshot.body())
+                .id(Long.toString(snapshot.seq()))
+                .event(name)
+                .build();
+    }
+}
@@ -0,0 +1,37 @@
+package com.trading.bot.controller.apicontroller;
+
+import com.trading.bot.config.ReplayProperties;
+import com.trading.bot.domain.dto.ReplaySummaryDto;
+import com.trading.bot.service.replay.ReplayService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/api/replay")
+@RequiredArgsConstructor
+public class ReplayController {
+
+    private final ReplayService replayService;
+    private final ReplayProperties replayProps;
+
+    @GetMapping("/summary")
+    public ResponseEntity<ReplaySummaryDto> getSummary() {
+        if (!replayProps.isEnabled()) {
+            return ResponseEntity.noContent().build();
+        }
+        return ResponseEntity.ok(replayService.getSummary());
+    }
+
+    @PostMapping("/start")
+    public ResponseEntity<String> start() {
+        if (!replayProps.isEnabled()) {
+            return ResponseEntity.badRequest().body("Replay mode is disabled");
+        }
+        replayService.start();
+        return ResponseEntity.ok("Replay started");
+    }
+}
@@ -0,0 +1,31 @@
+package com.trading.bot.domain.dto;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Account state re-marked locally at the latest tick price between agent
+ * decisions.
+ */
+@Data
+@NoArgsConstructor
+public class AccountMarkDto {
+    private String symbol;
+    private double markPrice;
+    private long markTime;
+    private double balance;
+    private double equity;
+    private double unrealizedPnl;
+    private double realizedPnl;
+    private Double roiPct;
+    private String positionSide;
+    private double positionSize;
+    private double avgEntryPrice;
+    private Double takeProfitPrice;
+    private Double stopLossPrice;
+    /** Signed distance from the mark price to the level, in percent of the mark price. */
+    private Double takeProfitDistancePct;
+    private Double stopLossDistancePct;
+    /** Ticks marked since the agent last reported the account. */
+    private long ticksSinceSeed;
+}
@@ -27,4 +27,8 @@ public class AgentDecisionDto {
     private Double stopLossPrice;
     private Double positionNotional;
     private Double avgEntryPrice;
+    /** AGENT or FALLBACK. */
+    private String source;
+    /** Set on an agent answer that replaces an earlier provisional fallback decision. */
+    private boolean reconciled;
 }
\ No newline at end of file
@@ -0,0 +1,14 @@
+package com.trading.bot.domain.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AgentRequestEnvelope {
+    private long id;
+    private String type;
+    private MarketTickDto payload;
+}
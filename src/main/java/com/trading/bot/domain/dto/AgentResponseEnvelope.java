@@ -0,0 +1,11 @@
+package com.trading.bot.domain.dto;
+
+import lombok.Data;
+
+@Data
+public class AgentResponseEnvelope {
+    private long id;
+    private String type;
+    private BotDecisionDto payload;
+    private String error;
+}
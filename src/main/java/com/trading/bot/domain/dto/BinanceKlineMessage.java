@@ -6,9 +6,14 @@ import lombok.Data;
 @Data
 public class BinanceKlineMessage {
 
-    private String e;
-    private long E;
-    private String s;
+    @JsonProperty("e")
+    private String eventType;
+
+    @JsonProperty("E")
+    private long eventTime;
+
+    @JsonProperty("s")
+    private String symbol;
 
     @JsonProperty("k")
     private Kline kline;
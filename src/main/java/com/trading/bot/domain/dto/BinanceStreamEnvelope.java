@@ -0,0 +1,9 @@
+package com.trading.bot.domain.dto;
+
+import lombok.Data;
+
+@Data
+public class BinanceStreamEnvelope {
+    private String stream;
+    private BinanceKlineMessage data;
+}
@@ -0,0 +1,20 @@
+package com.trading.bot.domain.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CandleDto {
+    private String symbol;
+    private String timeframe;
+    private long openTime;
+    private long closeTime;
+    private double open;
+    private double high;
+    private double low;
+    private double close;
+    private double volume;
+}
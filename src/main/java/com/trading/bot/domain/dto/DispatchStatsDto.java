@@ -0,0 +1,19 @@
+package com.trading.bot.domain.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DispatchStatsDto {
+    private String symbol;
+    private long dispatched;
+    private long conflated;
+    /** Agent calls that ended without a decision: breaker rejections and swallowed failures. */
+    private long empty;
+    private int inFlight;
+    /** Agent calls saved by the dispatch policy. */
+    private long skipped;
+}
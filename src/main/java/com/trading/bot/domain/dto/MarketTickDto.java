@@ -1,21 +1,51 @@
 package com.trading.bot.domain.dto;
 
-import lombok.AllArgsConstructor;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
 import java.time.LocalDateTime;
+import java.util.Map;
 
 @Data
 @NoArgsConstructor
-@AllArgsConstructor
 public class MarketTickDto {
     private String symbol;
+    private String interval;
     private LocalDateTime timestamp;
+    private long openTime;
+    private long closeTime;
     private double open;
     private double high;
     private double low;
     private double close;
     private double volume;
+    private boolean finalBar;
+    private Map<String, Double> indicators;
 
+    /** Local {@link System#nanoTime()} at which the source frame arrived; 0 if unknown. */
+    @JsonIgnore
+    private long receivedNanos;
+
+    public MarketTickDto(String symbol, String interval, LocalDateTime timestamp, long openTime, long closeTime,
+                         double open, double high, double low, double close, double volume, boolean finalBar) {
+        this(symbol, interval, timestamp, openTime, closeTime, open, high, low, close, volume, finalBar, null);
+    }
+
+    public MarketTickDto(String symbol, String interval, LocalDateTime timestamp, long openTime, long closeTime,
+                         double open, double high, double low, double close, double volume, boolean finalBar,
+                         Map<String, Double> indicators) {
+        this.symbol = symbol;
+        this.interval = interval;
+        this.timestamp = timestamp;
+        this.openTime = openTime;
+        this.closeTime = closeTime;
+        this.open = open;
+        this.high = high;
+        this.low = low;
+        this.close = close;
+        this.volume = volume;
+        this.finalBar = finalBar;
+        this.indicators = indicators;
+    }
 }
@@ -0,0 +1,23 @@
+package com.trading.bot.domain.dto;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+public class OrderBookDto {
+    private String symbol;
+    private long lastUpdateId;
+    private long eventTime;
+    private double bestBid;
+    private double bestBidQty;
+    private double bestAsk;
+    private double bestAskQty;
+    private double spread;
+    private double mid;
+    /** (bid - ask) / (bid + ask) quantity over the configured top levels, in [-1, 1]. */
+    private double imbalance;
+    /** {@code [price, qty]} pairs, best first. */
+    private double[][] bids;
+    private double[][] asks;
+}
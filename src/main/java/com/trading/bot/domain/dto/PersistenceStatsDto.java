@@ -0,0 +1,17 @@
+package com.trading.bot.domain.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PersistenceStatsDto {
+    private boolean enabled;
+    private int queued;
+    private long written;
+    private long dropped;
+    private long spilled;
+    private long failed;
+}
@@ -0,0 +1,25 @@
+package com.trading.bot.domain.dto;
+
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+public class ReplaySummaryDto {
+    private String file;
+    private boolean running;
+    private double speed;
+    private long ticks;
+    private long skippedLines;
+    private long decisions;
+    private double elapsedSeconds;
+    private double ticksPerSecond;
+    private double avgDecisionLatencyMs;
+    private double p50DecisionLatencyMs;
+    private double p99DecisionLatencyMs;
+    private double maxDecisionLatencyMs;
+    /** Sum over the replayed symbols, each of which trades its own account. */
+    private Double finalEquity;
+    private Double roiPct;
+    private List<ReplaySymbolResultDto> symbols;
+}
@@ -0,0 +1,15 @@
+package com.trading.bot.domain.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReplaySymbolResultDto {
+    private String symbol;
+    private long decisions;
+    private Double finalEquity;
+    private Double roiPct;
+}
@@ -0,0 +1,24 @@
+package com.trading.bot.domain.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Column-oriented slice of a symbol's bar history; row {@code i} is the bar
+ * opened at {@code openTime[i]} (epoch millis).
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TickHistoryDto {
+    private String symbol;
+    private String interval;
+    private int count;
+    private long[] openTime;
+    private double[] open;
+    private double[] high;
+    private double[] low;
+    private double[] close;
+    private double[] volume;
+}
@@ -0,0 +1,99 @@
+package com.trading.bot.service;
+
+import com.trading.bot.config.TradingProperties;
+import com.trading.bot.domain.dto.AccountStateDto;
+import com.trading.bot.domain.dto.AgentDecisionDto;
+import com.trading.bot.domain.dto.BotDecisionDto;
+import com.trading.bot.domain.dto.MarketTickDto;
+import com.trading.bot.domain.dto.TradeEventDto;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Flattens an agent's {@link BotDecisionDto} into the UI-facing
+ * {@link AgentDecisionDto}. Without an account, as on fallback decisions
+ * before the agent's first answer, the account fields stay null rather
+ * than reporting an empty account.
+ */
+@Component
+@RequiredArgsConstructor
+public class AgentDecisionMapper {
+
+    private final TradingProperties tradingProperties;
+
+    public AgentDecisionDto toAgentDecision(BotDecisionDto botDecision, MarketTickDto tick) {
+        AccountStateDto account = botDecision.getAccount();
+        List<TradeEventDto> trades = botDecision.getTrades();
+
+        TradeEventDto lastTrade = (trades != null && !trades.isEmpty())
+                ? trades.get(trades.size() - 1)
+                : null;
+
+        String action = "HOLD";
+        String reason = null;
+        String symbol = tick.getSymbol();
+        Double quantity = null;
+        Double price = tick.getClose();
+
+        if (botDecision.getDebug() != null) {
+            Object strategyAction = botDecision.getDebug().get("strategy_action");
+            Object strategyReason = botDecision.getDebug().get("strategy_reason");
+
+            if (strategyAction != null) {
+                action = String.valueOf(strategyAction);
+            }
+            if (strategyReason != null) {
+                reason = String.valueOf(strategyReason);
+            }
+        }
+
+        if (lastTrade != null) {
+            symbol = lastTrade.getSymbol();
+            quantity = lastTrade.getVolume();
+            price = lastTrade.getPrice();
+            if (lastTrade.getReason() != null) {
+                reason = lastTrade.getReason();
+            }
+        }
+
+        Double balance = account != null ? account.getBalance() : null;
+        Double equity = account != null ? account.getEquity() : null;
+
+        double initialBalance = tradingProperties.getInitialBalance();
+        Double roiPct = null;
+        if (initialBalance > 0 && equity != null) {
+            roiPct = (equity - initialBalance) / initialBalance * 100.0;
+        }
+
+        Double realizedPnl = null;
+        if (account != null) {
+            realizedPnl = account.getRealizedPnl();
+
+        }
+
+        AgentDecisionDto dto = new AgentDecisionDto();
+        dto.setAction(action);
+        dto.setSymbol(symbol);
+        dto.setQuantity(quantity);
+        dto.setPrice(price);
+        dto.setReason(reason);
+        dto.setBalance(balance);
+        dto.setEquity(equity);
+        dto.setRealizedPnl(realizedPnl);
+        dto.setRoiPct(roiPct);
+
+        if (account != null) {
+            dto.setPositionSide(account.getPositionSide());
+            dto.setPositionSize(account.getPositionSize());
+            dto.setPositionOpenTime(account.getPositionOpenTime());
+            dto.setTakeProfitPrice(account.getTakeProfitPrice());
+            dto.setStopLossPrice(account.getStopLossPrice());
+            dto.setPositionNotional(account.getPositionNotional());
+            dto.setAvgEntryPrice(account.getAvgEntryPrice());
+        }
+
+        return dto;
+    }
+}
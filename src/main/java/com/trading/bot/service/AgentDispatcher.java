@@ -0,0 +1,146 @@
+package com.trading.bot.service;
+
+import com.trading.bot.config.PythonAgentProperties;
+import com.trading.bot.domain.dto.BotDecisionDto;
+import com.trading.bot.domain.dto.DispatchStatsDto;
+import com.trading.bot.domain.dto.MarketTickDto;
+import com.trading.bot.service.agent.RuleBasedFallbackStrategy;
+import com.trading.bot.service.metrics.PipelineMetrics;
+import com.trading.bot.service.metrics.PipelineStage;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Per-symbol stage between the tick lanes and the Python agent. Ticks the
+ * dispatch policy considers redundant are skipped first. At most
+ * {@code max-in-flight-per-symbol} requests run at once for a symbol; while
+ * the limit is reached pending ticks are conflated per interval by a
+ * {@link TickConflator}, and decisions are emitted in tick order so the
+ * last decision never moves backwards.
+ */
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class AgentDispatcher {
+
+    private final PythonAgentClient pythonAgentClient;
+    private final PythonAgentProperties agentProps;
+    private final PipelineMetrics pipelineMetrics;
+    private final RuleBasedFallbackStrategy fallbackStrategy;
+
+    private final Map<String, SymbolStats> stats = new ConcurrentHashMap<>();
+
+    public Flux<TickDecision> dispatch(String symbol, Flux<MarketTickDto> ticks) {
+        return dispatch(symbol, ticks, true);
+    }
+
+    /**
+     * @param conflate when {@code false} every tick is sent and the limit
+     *                 applies backpressure upstream instead, as replay needs
+     */
+    public Flux<TickDecision> dispatch(String symbol, Flux<MarketTickDto> ticks, boolean conflate) {
+        SymbolStats symbolStats = stats.computeIfAbsent(symbol, this::newStats);
+        int maxInFlight = Math.max(1, agentProps.getMaxInFlightPerSymbol());
+        DispatchGate gate = new DispatchGate(agentProps.getDispatch());
+
+        Flux<MarketTickDto> admitted = ticks.filter(tick -> {
+            if (gate.admit(tick)) {
+                return true;
+            }
+            symbolStats.skipped.increment();
+            return false;
+        });
+        Flux<MarketTickDto> pending = conflate
+                ? TickConflator.conflate(admitted, symbolStats.conflated::increment)
+                : admitted;
+        return pending
+                .flatMapSequential(tick -> {
+                    symbolStats.dispatched.increment();
+                    symbolStats.inFlight.incrementAndGet();
+                    long sent = System.nanoTime();
+                    if (tick.getReceivedNanos() != 0) {
+                        pipelineMetrics.record(PipelineStage.DISPATCH_WAIT, symbol, sent - tick.getReceivedNanos());
+                    }
+                    return call(symbol, tick, sent)
+                            .switchIfEmpty(Mono.fromRunnable(symbolStats.empty::increment))
+                            .doFinally(signal -> symbolStats.inFlight.decrementAndGet());
+                }, maxInFlight, 1);
+    }
+
+    /**
+     * In latency-budget mode the agent call is raced against the deadline;
+     * on expiry, or if the agent fails or is circuit-broken, a fallback
+     * decision is emitted and the agent's answer, if it still comes,
+     * follows as a reconciliation. The request keeps its
+     * in-flight slot until the agent answers or times out.
+     */
+    private Flux<TickDecision> call(String symbol, MarketTickDto tick, long sent) {
+        PythonAgentProperties.Hedge hedge = agentProps.getHedge();
+        if (!hedge.isEnabled()) {
+            return pythonAgentClient.sendTickAndGetDecision(tick)
+                    .map(decision -> agentDecision(symbol, tick, decision, sent, false))
+                    .flux();
+        }
+        CompletableFuture<BotDecisionDto> answer = pythonAgentClient.sendTickAndGetDecision(tick).toFuture();
+        return Mono.fromFuture(answer, true)
+                .map(decision -> agentDecision(symbol, tick, decision, sent, false))
+                .switchIfEmpty(Mono.fromSupplier(() -> fallbackDecision(symbol, tick, sent)))
+                .flux()
+                .timeout(Duration.ofMillis(hedge.getDeadlineMs()), Flux.defer(() -> Flux.concat(
+                        Mono.fromSupplier(() -> fallbackDecision(symbol, tick, sent)),
+                        Mono.fromFuture(answer, true)
+                                .map(decision -> agentDecision(symbol, tick, decision, sent, true)))));
+    }
+
+    private TickDecision fallbackDecision(String symbol, MarketTickDto tick, long sent) {
+        pipelineMetrics.fallbackDecision(symbol);
+        return new TickDecision(tick, fallbackStrategy.decide(tick), sent, System.nanoTime(),
+                DecisionSource.FALLBACK, false);
+    }
+
+    private TickDecision agentDecision(String symbol, MarketTickDto tick, BotDecisionDto decision, long sent,
+                                       boolean reconciled) {
+        long responded = System.nanoTime();
+        pipelineMetrics.record(PipelineStage.AGENT, symbol, responded - sent);
+        fallbackStrategy.onAgentDecision(symbol, decision);
+        return new TickDecision(tick, decision, sent, responded, DecisionSource.AGENT, reconciled);
+    }
+
+    public List<DispatchStatsDto> getStats() {
+        List<DispatchStatsDto> result = new ArrayList<>();
+        stats.forEach((symbol, s) -> result.add(s.toDto(symbol)));
+        return result;
+    }
+
+    private SymbolStats newStats(String symbol) {
+        SymbolStats symbolStats = new SymbolStats();
+        pipelineMetrics.bindDispatchStats(symbol, symbolStats.dispatched, symbolStats.conflated,
+                symbolStats.empty, symbolStats.skipped, symbolStats.inFlight);
+        return symbolStats;
+    }
+
+    private static final class SymbolStats {
+        private final LongAdder dispatched = new LongAdder();
+        private final LongAdder conflated = new LongAdder();
+        private final LongAdder empty = new LongAdder();
+        private final LongAdder skipped = new LongAdder();
+        private final AtomicInteger inFlight = new AtomicInteger();
+
+        private DispatchStatsDto toDto(String symbol) {
+            return new DispatchStatsDto(symbol, dispatched.sum(), conflated.sum(), empty.sum(), inFlight.get(),
+                    skipped.sum());
+        }
+    }
+}
@@ -0,0 +1,8 @@
+package com.trading.bot.service;
+
+public enum DecisionSource {
+    /** Answer from the Python agent. */
+    AGENT,
+    /** Provisional rule-based decision issued while the agent was over its latency budget. */
+    FALLBACK
+}
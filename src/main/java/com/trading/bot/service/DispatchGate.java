@@ -0,0 +1,91 @@
+package com.trading.bot.service;
+
+import com.trading.bot.config.PythonAgentProperties;
+import com.trading.bot.domain.dto.MarketTickDto;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Decides whether a symbol's tick is worth an agent call, remembering the
+ * last tick let through per interval. Confined to the symbol's lane, so it
+ * is not thread-safe.
+ */
+final class DispatchGate {
+
+    private final PythonAgentProperties.Dispatch config;
+    private final Map<String, LastSent> lastSent = new HashMap<>(4);
+
+    DispatchGate(PythonAgentProperties.Dispatch config) {
+        this.config = config;
+    }
+
+    boolean admit(MarketTickDto tick) {
+        LastSent last = lastSent.get(tick.getInterval());
+        if (last == null) {
+            if (!tick.isFinalBar() && config.getPolicy() == PythonAgentProperties.DispatchPolicy.FINAL_ONLY) {
+                return false;
+            }
+            last = new LastSent();
+            lastSent.put(tick.getInterval(), last);
+            last.copy(tick);
+            return true;
+        }
+        if (last.sameAs(tick) || !policyAdmits(last, tick)) {
+            return false;
+        }
+        last.copy(tick);
+        return true;
+    }
+
+    private boolean policyAdmits(LastSent last, MarketTickDto tick) {
+        if (tick.isFinalBar()) {
+            return true;
+        }
+        return switch (config.getPolicy()) {
+            case FINAL_ONLY -> false;
+            case EVERY_UPDATE -> true;
+            case ON_CHANGE -> last.openTime != tick.getOpenTime()
+                    || exceeds(last.close, tick.getClose(), config.getMinPriceChangePct())
+                    || exceeds(last.volume, tick.getVolume(), config.getMinVolumeChangePct());
+        };
+    }
+
+    private static boolean exceeds(double previous, double current, double thresholdPct) {
+        double delta = Math.abs(current - previous);
+        if (thresholdPct <= 0 || previous == 0) {
+            return delta > 0;
+        }
+        return delta * 100.0 >= Math.abs(previous) * thresholdPct;
+    }
+
+    private static final class LastSent {
+        private long openTime;
+        private double open;
+        private double high;
+        private double low;
+        private double close;
+        private double volume;
+        private boolean finalBar;
+
+        private boolean sameAs(MarketTickDto tick) {
+            return openTime == tick.getOpenTime()
+                    && finalBar == tick.isFinalBar()
+                    && open == tick.getOpen()
+                    && high == tick.getHigh()
+                    && low == tick.getLow()
+                    && close == tick.getClose()
+                    && volume == tick.getVolume();
+        }
+
+        private void copy(MarketTickDto tick) {
+            openTime = tick.getOpenTime();
+            open = tick.getOpen();
+            high = tick.getHigh();
+            low = tick.getLow();
+            close = tick.getClose();
+            volume = tick.getVolume();
+            finalBar = tick.isFinalBar();
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package com.trading.bot.service;
+
+import com.trading.bot.domain.dto.MarketTickDto;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.util.concurrent.Queues;
+
+import java.time.Duration;
+
+/**
+ * Merges the ticks of every live connection, kline and trade alike, into
+ * one flux, so a symbol gets a single lane and dispatcher however its
+ * streams are spread over connections. Backpressure still reaches each
+ * connection through the merge. If the merged flux is cancelled, attached
+ * sessions end so their connections reconnect and attach again.
+ */
+final class LiveTicks {
+
+    private final Sinks.Many<Flux<MarketTickDto>> sessions = Sinks.many().multicast()
+            .onBackpressureBuffer(Queues.SMALL_BUFFER_SIZE, false);
+
+    Flux<MarketTickDto> ticks() {
+        return sessions.asFlux().flatMap(session -> session, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Adds one connection session's ticks to the merge.
+     *
+     * @return completes or fails with the session; cancelling it detaches
+     * the session
+     */
+    Mono<Void> attach(Flux<MarketTickDto> session) {
+        return Mono.defer(() -> {
+            Sinks.Empty<Void> ended = Sinks.empty();
+            Sinks.One<Boolean> detached = Sinks.one();
+            Flux<MarketTickDto> ticks = session
+                    .takeUntilOther(detached.asMono())
+                    .doOnComplete(ended::tryEmitEmpty)
+                    .doOnCancel(ended::tryEmitEmpty)
+                    .onErrorResume(ex -> {
+                        ended.tryEmitError(ex);
+                        return Flux.empty();
+                    });
+            sessions.emitNext(ticks, Sinks.EmitFailureHandler.busyLooping(Duration.ofSeconds(1)));
+            return ended.asMono().doOnCancel(() -> detached.tryEmitValue(true));
+        });
+    }
+}
@@ -1,204 +1,203 @@
 package com.trading.bot.service;
 
+import com.trading.bot.config.DepthProperties;
 import com.trading.bot.config.MarketProperties;
-import com.trading.bot.config.TradingProperties;
+import com.trading.bot.config.ReplayProperties;
+import com.trading.bot.config.TradeProperties;
 import com.trading.bot.domain.dto.*;
+import com.trading.bot.service.account.AccountTracker;
+import com.trading.bot.service.binance.BinanceDepthStream;
+import com.trading.bot.service.binance.BinanceKlineStream;
+import com.trading.bot.service.binance.BinanceTradeStream;
+import com.trading.bot.service.book.OrderBookService;
+import com.trading.bot.service.candle.CandleAggregator;
+import com.trading.bot.service.fanout.DecisionDeltaPublisher;
+import com.trading.bot.service.fanout.StompFanout;
+import com.trading.bot.service.history.TickHistoryStore;
+import com.trading.bot.service.indicator.IndicatorEngine;
+import com.trading.bot.service.metrics.PipelineMetrics;
+import com.trading.bot.service.metrics.PipelineStage;
+import com.trading.bot.service.persistence.WriteBehindWriter;
+import com.trading.bot.service.snapshot.SnapshotStore;
 import jakarta.annotation.PostConstruct;
-import lombok.Getter;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.messaging.simp.SimpMessagingTemplate;
 import org.springframework.stereotype.Service;
-import org.springframework.web.reactive.socket.WebSocketMessage;
-import org.springframework.web.reactive.socket.client.WebSocketClient;
-import reactor.core.publisher.Mono;
-import reactor.core.scheduler.Schedulers;
-import tools.jackson.databind.ObjectMapper;
-
-import java.net.URI;
-import java.time.Instant;
-import java.time.LocalDateTime;
-import java.time.ZoneId;
+import reactor.core.publisher.Flux;
+import reactor.core.scheduler.Scheduler;
+import reactor.util.concurrent.Queues;
+
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 @Service
 @Slf4j
 @RequiredArgsConstructor
 public class MarketDataService {
 
-    private final WebSocketClient binanceWebSocketClient;
-    private final ObjectMapper objectMapper;
-    private final SimpMessagingTemplate messagingTemplate;
+    private final BinanceKlineStream binanceKlineStream;
+    private final BinanceDepthStream binanceDepthStream;
+    private final BinanceTradeStream binanceTradeStream;
+    private final StompFanout stompFanout;
+    private final DecisionDeltaPublisher decisionDeltaPublisher;
     private final MarketProperties marketProps;
-    private final PythonAgentClient pythonAgentClient;
-    private final TradingProperties tradingProperties;
-
-    @Getter
-    private volatile MarketTickDto lastTick;
-
-    @Getter
-    private volatile AgentDecisionDto lastDecision;
+    private final DepthProperties depthProps;
+    private final TradeProperties tradeProps;
+    private final ReplayProperties replayProps;
+    private final AgentDispatcher agentDispatcher;
+    private final AgentDecisionMapper agentDecisionMapper;
+    private final SymbolLanes symbolLanes;
+    private final TickHistoryStore tickHistoryStore;
+    private final CandleAggregator candleAggregator;
+    private final IndicatorEngine indicatorEngine;
+    private final OrderBookService orderBookService;
+    private final WriteBehindWriter writeBehindWriter;
+    private final SnapshotStore snapshotStore;
+    private final AccountTracker accountTracker;
+    private final PipelineMetrics pipelineMetrics;
+
+    private final Map<String, MarketTickDto> lastTicks = new ConcurrentHashMap<>();
+    private final Map<String, AgentDecisionDto> lastDecisions = new ConcurrentHashMap<>();
+    private final LiveTicks liveTicks = new LiveTicks();
 
     @PostConstruct
     public void startStreaming() {
-        connectToBinance();
-    }
-
-    private void connectToBinance() {
-        URI uri = URI.create(marketProps.getStreamUrl());
-
-        binanceWebSocketClient
-                .execute(uri, session ->
-                        session.receive()
-                                .map(WebSocketMessage::getPayloadAsText)
-                                .map(this::parseBinanceMessage)
-                                .filter(msg -> msg != null && msg.getKline() != null)
-                                .map(this::convertToTick)
-                                .flatMap(this::handleTick)
-                                .onErrorResume(ex -> {
-                                    log.error("Error in Binance WS stream", ex);
-                                    return Mono.empty();
-                                })
-                                .then()
-                )
-                .doOnError(ex -> log.error("Binance WS connection error", ex))
-                .repeat()
+        if (replayProps.isEnabled()) {
+            log.info("Replay mode enabled, not connecting to Binance");
+            return;
+        }
+        ingest(liveTicks.ticks(), true)
+                .doOnError(ex -> log.error("Live tick pipeline failed, restarting", ex))
+                .retry()
                 .subscribe();
+        int perConnection = Math.max(1, marketProps.getStreamsPerConnection());
+        for (List<String> chunk : chunkStreamsBySymbol(perConnection)) {
+            connectToBinance(chunk);
+        }
+        List<String> symbols = marketProps.getSymbolsOrDefault();
+        for (int from = 0; from < symbols.size(); from += perConnection) {
+            List<String> chunk = symbols.subList(from, Math.min(symbols.size(), from + perConnection));
+            if (depthProps.isEnabled()) {
+                binanceDepthStream.run(chunk).subscribe();
+            }
+            if (tradeProps.isEnabled()) {
+                binanceTradeStream.run(chunk, liveTicks::attach).subscribe();
+            }
+        }
     }
 
-    private BinanceKlineMessage parseBinanceMessage(String json) {
-        try {
-            return objectMapper.readValue(json, BinanceKlineMessage.class);
-        } catch (Exception e) {
-            log.warn("Failed to parse Binance kline message: {}", json, e);
-            return null;
+    /**
+     * Packs kline streams into connections of at most {@code perConnection}
+     * streams, keeping all intervals of a symbol on the same connection.
+     */
+    private List<List<String>> chunkStreamsBySymbol(int perConnection) {
+        List<List<String>> chunks = new ArrayList<>();
+        List<String> chunk = new ArrayList<>();
+        for (String symbol : marketProps.getSymbolsOrDefault()) {
+            List<String> streams = new ArrayList<>();
+            for (String interval : marketProps.getIntervals()) {
+                streams.add(symbol.toLowerCase(Locale.ROOT) + "@kline_" + interval);
+            }
+            if (!chunk.isEmpty() && chunk.size() + streams.size() > perConnection) {
+                chunks.add(chunk);
+                chunk = new ArrayList<>();
+            }
+            chunk.addAll(streams);
         }
+        if (!chunk.isEmpty()) {
+            chunks.add(chunk);
+        }
+        return chunks;
     }
 
-    private MarketTickDto convertToTick(BinanceKlineMessage msg) {
-        BinanceKlineMessage.Kline k = msg.getKline();
-
-        double open = parseDouble(k.getOpenPrice());
-        double high = parseDouble(k.getHighPrice());
-        double low = parseDouble(k.getLowPrice());
-        double close = parseDouble(k.getClosePrice());
-        double volume = parseDouble(k.getVolume());
-
-        LocalDateTime ts = Instant.ofEpochMilli(k.getCloseTime())
-                .atZone(ZoneId.systemDefault())
-                .toLocalDateTime();
-
-        return new MarketTickDto(
-                k.getSymbol(),
-                ts,
-                open,
-                high,
-                low,
-                close,
-                volume
-        );
+    private void connectToBinance(List<String> streams) {
+        binanceKlineStream.run(streams, liveTicks::attach).subscribe();
     }
 
-    private double parseDouble(String v) {
-        try {
-            return v == null ? 0.0 : Double.parseDouble(v);
-        } catch (Exception e) {
-            return 0.0;
-        }
+    /**
+     * Runs ticks from any source through the per-symbol lanes, the agent
+     * dispatcher and decision handling.
+     *
+     * @param conflate whether pending agent calls may be conflated; replay
+     *                 turns this off so every tick gets a decision
+     */
+    public Flux<TickDecision> ingest(Flux<MarketTickDto> ticks, boolean conflate) {
+        return ingest(ticks, conflate, Math.max(Queues.SMALL_BUFFER_SIZE, marketProps.getSymbolsOrDefault().size()));
     }
 
-    private Mono<Void> handleTick(MarketTickDto tick) {
-        this.lastTick = tick;
-        messagingTemplate.convertAndSend("/topic/market", tick);
-
-        return pythonAgentClient.sendTickAndGetDecision(tick)
-                .publishOn(Schedulers.boundedElastic())
-                .doOnNext(botDecision -> {
-                    AgentDecisionDto uiDecision = buildAgentDecisionDto(botDecision, tick);
-                    this.lastDecision = uiDecision;
-
-                    messagingTemplate.convertAndSend("/topic/agent/decision", uiDecision);
-
-                    log.info("Agent decision: action={}, symbol={}, qty={}, price={}, balance={}, equity={}, roi={}",
-                            uiDecision.getAction(), uiDecision.getSymbol(),
-                            uiDecision.getQuantity(), uiDecision.getPrice(),
-                            uiDecision.getBalance(), uiDecision.getEquity(), uiDecision.getRoiPct());
-                })
-                .then();
+    /**
+     * @param maxSymbols distinct symbols {@code ticks} may carry; one lane
+     *                   stays open per symbol, and {@code groupBy} stalls
+     *                   once more symbols arrive than this allows
+     */
+    public Flux<TickDecision> ingest(Flux<MarketTickDto> ticks, boolean conflate, int maxSymbols) {
+        return ticks
+                .groupBy(MarketTickDto::getSymbol)
+                .flatMap(lane -> processLane(lane.key(), lane, conflate), maxSymbols);
     }
 
-    private AgentDecisionDto buildAgentDecisionDto(BotDecisionDto botDecision, MarketTickDto tick) {
-        AccountStateDto account = botDecision.getAccount();
-        List<TradeEventDto> trades = botDecision.getTrades();
-
-        TradeEventDto lastTrade = (trades != null && !trades.isEmpty())
-                ? trades.get(trades.size() - 1)
-                : null;
-
-        String action = "HOLD";
-        String reason = null;
-        String symbol = tick.getSymbol();
-        Double quantity = null;
-        Double price = tick.getClose();
-
-        if (botDecision.getDebug() != null) {
-            Object strategyAction = botDecision.getDebug().get("strategy_action");
-            Object strategyReason = botDecision.getDebug().get("strategy_reason");
-
-            if (strategyAction != null) {
-                action = String.valueOf(strategyAction);
-            }
-            if (strategyReason != null) {
-                reason = String.valueOf(strategyReason);
-            }
-        }
+    public MarketTickDto getLastTick() {
+        return getLastTick(marketProps.getDefaultSymbol(), marketProps.getDefaultInterval());
+    }
 
-        if (lastTrade != null) {
-            symbol = lastTrade.getSymbol();
-            quantity = lastTrade.getVolume();
-            price = lastTrade.getPrice();
-            if (lastTrade.getReason() != null) {
-                reason = lastTrade.getReason();
-            }
-        }
+    public MarketTickDto getLastTick(String symbol, String interval) {
+        return lastTicks.get(tickKey(symbol, interval));
+    }
 
-        double balance = account != null ? account.getBalance() : 0.0;
-        double equity = account != null ? account.getEquity() : balance;
+    public AgentDecisionDto getLastDecision() {
+        return getLastDecision(marketProps.getDefaultSymbol());
+    }
 
-        double initialBalance = tradingProperties.getInitialBalance();
-        Double roiPct = null;
-        if (initialBalance > 0) {
-            roiPct = (equity - initialBalance) / initialBalance * 100.0;
-        }
+    public AgentDecisionDto getLastDecision(String symbol) {
+        return lastDecisions.get(symbol.toUpperCase(Locale.ROOT));
+    }
 
-        Double realizedPnl = null;
-        if (account != null) {
-            realizedPnl = account.getRealizedPnl();
+    private static String tickKey(String symbol, String interval) {
+        return symbol.toUpperCase(Locale.ROOT) + "@" + interval;
+    }
 
-        }
+    private Flux<TickDecision> processLane(String symbol, Flux<MarketTickDto> ticks, boolean conflate) {
+        Scheduler lane = symbolLanes.laneFor(symbol);
+        return agentDispatcher.dispatch(symbol, ticks.publishOn(lane).doOnNext(this::handleTick), conflate)
+                .publishOn(lane)
+                .doOnNext(this::applyDecision);
+    }
 
-        AgentDecisionDto dto = new AgentDecisionDto();
-        dto.setAction(action);
-        dto.setSymbol(symbol);
-        dto.setQuantity(quantity);
-        dto.setPrice(price);
-        dto.setReason(reason);
-        dto.setBalance(balance);
-        dto.setEquity(equity);
-        dto.setRealizedPnl(realizedPnl);
-        dto.setRoiPct(roiPct);
-
-        if (account != null) {
-            dto.setPositionSide(account.getPositionSide());
-            dto.setPositionSize(account.getPositionSize());
-            dto.setPositionOpenTime(account.getPositionOpenTime());
-            dto.setTakeProfitPrice(account.getTakeProfitPrice());
-            dto.setStopLossPrice(account.getStopLossPrice());
-            dto.setPositionNotional(account.getPositionNotional());
-            dto.setAvgEntryPrice(account.getAvgEntryPrice());
-        }
+    private void handleTick(MarketTickDto tick) {
+        indicatorEngine.onTick(tick);
+        orderBookService.attachFeatures(tick);
+        lastTicks.put(tickKey(tick.getSymbol(), tick.getInterval()), tick);
+        tickHistoryStore.record(tick);
+        candleAggregator.onTick(tick);
+        writeBehindWriter.recordTick(tick);
+        byte[] body = stompFanout.publish("/topic/market", tickKey(tick.getSymbol(), tick.getInterval()), tick);
+        snapshotStore.publish(SnapshotStore.tickKey(tick.getSymbol(), tick.getInterval()), body);
+        accountTracker.onTick(tick);
+        pipelineMetrics.recordSince(PipelineStage.TICK_BROADCAST, tick.getSymbol(), tick.getReceivedNanos());
+    }
 
-        return dto;
+    private void applyDecision(TickDecision tickDecision) {
+        MarketTickDto tick = tickDecision.tick();
+        AgentDecisionDto uiDecision = agentDecisionMapper.toAgentDecision(tickDecision.decision(), tick);
+        uiDecision.setSource(tickDecision.source().name());
+        uiDecision.setReconciled(tickDecision.reconciled());
+        lastDecisions.put(tick.getSymbol(), uiDecision);
+        writeBehindWriter.recordDecision(uiDecision, tickDecision.decision().getTrades());
+
+        byte[] body = stompFanout.publish("/topic/agent/decision", tick.getSymbol(), uiDecision);
+        snapshotStore.publish(SnapshotStore.decisionKey(tick.getSymbol()), body);
+        decisionDeltaPublisher.publish(tick.getSymbol(), uiDecision);
+        accountTracker.onDecision(tickDecision.decision(), tick);
+        pipelineMetrics.recordSince(PipelineStage.DECISION_BROADCAST, tick.getSymbol(), tickDecision.respondedNanos());
+        pipelineMetrics.recordSince(PipelineStage.END_TO_END, tick.getSymbol(), tick.getReceivedNanos());
+
+        log.info("Agent decision: source={}, action={}, symbol={}, qty={}, price={}, balance={}, equity={}, roi={}",
+                uiDecision.getSource(), uiDecision.getAction(), uiDecision.getSymbol(),
+                uiDecision.getQuantity(), uiDecision.getPrice(),
+                uiDecision.getBalance(), uiDecision.getEquity(), uiDecision.getRoiPct());
     }
 
     public void fetchAndBroadcastMarketData() {}
@@ -1,46 +1,105 @@
 package com.trading.bot.service;
 
+import com.trading.bot.config.PythonAgentProperties;
 import com.trading.bot.domain.dto.BotDecisionDto;
 import com.trading.bot.domain.dto.MarketTickDto;
+import com.trading.bot.service.agent.AgentEndpoint;
+import com.trading.bot.service.agent.AgentEndpointPool;
+import com.trading.bot.service.agent.AgentResilience;
+import com.trading.bot.service.agent.AgentTransport;
+import com.trading.bot.service.agent.AgentWebClientFactory;
+import com.trading.bot.service.agent.HttpAgentTransport;
+import com.trading.bot.service.agent.WebSocketAgentTransport;
+import com.trading.bot.service.codec.PayloadCodecs;
+import com.trading.bot.service.metrics.PipelineMetrics;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.web.reactive.function.client.WebClient;
-import org.springframework.web.reactive.function.client.WebClientResponseException;
+import org.springframework.web.reactive.socket.client.WebSocketClient;
 import reactor.core.publisher.Mono;
+import tools.jackson.databind.ObjectMapper;
 
+import java.net.URI;
 import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
 
 @Service
 @Slf4j
 @RequiredArgsConstructor
 public class PythonAgentClient {
 
-    private final WebClient pythonAgentWebClient;
+    private final AgentWebClientFactory pythonAgentWebClientFactory;
+    private final WebSocketClient pythonAgentWebSocketClient;
+    private final ObjectMapper objectMapper;
+    private final PythonAgentProperties agentProps;
+    private final PipelineMetrics pipelineMetrics;
+    private final PayloadCodecs payloadCodecs;
 
-    @Value("${python.agent.timeout-seconds:5}")
-    private long timeoutSeconds;
+    private AgentEndpointPool pool;
 
+    @PostConstruct
+    public void startTransports() {
+        PythonAgentProperties.Pool poolProps = agentProps.getPool();
+        List<AgentEndpoint> endpoints = new ArrayList<>();
+        for (PythonAgentProperties.Endpoint endpoint : agentProps.getEndpointsOrDefault()) {
+            AgentEndpoint agentEndpoint = createEndpoint(endpoint, poolProps);
+            pipelineMetrics.bindAgentEndpoint(agentEndpoint);
+            endpoints.add(agentEndpoint);
+        }
+        pool = new AgentEndpointPool(endpoints, poolProps.getVirtualNodes(), poolProps.getSlowFactor());
+        boolean probing = poolProps.getHealthPath() != null && !poolProps.getHealthPath().isBlank();
+        pool.start(probing ? Duration.ofMillis(poolProps.getHealthIntervalMs()) : Duration.ZERO);
+        log.info("Python agent pool started with {} endpoint(s)", endpoints.size());
+    }
+
+    @PreDestroy
+    public void stopTransports() {
+        if (pool != null) {
+            pool.stop();
+        }
+    }
+
+    /**
+     * Completes empty when the agent fails, times out, or no instance can
+     * take the call.
+     */
     public Mono<BotDecisionDto> sendTickAndGetDecision(MarketTickDto tick) {
-        log.info("Sending tick to Python agent: {}", tick);
-
-        return pythonAgentWebClient.post()
-                .uri("/api/agent/on-tick")
-                .bodyValue(tick)
-                .retrieve()
-                .bodyToMono(BotDecisionDto.class)
-                .timeout(Duration.ofSeconds(timeoutSeconds))
-                .doOnNext(decision ->
-                        log.info("Received decision from Python agent: {}", decision)
-                )
-                .doOnError(WebClientResponseException.class, e ->
-                        log.error("Python agent HTTP error: status={} body={}",
-                                e.getStatusCode(), e.getResponseBodyAsString(), e)
-                )
-                .doOnError(e ->
-                        log.error("Failed to get decision from Python agent. Tick = {}", tick, e)
-                )
-                .onErrorResume(e -> Mono.empty());
+        return pool.send(tick);
+    }
+
+    private AgentEndpoint createEndpoint(PythonAgentProperties.Endpoint endpoint, PythonAgentProperties.Pool poolProps) {
+        Duration timeout = Duration.ofMillis(agentProps.getTimeoutMs());
+        WebClient webClient = pythonAgentWebClientFactory.create(endpoint);
+        AgentResilience resilience = new AgentResilience(agentProps.getResilience(), timeout,
+                pipelineMetrics::agentFailure);
+        AgentTransport httpTransport = new HttpAgentTransport(webClient, agentProps, timeout, pipelineMetrics,
+                payloadCodecs);
+        AgentTransport streamTransport = null;
+        if (agentProps.getTransport() == PythonAgentProperties.Transport.WEBSOCKET) {
+            streamTransport = new WebSocketAgentTransport(streamUri(endpoint.getUrl()),
+                    pythonAgentWebSocketClient, objectMapper, agentProps.getStream(), timeout, pipelineMetrics);
+        }
+        int maxInFlight = endpoint.getMaxConnections() > 0 ? endpoint.getMaxConnections() : poolProps.getMaxConnections();
+        return new AgentEndpoint(endpoint.getUrl(), httpTransport, streamTransport,
+                agentProps.getStream().isFallbackToHttp(), resilience, maxInFlight, healthProbe(webClient, poolProps));
+    }
+
+    private Mono<Boolean> healthProbe(WebClient webClient, PythonAgentProperties.Pool poolProps) {
+        if (poolProps.getHealthPath() == null || poolProps.getHealthPath().isBlank()) {
+            return null;
+        }
+        return webClient.get()
+                .uri(poolProps.getHealthPath())
+                .exchangeToMono(response -> Mono.just(!response.statusCode().is5xxServerError()))
+                .timeout(Duration.ofMillis(poolProps.getHealthTimeoutMs()));
+    }
+
+    private URI streamUri(String baseUrl) {
+        String wsBase = baseUrl.replaceFirst("^http", "ws");
+        return URI.create(wsBase + agentProps.getStream().getPath());
     }
 }
@@ -0,0 +1,39 @@
+package com.trading.bot.service;
+
+import com.trading.bot.config.MarketProperties;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.stereotype.Component;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+@Component
+@Slf4j
+public class SymbolLanes implements DisposableBean {
+
+    private final Scheduler[] lanes;
+
+    public SymbolLanes(MarketProperties marketProps) {
+        int workers = Math.max(1, marketProps.getWorkers());
+        this.lanes = new Scheduler[workers];
+        for (int i = 0; i < workers; i++) {
+            lanes[i] = Schedulers.newSingle("market-lane-" + i, true);
+        }
+        log.info("Started {} market lanes", workers);
+    }
+
+    public Scheduler laneFor(String symbol) {
+        return lanes[Math.floorMod(symbol.hashCode(), lanes.length)];
+    }
+
+    public int size() {
+        return lanes.length;
+    }
+
+    @Override
+    public void destroy() {
+        for (Scheduler lane : lanes) {
+            lane.dispose();
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package com.trading.bot.service;
+
+import com.trading.bot.domain.dto.MarketTickDto;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.FluxSink;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Iterator;
+
+/**
+ * Holds a symbol's ticks while downstream has no demand, conflating per
+ * interval: a pending open-bar tick is replaced by any newer tick of its
+ * interval, a pending final bar only by a newer final bar of its interval.
+ * A final bar is therefore never lost to an open-bar update or to another
+ * interval, and pending ticks keep their arrival order.
+ */
+final class TickConflator {
+
+    private final FluxSink<MarketTickDto> sink;
+    private final Runnable onSuperseded;
+    private final Deque<MarketTickDto> pending = new ArrayDeque<>();
+    private boolean done;
+
+    private TickConflator(FluxSink<MarketTickDto> sink, Runnable onSuperseded) {
+        this.sink = sink;
+        this.onSuperseded = onSuperseded;
+    }
+
+    static Flux<MarketTickDto> conflate(Flux<MarketTickDto> ticks, Runnable onSuperseded) {
+        return Flux.create(sink -> {
+            TickConflator conflator = new TickConflator(sink, onSuperseded);
+            sink.onRequest(n -> conflator.drain());
+            sink.onDispose(ticks.subscribe(conflator::offer, conflator::error, conflator::complete));
+        });
+    }
+
+    private synchronized void offer(MarketTickDto tick) {
+        for (Iterator<MarketTickDto> it = pending.iterator(); it.hasNext(); ) {
+            MarketTickDto queued = it.next();
+            if (queued.getInterval().equals(tick.getInterval()) && (!queued.isFinalBar() || tick.isFinalBar())) {
+                it.remove();
+                onSuperseded.run();
+            }
+        }
+        pending.addLast(tick);
+        drain();
+    }
+
+    private synchronized void error(Throwable ex) {
+        pending.clear();
+        sink.error(ex);
+    }
+
+    private synchronized void complete() {
+        done = true;
+        drain();
+    }
+
+    private synchronized void drain() {
+        while (!pending.isEmpty() && sink.requestedFromDownstream() > 0) {
+            sink.next(pending.pollFirst());
+        }
+        if (done && pending.isEmpty()) {
+            sink.complete();
+        }
+    }
+}
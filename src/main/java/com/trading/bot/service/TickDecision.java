@@ -0,0 +1,17 @@
+package com.trading.bot.service;
+
+import com.trading.bot.domain.dto.BotDecisionDto;
+import com.trading.bot.domain.dto.MarketTickDto;
+
+/**
+ * @param sentNanos      {@link System#nanoTime()} when the agent request was issued
+ * @param respondedNanos {@link System#nanoTime()} when the decision was produced
+ * @param reconciled     an agent answer that supersedes a fallback decision for the same tick
+ */
+public record TickDecision(MarketTickDto tick, BotDecisionDto decision, long sentNanos, long respondedNanos,
+                           DecisionSource source, boolean reconciled) {
+
+    public long latencyNanos() {
+        return respondedNanos - sentNanos;
+    }
+}
@@ -0,0 +1,53 @@
+package com.trading.bot.service.account;
+
+import com.trading.bot.config.TradingProperties;
+import com.trading.bot.domain.dto.AccountMarkDto;
+import com.trading.bot.domain.dto.BotDecisionDto;
+import com.trading.bot.domain.dto.MarketTickDto;
+import com.trading.bot.service.fanout.StompFanout;
+import com.trading.bot.service.snapshot.SnapshotStore;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Keeps each symbol's account marked to market between agent decisions.
+ * Every decision re-seeds it from the agent's account and trades; every
+ * tick re-marks equity, unrealized PnL, ROI and TP/SL distance at the
+ * tick's close and publishes the result to {@code /topic/account}. A flat
+ * account is published once per seed.
+ */
+@Service
+@RequiredArgsConstructor
+public class AccountTracker {
+
+    private final TradingProperties tradingProperties;
+    private final StompFanout stompFanout;
+    private final SnapshotStore snapshotStore;
+
+    private final Map<String, MarkedAccount> accounts = new ConcurrentHashMap<>();
+
+    public void onDecision(BotDecisionDto decision, MarketTickDto tick) {
+        MarkedAccount account = accounts.computeIfAbsent(tick.getSymbol(), MarkedAccount::new);
+        account.seed(decision.getAccount(), decision.getTrades(), tick.getClose());
+        publish(account, tick);
+    }
+
+    public void onTick(MarketTickDto tick) {
+        MarkedAccount account = accounts.get(tick.getSymbol());
+        if (account != null) {
+            publish(account, tick);
+        }
+    }
+
+    private void publish(MarkedAccount account, MarketTickDto tick) {
+        if (!account.shouldPublish()) {
+            return;
+        }
+        AccountMarkDto mark = account.mark(tick.getClose(), tick.getCloseTime(), tradingProperties.getInitialBalance());
+        byte[] body = stompFanout.publish("/topic/account", tick.getSymbol(), mark);
+        snapshotStore.publish(SnapshotStore.accountKey(tick.getSymbol()), body);
+    }
+}
@@ -0,0 +1,145 @@
+package com.trading.bot.service.account;
+
+import com.trading.bot.domain.dto.AccountMarkDto;
+import com.trading.bot.domain.dto.AccountStateDto;
+import com.trading.bot.domain.dto.TradeEventDto;
+
+import java.util.List;
+
+/**
+ * Primitive account state for one symbol. Equity is carried forward from
+ * the last agent report as {@code seedEquity + signedSize * (price - seedPrice)},
+ * which holds whether the agent books positions as cash plus holdings or
+ * as balance plus unrealized PnL, so marking is O(1) and needs no
+ * knowledge of the agent's accounting. Only touched from the symbol's
+ * lane.
+ */
+final class MarkedAccount {
+
+    private final String symbol;
+
+    private boolean seeded;
+    private double balance;
+    private double seedEquity;
+    private double seedPrice;
+    private double realizedPnl;
+    private String positionSide;
+    private double signedSize;
+    private double avgEntryPrice;
+    private Double takeProfitPrice;
+    private Double stopLossPrice;
+    private long ticksSinceSeed;
+    private boolean flatPublished;
+
+    MarkedAccount(String symbol) {
+        this.symbol = symbol;
+    }
+
+    /**
+     * Takes the agent's view as authoritative. Without an account snapshot,
+     * trades move balance and position; equity is carried across at
+     * {@code price}.
+     */
+    void seed(AccountStateDto account, List<TradeEventDto> trades, double price) {
+        if (account != null) {
+            balance = account.getBalance();
+            seedEquity = account.getEquity();
+            seedPrice = account.getLastPrice() != null ? account.getLastPrice() : price;
+            realizedPnl = account.getRealizedPnl();
+            positionSide = account.getPositionSide();
+            signedSize = direction(positionSide) * Math.abs(account.getPositionSize());
+            avgEntryPrice = account.getAvgEntryPrice();
+            takeProfitPrice = account.getTakeProfitPrice();
+            stopLossPrice = account.getStopLossPrice();
+        } else if (trades != null && !trades.isEmpty()) {
+            double equity = seeded ? equityAt(price) : 0;
+            for (TradeEventDto trade : trades) {
+                applyTrade(trade);
+            }
+            balance = trades.get(trades.size() - 1).getBalanceAfter();
+            seedEquity = seeded ? equity : balance + signedSize * (price - avgEntryPrice);
+            seedPrice = price;
+        } else {
+            return;
+        }
+        seeded = true;
+        ticksSinceSeed = 0;
+        flatPublished = false;
+    }
+
+    /**
+     * Follows one fill: a fill that crosses zero opens the opposite side at
+     * its price, one that grows the position blends the entry price, and
+     * one that shrinks it keeps the entry price.
+     */
+    private void applyTrade(TradeEventDto trade) {
+        realizedPnl += trade.getRealizedPnl();
+        double size = Math.abs(trade.getPositionSizeAfter());
+        if (size == 0) {
+            positionSide = null;
+            signedSize = 0;
+            takeProfitPrice = null;
+            stopLossPrice = null;
+            return;
+        }
+        double previous = Math.abs(signedSize);
+        int tradeDirection = direction(trade.getSide());
+        boolean reversed = signedSize != 0 && tradeDirection != 0 && tradeDirection != Math.signum(signedSize)
+                && trade.getVolume() > previous;
+        if (signedSize == 0 || reversed) {
+            positionSide = tradeDirection < 0 ? "SHORT" : "LONG";
+            avgEntryPrice = trade.getPrice();
+            takeProfitPrice = null;
+            stopLossPrice = null;
+        } else if (size > previous) {
+            avgEntryPrice = (avgEntryPrice * previous + trade.getPrice() * (size - previous)) / size;
+        }
+        signedSize = direction(positionSide) * size;
+    }
+
+    /** @return {@code false} if nothing new would be published at this price */
+    boolean shouldPublish() {
+        return seeded && (signedSize != 0 || !flatPublished);
+    }
+
+    AccountMarkDto mark(double price, long time, double initialBalance) {
+        flatPublished = signedSize == 0;
+        double equity = equityAt(price);
+        AccountMarkDto dto = new AccountMarkDto();
+        dto.setSymbol(symbol);
+        dto.setMarkPrice(price);
+        dto.setMarkTime(time);
+        dto.setBalance(balance);
+        dto.setEquity(equity);
+        dto.setUnrealizedPnl(signedSize != 0 ? signedSize * (price - avgEntryPrice) : 0);
+        dto.setRealizedPnl(realizedPnl);
+        dto.setRoiPct(initialBalance > 0 ? (equity - initialBalance) / initialBalance * 100.0 : null);
+        dto.setPositionSide(positionSide);
+        dto.setPositionSize(Math.abs(signedSize));
+        dto.setAvgEntryPrice(avgEntryPrice);
+        dto.setTakeProfitPrice(takeProfitPrice);
+        dto.setStopLossPrice(stopLossPrice);
+        dto.setTakeProfitDistancePct(distancePct(takeProfitPrice, price));
+        dto.setStopLossDistancePct(distancePct(stopLossPrice, price));
+        dto.setTicksSinceSeed(ticksSinceSeed++);
+        return dto;
+    }
+
+    private double equityAt(double price) {
+        return seedEquity + signedSize * (price - seedPrice);
+    }
+
+    private static Double distancePct(Double level, double price) {
+        return level != null && price > 0 ? (level - price) / price * 100.0 : null;
+    }
+
+    private static int direction(String side) {
+        if ("LONG".equalsIgnoreCase(side) || "BUY".equalsIgnoreCase(side)) {
+            return 1;
+        }
+        if ("SHORT".equalsIgnoreCase(side) || "SELL".equalsIgnoreCase(side)) {
+            return -1;
+        }
+        return 0;
+    }
+}
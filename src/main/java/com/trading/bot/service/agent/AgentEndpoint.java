@@ -0,0 +1,153 @@
+package com.trading.bot.service.agent;
+
+import com.trading.bot.domain.dto.BotDecisionDto;
+import com.trading.bot.domain.dto.MarketTickDto;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Mono;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * One Python agent instance: its transports, its own circuit breaker and
+ * adaptive timeout, and the load signals the pool routes on.
+ */
+@Slf4j
+public class AgentEndpoint {
+
+    private static final double LATENCY_ALPHA = 0.2;
+
+    private final String url;
+    private final AgentTransport httpTransport;
+    private final AgentTransport streamTransport;
+    private final boolean fallbackToHttp;
+    private final AgentResilience resilience;
+    private final int maxInFlight;
+    private final Mono<Boolean> healthProbe;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private volatile double latencyMillis;
+    private volatile boolean healthy = true;
+
+    /**
+     * @param streamTransport optional; when set it is preferred while connected
+     * @param maxInFlight     calls beyond this count mark the instance saturated
+     * @param healthProbe     emits whether the instance is up; {@code null} disables probing
+     */
+    public AgentEndpoint(String url, AgentTransport httpTransport, AgentTransport streamTransport,
+                         boolean fallbackToHttp, AgentResilience resilience, int maxInFlight,
+                         Mono<Boolean> healthProbe) {
+        this.url = url;
+        this.httpTransport = httpTransport;
+        this.streamTransport = streamTransport;
+        this.fallbackToHttp = fallbackToHttp;
+        this.resilience = resilience;
+        this.maxInFlight = Math.max(1, maxInFlight);
+        this.healthProbe = healthProbe;
+    }
+
+    public void start() {
+        httpTransport.start();
+        if (streamTransport != null) {
+            streamTransport.start();
+        }
+    }
+
+    public void stop() {
+        if (streamTransport != null) {
+            streamTransport.stop();
+        }
+        httpTransport.stop();
+    }
+
+    /**
+     * Completes empty when the instance fails, times out, or its circuit is
+     * open.
+     */
+    public Mono<BotDecisionDto> send(MarketTickDto tick) {
+        return Mono.defer(() -> {
+            inFlight.incrementAndGet();
+            long started = System.nanoTime();
+            return resilience.protect(Mono.defer(() -> route(tick)))
+                    .doOnNext(decision -> recordLatency(System.nanoTime() - started))
+                    .doFinally(signal -> inFlight.decrementAndGet());
+        });
+    }
+
+    private Mono<BotDecisionDto> route(MarketTickDto tick) {
+        if (streamTransport == null) {
+            return httpTransport.send(tick);
+        }
+        if (streamTransport.isAvailable()) {
+            return streamTransport.send(tick);
+        }
+        if (fallbackToHttp) {
+            return httpTransport.send(tick);
+        }
+        log.debug("Python agent stream to {} not connected, skipping tick {}", url, tick);
+        return Mono.empty();
+    }
+
+    private void recordLatency(long nanos) {
+        double millis = nanos / (double) TimeUnit.MILLISECONDS.toNanos(1);
+        double previous = latencyMillis;
+        latencyMillis = previous == 0 ? millis : previous + LATENCY_ALPHA * (millis - previous);
+    }
+
+    /** Runs the health probe once; a no-op when probing is disabled. */
+    public Mono<Void> probeHealth() {
+        if (healthProbe == null) {
+            return Mono.empty();
+        }
+        return healthProbe.defaultIfEmpty(false)
+                .onErrorReturn(false)
+                .doOnNext(this::setHealthy)
+                .then();
+    }
+
+    public void setHealthy(boolean up) {
+        if (healthy != up) {
+            healthy = up;
+            if (up) {
+                log.info("Python agent {} is back up", url);
+            } else {
+                log.warn("Python agent {} failed its health check, routing around it", url);
+            }
+        }
+    }
+
+    /** Up, and not shedding calls behind an open circuit. */
+    public boolean isUsable() {
+        return healthy && resilience.getState() != AgentResilience.State.OPEN;
+    }
+
+    public boolean isSaturated() {
+        return inFlight.get() >= maxInFlight;
+    }
+
+    /** Expected cost of one more call: queue depth times typical latency. */
+    double load() {
+        return (inFlight.get() + 1) * Math.max(1.0, latencyMillis);
+    }
+
+    public String getUrl() {
+        return url;
+    }
+
+    public AgentResilience getResilience() {
+        return resilience;
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    /** Moving average of successful call latency; 0 until the first answer. */
+    public double getLatencyMillis() {
+        return latencyMillis;
+    }
+
+    public boolean isHealthy() {
+        return healthy;
+    }
+}
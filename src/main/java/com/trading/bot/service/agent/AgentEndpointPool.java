@@ -0,0 +1,174 @@
+package com.trading.bot.service.agent;
+
+import com.trading.bot.domain.dto.BotDecisionDto;
+import com.trading.bot.domain.dto.MarketTickDto;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Spreads symbols over agent instances with a consistent-hash ring, so a
+ * symbol keeps hitting the instance that holds its state and adding or
+ * removing an instance only moves the symbols that hash next to it.
+ * <p>
+ * A symbol leaves its home instance only while that one is down, behind an
+ * open circuit, saturated, or much slower than the fastest instance; it
+ * then goes to the next instance clockwise on the ring, so failover is as
+ * sticky as normal routing. When every instance is busy the least loaded
+ * usable one takes the call.
+ */
+@Slf4j
+public class AgentEndpointPool {
+
+    static final int MAX_ENDPOINTS = 64;
+
+    private final List<AgentEndpoint> endpoints;
+    private final double slowFactor;
+    private final long[] ringHashes;
+    private final int[] ringOwners;
+
+    private Disposable healthChecks;
+
+    public AgentEndpointPool(List<AgentEndpoint> endpoints, int virtualNodes, double slowFactor) {
+        if (endpoints.isEmpty() || endpoints.size() > MAX_ENDPOINTS) {
+            throw new IllegalArgumentException("Agent pool needs 1 to " + MAX_ENDPOINTS + " endpoints, got "
+                    + endpoints.size());
+        }
+        this.endpoints = List.copyOf(endpoints);
+        this.slowFactor = slowFactor;
+
+        int perEndpoint = Math.max(1, virtualNodes);
+        int size = this.endpoints.size() * perEndpoint;
+        long[] keys = new long[size];
+        for (int e = 0, k = 0; e < this.endpoints.size(); e++) {
+            String url = this.endpoints.get(e).getUrl();
+            for (int v = 0; v < perEndpoint; v++, k++) {
+                // the owner index rides in the low bits so sorting keeps hash and owner together
+                keys[k] = (hash(url + "#" + v) & ~(long) (MAX_ENDPOINTS - 1)) | e;
+            }
+        }
+        Arrays.sort(keys);
+        ringHashes = new long[size];
+        ringOwners = new int[size];
+        for (int k = 0; k < size; k++) {
+            ringHashes[k] = keys[k] & ~(long) (MAX_ENDPOINTS - 1);
+            ringOwners[k] = (int) (keys[k] & (MAX_ENDPOINTS - 1));
+        }
+    }
+
+    public void start(Duration healthInterval) {
+        endpoints.forEach(AgentEndpoint::start);
+        if (!healthInterval.isZero() && !healthInterval.isNegative()) {
+            healthChecks = Flux.interval(Duration.ZERO, healthInterval)
+                    .onBackpressureDrop()
+                    .concatMap(i -> Flux.fromIterable(endpoints).flatMap(AgentEndpoint::probeHealth))
+                    .subscribe();
+        }
+    }
+
+    public void stop() {
+        if (healthChecks != null) {
+            healthChecks.dispose();
+        }
+        endpoints.forEach(AgentEndpoint::stop);
+    }
+
+    /** Completes empty when no instance can take the call. */
+    public Mono<BotDecisionDto> send(MarketTickDto tick) {
+        return Mono.defer(() -> {
+            AgentEndpoint endpoint = select(tick.getSymbol());
+            if (endpoint == null) {
+                log.debug("No Python agent instance available for {}", tick.getSymbol());
+                return Mono.empty();
+            }
+            return endpoint.send(tick);
+        });
+    }
+
+    /**
+     * Home instance if it can take the call, otherwise the next good one
+     * clockwise, otherwise the least loaded usable one, otherwise
+     * {@code null}.
+     */
+    public AgentEndpoint select(String symbol) {
+        if (endpoints.size() == 1) {
+            return endpoints.get(0);
+        }
+        double slowCutoff = slowCutoff();
+        int n = endpoints.size();
+        long seen = 0;
+        AgentEndpoint leastLoaded = null;
+        for (int k = ringIndex(symbol), visited = 0; visited < n; k = (k + 1) % ringOwners.length) {
+            int owner = ringOwners[k];
+            if ((seen & (1L << owner)) != 0) {
+                continue;
+            }
+            seen |= 1L << owner;
+            visited++;
+            AgentEndpoint candidate = endpoints.get(owner);
+            if (!candidate.isUsable()) {
+                continue;
+            }
+            if (!candidate.isSaturated() && candidate.getLatencyMillis() <= slowCutoff) {
+                return candidate;
+            }
+            if (leastLoaded == null || candidate.load() < leastLoaded.load()) {
+                leastLoaded = candidate;
+            }
+        }
+        return leastLoaded;
+    }
+
+    /** Where the symbol lives while every instance is up. */
+    AgentEndpoint home(String symbol) {
+        return endpoints.get(ringOwners[ringIndex(symbol)]);
+    }
+
+    public List<AgentEndpoint> getEndpoints() {
+        return endpoints;
+    }
+
+    private double slowCutoff() {
+        if (slowFactor <= 0) {
+            return Double.MAX_VALUE;
+        }
+        double fastest = Double.MAX_VALUE;
+        for (AgentEndpoint endpoint : endpoints) {
+            double latency = endpoint.getLatencyMillis();
+            if (latency > 0 && latency < fastest && endpoint.isUsable()) {
+                fastest = latency;
+            }
+        }
+        return fastest == Double.MAX_VALUE ? Double.MAX_VALUE : fastest * slowFactor;
+    }
+
+    private int ringIndex(String symbol) {
+        long h = hash(symbol) & ~(long) (MAX_ENDPOINTS - 1);
+        int i = Arrays.binarySearch(ringHashes, h);
+        if (i < 0) {
+            i = -i - 1;
+        }
+        return i == ringHashes.length ? 0 : i;
+    }
+
+    /** FNV-1a with a SplitMix64 finish, so short similar keys still spread over the ring. */
+    static long hash(String key) {
+        long h = 0xcbf29ce484222325L;
+        for (byte b : key.getBytes(StandardCharsets.UTF_8)) {
+            h ^= b & 0xff;
+            h *= 0x100000001b3L;
+        }
+        h ^= h >>> 30;
+        h *= 0xbf58476d1ce4e5b9L;
+        h ^= h >>> 27;
+        h *= 0x94d049bb133111ebL;
+        h ^= h >>> 31;
+        return h;
+    }
+}
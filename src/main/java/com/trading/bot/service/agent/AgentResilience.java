@@ -0,0 +1,164 @@
+package com.trading.bot.service.agent;
+
+import com.trading.bot.config.PythonAgentProperties;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import java.util.function.LongSupplier;
+
+/**
+ * Client-side guard around agent calls: a timeout that follows a rolling
+ * latency percentile, capped by {@code python.agent.timeout-ms}, and a
+ * circuit breaker that rejects calls outright after repeated failures
+ * and lets a single probe through once the open period has passed.
+ * An empty answer counts as a failure, since transports map errors to
+ * empty. A timed-out call counts as a ceiling-latency sample, and probes
+ * run with the ceiling, so a slower agent raises the timeout again rather
+ * than being locked out by it.
+ */
+@Slf4j
+public class AgentResilience {
+
+    public enum State {
+        CLOSED, HALF_OPEN, OPEN
+    }
+
+    private final PythonAgentProperties.Resilience config;
+    private final long ceilingNanos;
+    private final Consumer<Throwable> errorListener;
+    private final LongSupplier nanoClock;
+
+    private final long[] latencies;
+    private final long[] scratch;
+    private int latencyCount;
+    private int latencyIndex;
+    private volatile long timeoutNanos;
+
+    private final AtomicInteger consecutiveFailures = new AtomicInteger();
+    private final AtomicBoolean probeInFlight = new AtomicBoolean();
+    private final LongAdder rejected = new LongAdder();
+    private volatile State state = State.CLOSED;
+    private volatile long openedAtNanos;
+
+    public AgentResilience(PythonAgentProperties.Resilience config, Duration ceiling) {
+        this(config, ceiling, e -> { });
+    }
+
+    /**
+     * @param errorListener sees errors raised here, such as the adaptive
+     *                      timeout expiring; transports report their own
+     */
+    public AgentResilience(PythonAgentProperties.Resilience config, Duration ceiling,
+                           Consumer<Throwable> errorListener) {
+        this(config, ceiling, errorListener, System::nanoTime);
+    }
+
+    AgentResilience(PythonAgentProperties.Resilience config, Duration ceiling, Consumer<Throwable> errorListener,
+                    LongSupplier nanoClock) {
+        this.config = config;
+        this.ceilingNanos = ceiling.toNanos();
+        this.errorListener = errorListener;
+        this.nanoClock = nanoClock;
+        this.latencies = new long[Math.max(1, config.getLatencyWindow())];
+        this.scratch = new long[latencies.length];
+        this.timeoutNanos = ceilingNanos;
+    }
+
+    public <T> Mono<T> protect(Mono<T> call) {
+        return Mono.defer(() -> {
+            State current = config.getFailureThreshold() > 0 ? currentState() : State.CLOSED;
+            boolean probe = current == State.HALF_OPEN && probeInFlight.compareAndSet(false, true);
+            if (current == State.OPEN || (current == State.HALF_OPEN && !probe)) {
+                rejected.increment();
+                return Mono.empty();
+            }
+            long started = nanoClock.getAsLong();
+            return call.timeout(Duration.ofNanos(probe ? ceilingNanos : timeoutNanos))
+                    .doOnNext(value -> onSuccess(nanoClock.getAsLong() - started))
+                    .switchIfEmpty(Mono.fromRunnable(this::onFailure))
+                    .doOnError(e -> {
+                        if (e instanceof TimeoutException && config.isAdaptiveTimeout()) {
+                            recordLatency(ceilingNanos);
+                        }
+                        onFailure();
+                        errorListener.accept(e);
+                    })
+                    .doFinally(signal -> {
+                        if (probe) {
+                            probeInFlight.set(false);
+                        }
+                    })
+                    .onErrorResume(e -> {
+                        log.warn("Python agent call failed ({}), timeout={}ms, breaker={}",
+                                e.getClass().getSimpleName(), getTimeoutMillis(), state);
+                        return Mono.empty();
+                    });
+        });
+    }
+
+    public State getState() {
+        return currentState();
+    }
+
+    public long getTimeoutMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(timeoutNanos);
+    }
+
+    public long getRejected() {
+        return rejected.sum();
+    }
+
+    private State currentState() {
+        State current = state;
+        if (current == State.OPEN
+                && nanoClock.getAsLong() - openedAtNanos >= TimeUnit.MILLISECONDS.toNanos(config.getOpenStateMs())) {
+            state = current = State.HALF_OPEN;
+        }
+        return current;
+    }
+
+    private void onSuccess(long latencyNanos) {
+        consecutiveFailures.set(0);
+        if (state != State.CLOSED) {
+            state = State.CLOSED;
+            log.info("Python agent circuit closed");
+        }
+        if (config.isAdaptiveTimeout()) {
+            recordLatency(latencyNanos);
+        }
+    }
+
+    private void onFailure() {
+        int failures = consecutiveFailures.incrementAndGet();
+        int threshold = config.getFailureThreshold();
+        if (threshold > 0 && (state == State.HALF_OPEN || failures >= threshold) && state != State.OPEN) {
+            openedAtNanos = nanoClock.getAsLong();
+            timeoutNanos = ceilingNanos;
+            state = State.OPEN;
+            log.warn("Python agent circuit opened after {} consecutive failures", failures);
+        }
+    }
+
+    private synchronized void recordLatency(long latencyNanos) {
+        latencies[latencyIndex] = latencyNanos;
+        latencyIndex = (latencyIndex + 1) % latencies.length;
+        latencyCount++;
+        if (latencyCount >= config.getMinSamples() && latencyCount % 16 == 0) {
+            int n = Math.min(latencyCount, latencies.length);
+            System.arraycopy(latencies, 0, scratch, 0, n);
+            Arrays.sort(scratch, 0, n);
+            int index = Math.min(n - 1, (int) Math.ceil(config.getTimeoutPercentile() * n) - 1);
+            long derived = (long) (scratch[Math.max(0, index)] * config.getTimeoutMultiplier());
+            timeoutNanos = Math.max(TimeUnit.MILLISECONDS.toNanos(config.getMinTimeoutMs()),
+                    Math.min(ceilingNanos, derived));
+        }
+    }
+}
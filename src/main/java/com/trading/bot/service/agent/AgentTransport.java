@@ -0,0 +1,24 @@
+package com.trading.bot.service.agent;
+
+import com.trading.bot.domain.dto.BotDecisionDto;
+import com.trading.bot.domain.dto.MarketTickDto;
+import reactor.core.publisher.Mono;
+
+/**
+ * One way of getting a decision for a tick from a Python agent instance.
+ * Implementations never signal errors; a missing decision is an empty Mono.
+ */
+public interface AgentTransport {
+
+    Mono<BotDecisionDto> send(MarketTickDto tick);
+
+    default boolean isAvailable() {
+        return true;
+    }
+
+    default void start() {
+    }
+
+    default void stop() {
+    }
+}
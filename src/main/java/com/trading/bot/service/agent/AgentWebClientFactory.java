@@ -0,0 +1,10 @@
+package com.trading.bot.service.agent;
+
+import com.trading.bot.config.PythonAgentProperties;
+import org.springframework.web.reactive.function.client.WebClient;
+
+@FunctionalInterface
+public interface AgentWebClientFactory {
+
+    WebClient create(PythonAgentProperties.Endpoint endpoint);
+}
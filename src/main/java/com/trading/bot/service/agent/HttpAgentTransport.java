@@ -0,0 +1,249 @@
+package com.trading.bot.service.agent;
+
+import com.trading.bot.config.PythonAgentProperties;
+import com.trading.bot.domain.dto.BotDecisionDto;
+import com.trading.bot.domain.dto.MarketTickDto;
+import com.trading.bot.service.codec.PayloadCodecs;
+import com.trading.bot.service.codec.PayloadEncoding;
+import com.trading.bot.service.metrics.PipelineMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.FluxSink;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.MonoSink;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Request/response transport over {@code /api/agent/on-tick}, optionally
+ * micro-batching ticks into the batch endpoint. Bodies use the configured
+ * encoding until the agent answers 415 to it, or refuses it before ever
+ * accepting it and then takes the same request as JSON.
+ */
+@Slf4j
+public class HttpAgentTransport implements AgentTransport {
+
+    private static final ParameterizedTypeReference<List<BotDecisionDto>> DECISION_LIST =
+            new ParameterizedTypeReference<>() {};
+
+    private final WebClient webClient;
+    private final PythonAgentProperties agentProps;
+    private final Duration timeout;
+    private final PipelineMetrics metrics;
+    private final PayloadCodecs payloadCodecs;
+
+    private final MediaType encodedType;
+    private volatile boolean encodingConfirmed;
+    private volatile boolean encodingRejected;
+    private volatile boolean batchSupported = true;
+    private volatile FluxSink<PendingTick> batchSink;
+    private Disposable batchSubscription;
+
+    public HttpAgentTransport(WebClient webClient, PythonAgentProperties agentProps, Duration timeout,
+                              PipelineMetrics metrics, PayloadCodecs payloadCodecs) {
+        this.webClient = webClient;
+        this.agentProps = agentProps;
+        this.timeout = timeout;
+        this.metrics = metrics;
+        this.payloadCodecs = payloadCodecs;
+        this.encodedType = agentProps.getEncoding() == PayloadEncoding.JSON ? null : agentProps.getEncoding().mediaType();
+    }
+
+    @Override
+    public void start() {
+        PythonAgentProperties.Batch batch = agentProps.getBatch();
+        if (!batch.isEnabled()) {
+            return;
+        }
+        batchSubscription = Flux.<PendingTick>create(sink -> this.batchSink = sink)
+                .bufferTimeout(Math.max(1, batch.getMaxSize()), Duration.ofMillis(Math.max(1, batch.getWindowMs())))
+                .flatMap(this::sendBatch, Math.max(1, batch.getMaxConcurrentBatches()))
+                .subscribe();
+        log.info("Python agent batching enabled: maxSize={}, windowMs={}", batch.getMaxSize(), batch.getWindowMs());
+    }
+
+    @Override
+    public void stop() {
+        if (batchSubscription != null) {
+            batchSubscription.dispose();
+        }
+    }
+
+    @Override
+    public Mono<BotDecisionDto> send(MarketTickDto tick) {
+        FluxSink<PendingTick> sink = batchSink;
+        if (sink == null || !batchSupported) {
+            return sendSingle(tick);
+        }
+        return Mono.create(result -> sink.next(new PendingTick(tick, result)));
+    }
+
+    private Mono<BotDecisionDto> sendSingle(MarketTickDto tick) {
+        return sendSingle(tick, requestType());
+    }
+
+    private Mono<BotDecisionDto> sendSingle(MarketTickDto tick, MediaType contentType) {
+        log.info("Sending tick to Python agent: {}", tick);
+
+        return withBody(webClient.post().uri("/api/agent/on-tick"), contentType, tick)
+                .retrieve()
+                .bodyToMono(BotDecisionDto.class)
+                .timeout(timeout)
+                .doOnNext(decision -> confirmEncoding(contentType))
+                .onErrorResume(WebClientResponseException.class, e -> rejectsEncoding(contentType, e)
+                        ? sendSingle(tick, MediaType.APPLICATION_JSON)
+                        : Mono.error(e))
+                .doOnNext(decision ->
+                        log.info("Received decision from Python agent: {}", decision)
+                )
+                .doOnError(WebClientResponseException.class, e ->
+                        log.error("Python agent HTTP error: status={} body={}",
+                                e.getStatusCode(), e.getResponseBodyAsString(), e)
+                )
+                .doOnError(e ->
+                        log.error("Failed to get decision from Python agent. Tick = {}", tick, e)
+                )
+                .doOnError(metrics::agentFailure)
+                .onErrorResume(e -> Mono.empty());
+    }
+
+    private Mono<Void> sendBatch(List<PendingTick> batch) {
+        return sendBatch(batch, requestType());
+    }
+
+    private Mono<Void> sendBatch(List<PendingTick> batch, MediaType contentType) {
+        if (!batchSupported) {
+            return sendIndividually(batch);
+        }
+        List<MarketTickDto> ticks = new ArrayList<>(batch.size());
+        for (PendingTick pending : batch) {
+            ticks.add(pending.tick());
+        }
+        log.info("Sending batch of {} ticks to Python agent", ticks.size());
+
+        return withBody(webClient.post().uri(agentProps.getBatch().getPath()), contentType, ticks)
+                .retrieve()
+                .bodyToMono(DECISION_LIST)
+                .timeout(timeout)
+                .doOnNext(decisions -> {
+                    confirmEncoding(contentType);
+                    complete(batch, decisions);
+                })
+                .then()
+                .onErrorResume(WebClientResponseException.class, e -> {
+                    if (rejectsEncoding(contentType, e)) {
+                        return sendBatch(batch, MediaType.APPLICATION_JSON);
+                    }
+                    if (isBatchUnsupported(e)) {
+                        batchSupported = false;
+                        log.warn("Python agent does not support {} (status={}), falling back to single calls",
+                                agentProps.getBatch().getPath(), e.getStatusCode());
+                        return sendIndividually(batch);
+                    }
+                    log.error("Python agent HTTP error on batch: status={} body={}",
+                            e.getStatusCode(), e.getResponseBodyAsString(), e);
+                    metrics.agentFailure(e);
+                    batch.forEach(pending -> pending.result().success());
+                    return Mono.empty();
+                })
+                .onErrorResume(e -> {
+                    log.error("Failed to get batch decision from Python agent. Size = {}", batch.size(), e);
+                    metrics.agentFailure(e);
+                    batch.forEach(pending -> pending.result().success());
+                    return Mono.empty();
+                });
+    }
+
+    private Mono<Void> sendIndividually(List<PendingTick> batch) {
+        return Flux.fromIterable(batch)
+                .flatMap(pending -> sendSingle(pending.tick())
+                        .doOnNext(decision -> pending.result().success(decision))
+                        .switchIfEmpty(Mono.fromRunnable(() -> pending.result().success())))
+                .then();
+    }
+
+    private void complete(List<PendingTick> batch, List<BotDecisionDto> decisions) {
+        if (decisions.size() != batch.size()) {
+            log.warn("Python agent returned {} decisions for a batch of {} ticks", decisions.size(), batch.size());
+        }
+        for (int i = 0; i < batch.size(); i++) {
+            BotDecisionDto decision = i < decisions.size() ? decisions.get(i) : null;
+            if (decision != null) {
+                batch.get(i).result().success(decision);
+            } else {
+                batch.get(i).result().success();
+            }
+        }
+    }
+
+    /** Binary bodies are encoded here as bytes: the CBOR codec does not write WebClient request bodies. */
+    private WebClient.RequestHeadersSpec<?> withBody(WebClient.RequestBodySpec request, MediaType contentType,
+                                                     Object body) {
+        if (contentType == encodedType) {
+            return request.contentType(contentType)
+                    .body(Mono.fromCallable(() -> payloadCodecs.encode(agentProps.getEncoding(), body)), byte[].class);
+        }
+        return request.contentType(contentType).bodyValue(body);
+    }
+
+    private MediaType requestType() {
+        return encodedType != null && !encodingRejected ? encodedType : MediaType.APPLICATION_JSON;
+    }
+
+    /**
+     * Called on every answer. A JSON body answered while the binary
+     * encoding is still in use can only be the retry of a refused binary
+     * one, so the agent wants JSON.
+     */
+    private void confirmEncoding(MediaType contentType) {
+        if (contentType == encodedType) {
+            encodingConfirmed = true;
+        } else if (encodedType != null && !encodingRejected) {
+            fallBackToJson("accepted the same request as JSON");
+        }
+    }
+
+    /**
+     * True when a refused binary body should be retried as JSON. A 415
+     * switches to JSON for good at once; a 400 or 422 from an agent that has
+     * never taken the encoding only does so once the JSON retry succeeds,
+     * as the request itself may be at fault.
+     */
+    private boolean rejectsEncoding(MediaType contentType, WebClientResponseException e) {
+        if (contentType != encodedType) {
+            return false;
+        }
+        int status = e.getStatusCode().value();
+        if (status == HttpStatus.UNSUPPORTED_MEDIA_TYPE.value()) {
+            fallBackToJson("answered " + status);
+            return true;
+        }
+        return !encodingConfirmed
+                && (status == HttpStatus.BAD_REQUEST.value() || status == HttpStatus.UNPROCESSABLE_CONTENT.value());
+    }
+
+    private synchronized void fallBackToJson(String reason) {
+        if (!encodingRejected) {
+            encodingRejected = true;
+            log.warn("Python agent refused {} bodies and {}, using JSON from now on", encodedType, reason);
+        }
+    }
+
+    private static boolean isBatchUnsupported(WebClientResponseException e) {
+        int status = e.getStatusCode().value();
+        return status == HttpStatus.NOT_FOUND.value()
+                || status == HttpStatus.METHOD_NOT_ALLOWED.value()
+                || status == HttpStatus.NOT_IMPLEMENTED.value();
+    }
+
+    private record PendingTick(MarketTickDto tick, MonoSink<BotDecisionDto> result) {
+    }
+}
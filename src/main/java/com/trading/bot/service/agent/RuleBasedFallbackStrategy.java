@@ -0,0 +1,71 @@
+package com.trading.bot.service.agent;
+
+import com.trading.bot.domain.dto.AccountStateDto;
+import com.trading.bot.domain.dto.BotDecisionDto;
+import com.trading.bot.domain.dto.MarketTickDto;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Stand-in for the agent while it is over its latency budget. It never
+ * opens positions: it holds, or asks to close the open position when the
+ * price has crossed the stop loss or take profit from the agent's last
+ * reported account state.
+ */
+@Component
+public class RuleBasedFallbackStrategy {
+
+    private final Map<String, AccountStateDto> accounts = new ConcurrentHashMap<>();
+
+    public void onAgentDecision(String symbol, BotDecisionDto decision) {
+        if (decision.getAccount() != null) {
+            accounts.put(symbol, decision.getAccount());
+        }
+    }
+
+    public BotDecisionDto decide(MarketTickDto tick) {
+        AccountStateDto account = accounts.get(tick.getSymbol());
+        String action = "HOLD";
+        String reason = "fallback: agent over latency budget";
+
+        if (account != null && account.getPositionSize() != 0 && account.getPositionSide() != null) {
+            double price = tick.getClose();
+            Double stopLoss = account.getStopLossPrice();
+            Double takeProfit = account.getTakeProfitPrice();
+            if (isLong(account.getPositionSide())) {
+                if (stopLoss != null && price <= stopLoss) {
+                    action = "SELL";
+                    reason = "fallback: stop loss " + stopLoss + " hit";
+                } else if (takeProfit != null && price >= takeProfit) {
+                    action = "SELL";
+                    reason = "fallback: take profit " + takeProfit + " hit";
+                }
+            } else if (isShort(account.getPositionSide())) {
+                if (stopLoss != null && price >= stopLoss) {
+                    action = "BUY";
+                    reason = "fallback: stop loss " + stopLoss + " hit";
+                } else if (takeProfit != null && price <= takeProfit) {
+                    action = "BUY";
+                    reason = "fallback: take profit " + takeProfit + " hit";
+                }
+            }
+        }
+
+        BotDecisionDto decision = new BotDecisionDto();
+        decision.setAccount(account);
+        decision.setTrades(List.of());
+        decision.setDebug(Map.of("strategy_action", action, "strategy_reason", reason));
+        return decision;
+    }
+
+    private static boolean isLong(String side) {
+        return "LONG".equalsIgnoreCase(side) || "BUY".equalsIgnoreCase(side);
+    }
+
+    private static boolean isShort(String side) {
+        return "SHORT".equalsIgnoreCase(side) || "SELL".equalsIgnoreCase(side);
+    }
+}
@@ -0,0 +1,156 @@
+package com.trading.bot.service.agent;
+
+import com.trading.bot.config.PythonAgentProperties;
+import com.trading.bot.domain.dto.AgentRequestEnvelope;
+import com.trading.bot.domain.dto.AgentResponseEnvelope;
+import com.trading.bot.domain.dto.BotDecisionDto;
+import com.trading.bot.domain.dto.MarketTickDto;
+import com.trading.bot.service.metrics.PipelineMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.web.reactive.socket.WebSocketMessage;
+import org.springframework.web.reactive.socket.WebSocketSession;
+import org.springframework.web.reactive.socket.client.WebSocketClient;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.FluxSink;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.MonoSink;
+import reactor.util.retry.Retry;
+import tools.jackson.databind.ObjectMapper;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Keeps a single full-duplex WebSocket to the agent. Every tick is sent as
+ * an envelope with a correlation id and the matching decision is routed
+ * back to the caller; the link reconnects with jittered backoff.
+ */
+@Slf4j
+public class WebSocketAgentTransport implements AgentTransport {
+
+    private final URI uri;
+    private final WebSocketClient webSocketClient;
+    private final ObjectMapper objectMapper;
+    private final PythonAgentProperties.Stream streamProps;
+    private final Duration timeout;
+    private final PipelineMetrics metrics;
+
+    private final AtomicLong nextId = new AtomicLong();
+    private final Map<Long, MonoSink<BotDecisionDto>> pending = new ConcurrentHashMap<>();
+
+    private volatile FluxSink<String> outbound;
+    private Disposable connection;
+
+    public WebSocketAgentTransport(URI uri, WebSocketClient webSocketClient, ObjectMapper objectMapper,
+                                   PythonAgentProperties.Stream streamProps, Duration timeout,
+                                   PipelineMetrics metrics) {
+        this.uri = uri;
+        this.webSocketClient = webSocketClient;
+        this.objectMapper = objectMapper;
+        this.streamProps = streamProps;
+        this.timeout = timeout;
+        this.metrics = metrics;
+    }
+
+    @Override
+    public void start() {
+        Retry backoff = Retry.backoff(Long.MAX_VALUE, Duration.ofMillis(streamProps.getReconnectMinBackoffMs()))
+                .maxBackoff(Duration.ofMillis(streamProps.getReconnectMaxBackoffMs()))
+                .jitter(0.5)
+                .doBeforeRetry(signal -> log.warn("Python agent stream disconnected, reconnecting (attempt {})",
+                        signal.totalRetries() + 1, signal.failure()));
+
+        connection = Mono.defer(() -> webSocketClient.execute(uri, this::handleSession))
+                .then(Mono.<Void>error(new IllegalStateException("Python agent stream closed")))
+                .retryWhen(backoff)
+                .subscribe();
+        log.info("Python agent stream transport connecting to {}", uri);
+    }
+
+    @Override
+    public void stop() {
+        if (connection != null) {
+            connection.dispose();
+        }
+        failPending();
+    }
+
+    @Override
+    public boolean isAvailable() {
+        return outbound != null;
+    }
+
+    @Override
+    public Mono<BotDecisionDto> send(MarketTickDto tick) {
+        FluxSink<String> sink = outbound;
+        if (sink == null) {
+            return Mono.empty();
+        }
+        long id = nextId.incrementAndGet();
+        String frame;
+        try {
+            frame = objectMapper.writeValueAsString(new AgentRequestEnvelope(id, "tick", tick));
+        } catch (Exception e) {
+            log.error("Failed to encode tick for Python agent stream. Tick = {}", tick, e);
+            return Mono.empty();
+        }
+        return Mono.<BotDecisionDto>create(result -> {
+                    pending.put(id, result);
+                    result.onDispose(() -> pending.remove(id));
+                    sink.next(frame);
+                })
+                .timeout(timeout)
+                .doOnError(e -> log.error("Failed to get decision over Python agent stream. Tick = {}", tick, e))
+                .doOnError(metrics::agentFailure)
+                .onErrorResume(e -> Mono.empty());
+    }
+
+    private Mono<Void> handleSession(WebSocketSession session) {
+        log.info("Python agent stream connected: {}", uri);
+        Flux<String> frames = Flux.create(sink -> {
+            outbound = sink;
+            sink.onDispose(() -> outbound = null);
+        });
+        Mono<Void> send = session.send(frames.map(session::textMessage));
+        Mono<Void> receive = session.receive()
+                .map(WebSocketMessage::getPayloadAsText)
+                .doOnNext(this::onMessage)
+                .then();
+
+        return Mono.firstWithSignal(send, receive)
+                .doFinally(signal -> {
+                    outbound = null;
+                    failPending();
+                });
+    }
+
+    private void onMessage(String text) {
+        AgentResponseEnvelope envelope;
+        try {
+            envelope = objectMapper.readValue(text, AgentResponseEnvelope.class);
+        } catch (Exception e) {
+            log.warn("Failed to parse Python agent stream message: {}", text, e);
+            return;
+        }
+        MonoSink<BotDecisionDto> result = pending.remove(envelope.getId());
+        if (result == null) {
+            log.debug("Dropping late Python agent response id={}", envelope.getId());
+            return;
+        }
+        if (envelope.getError() != null || envelope.getPayload() == null) {
+            log.error("Python agent stream error for id={}: {}", envelope.getId(), envelope.getError());
+            result.success();
+            return;
+        }
+        result.success(envelope.getPayload());
+    }
+
+    private void failPending() {
+        pending.values().forEach(MonoSink::success);
+        pending.clear();
+    }
+}
@@ -0,0 +1,68 @@
+package com.trading.bot.service.binance;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+
+/**
+ * Immutable open-addressing table that maps ASCII byte ranges of a frame to
+ * pre-built {@link String} instances, so known symbols and intervals are
+ * resolved without allocating.
+ */
+final class AsciiTable {
+
+    private final byte[][] keys;
+    private final String[] values;
+    private final int mask;
+
+    AsciiTable(Collection<String> names) {
+        int capacity = Integer.highestOneBit(Math.max(4, names.size() * 4) - 1) << 1;
+        this.keys = new byte[capacity][];
+        this.values = new String[capacity];
+        this.mask = capacity - 1;
+        for (String name : names) {
+            byte[] bytes = name.getBytes(StandardCharsets.US_ASCII);
+            int slot = hash(bytes) & mask;
+            while (keys[slot] != null && !java.util.Arrays.equals(keys[slot], bytes)) {
+                slot = (slot + 1) & mask;
+            }
+            keys[slot] = bytes;
+            values[slot] = name;
+        }
+    }
+
+    String lookup(byte[] buf, int start, int length) {
+        int h = 1;
+        for (int i = 0; i < length; i++) {
+            h = 31 * h + buf[start + i];
+        }
+        int slot = h & mask;
+        byte[] key;
+        while ((key = keys[slot]) != null) {
+            if (matches(key, buf, start, length)) {
+                return values[slot];
+            }
+            slot = (slot + 1) & mask;
+        }
+        return null;
+    }
+
+    private static boolean matches(byte[] key, byte[] buf, int start, int length) {
+        if (key.length != length) {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            if (key[i] != buf[start + i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int hash(byte[] bytes) {
+        int h = 1;
+        for (byte b : bytes) {
+            h = 31 * h + b;
+        }
+        return h;
+    }
+}
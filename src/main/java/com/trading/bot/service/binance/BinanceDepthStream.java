@@ -0,0 +1,131 @@
+package com.trading.bot.service.binance;
+
+import com.trading.bot.config.DepthProperties;
+import com.trading.bot.config.MarketProperties;
+import com.trading.bot.service.book.DepthUpdate;
+import com.trading.bot.service.book.OrderBook;
+import com.trading.bot.service.book.OrderBookService;
+import com.trading.bot.service.metrics.PipelineMetrics;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.socket.WebSocketMessage;
+import org.springframework.web.reactive.socket.WebSocketSession;
+import org.springframework.web.reactive.socket.client.WebSocketClient;
+import reactor.core.publisher.Mono;
+import tools.jackson.databind.JsonNode;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.List;
+import java.util.Locale;
+import java.util.stream.Collectors;
+
+/**
+ * Keeps the local order books in step with Binance's {@code @depth} diff
+ * streams. A book that is unsynced, after startup, a reconnect or a
+ * sequence break, fetches a REST snapshot on the next diff and buffers
+ * diffs until it loads.
+ */
+@Component
+@Slf4j
+@RequiredArgsConstructor
+public class BinanceDepthStream {
+
+    private final WebSocketClient binanceWebSocketClient;
+    private final WebClient binanceWebClient;
+    private final BinanceFrameDecoder frameDecoder;
+    private final OrderBookService orderBookService;
+    private final MarketProperties marketProps;
+    private final DepthProperties depthProps;
+    private final PipelineMetrics pipelineMetrics;
+
+    /** Runs until cancelled. */
+    public Mono<Void> run(List<String> symbols) {
+        String suffix = depthProps.getUpdateSpeed() == null || depthProps.getUpdateSpeed().isBlank()
+                ? "@depth"
+                : "@depth@" + depthProps.getUpdateSpeed();
+        String streams = symbols.stream()
+                .map(symbol -> symbol.toLowerCase(Locale.ROOT) + suffix)
+                .collect(Collectors.joining("/"));
+        URI uri = URI.create(marketProps.getCombinedStreamUrl() + "?streams=" + streams);
+        ReconnectBackoff backoff = new ReconnectBackoff(marketProps.getReconnectMinBackoffMs(),
+                marketProps.getReconnectMaxBackoffMs());
+
+        return Mono.defer(() -> {
+                    log.info("Connecting to Binance depth stream for {} symbols", symbols.size());
+                    symbols.forEach(symbol -> orderBookService.book(symbol).reset());
+                    return binanceWebSocketClient.execute(uri, session -> handleSession(session, backoff));
+                })
+                .onErrorResume(ex -> {
+                    log.error("Binance depth WS connection error", ex);
+                    return Mono.empty();
+                })
+                .repeatWhen(sessions -> sessions.concatMap(ended -> {
+                    var delay = backoff.next();
+                    log.warn("Binance depth WS disconnected, reconnecting in {} ms", delay.toMillis());
+                    return Mono.delay(delay);
+                }))
+                .then();
+    }
+
+    private Mono<Void> handleSession(WebSocketSession session, ReconnectBackoff backoff) {
+        JsonFrameReader reader = frameDecoder.newReader();
+        DepthUpdate diff = new DepthUpdate();
+        return session.receive()
+                .doOnNext(message -> onFrame(message, reader, diff, backoff))
+                .onErrorResume(ex -> {
+                    log.error("Error in Binance depth WS stream", ex);
+                    return Mono.empty();
+                })
+                .then();
+    }
+
+    private void onFrame(WebSocketMessage message, JsonFrameReader reader, DepthUpdate diff,
+                         ReconnectBackoff backoff) {
+        if (!frameDecoder.decodeDepth(message.getPayload(), reader, diff)
+                && !frameDecoder.parseDepth(message.getPayloadAsText(), diff)) {
+            pipelineMetrics.parseFailure();
+            return;
+        }
+        backoff.reset();
+        OrderBook book = orderBookService.book(diff.getSymbol());
+        OrderBook.Status status = book.onDiff(diff);
+        if (status == OrderBook.Status.GAP) {
+            log.warn("Depth sequence break for {} at update {}, resyncing", book.getSymbol(), diff.getFirstUpdateId());
+            pipelineMetrics.depthResync(book.getSymbol());
+        }
+        if (status != OrderBook.Status.APPLIED && book.requestSnapshot()) {
+            loadSnapshot(book);
+        }
+    }
+
+    /**
+     * Fetches and applies a snapshot, retrying after
+     * {@code snapshotRetryMs} until one lines up with the buffered diffs.
+     */
+    private void loadSnapshot(OrderBook book) {
+        String symbol = book.getSymbol();
+        binanceWebClient.get()
+                .uri(uri -> uri.path("/api/v3/depth")
+                        .queryParam("symbol", symbol)
+                        .queryParam("limit", depthProps.getSnapshotLimit())
+                        .build())
+                .retrieve()
+                .bodyToMono(JsonNode.class)
+                .map(node -> book.applySnapshot(frameDecoder.toDepthSnapshot(symbol, node)))
+                .onErrorResume(e -> {
+                    log.warn("Depth snapshot fetch failed for {}", symbol, e);
+                    return Mono.just(false);
+                })
+                .subscribe(loaded -> {
+                    if (loaded) {
+                        log.info("Order book for {} synced", symbol);
+                        return;
+                    }
+                    Mono.delay(Duration.ofMillis(depthProps.getSnapshotRetryMs()))
+                            .subscribe(tick -> loadSnapshot(book));
+                });
+    }
+}
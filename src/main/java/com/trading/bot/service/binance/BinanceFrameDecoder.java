@@ -0,0 +1,388 @@
+package com.trading.bot.service.binance;
+
+import com.trading.bot.config.MarketProperties;
+import com.trading.bot.domain.dto.BinanceKlineMessage;
+import com.trading.bot.domain.dto.MarketTickDto;
+import com.trading.bot.service.book.DepthUpdate;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.stereotype.Component;
+import tools.jackson.databind.JsonNode;
+import tools.jackson.databind.ObjectMapper;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.zone.ZoneRules;
+import java.util.LinkedHashSet;
+import java.util.Locale;
+import java.util.Set;
+
+@Component
+@Slf4j
+public class BinanceFrameDecoder {
+
+    private static final byte[] DATA = "data".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] KLINE = "kline".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] DEPTH_UPDATE = "depthUpdate".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] AGG_TRADE = "aggTrade".getBytes(StandardCharsets.US_ASCII);
+
+    private static final int T_OPEN = 1;
+    private static final int T_CLOSE = 1 << 1;
+    private static final int SYMBOL = 1 << 2;
+    private static final int OPEN = 1 << 3;
+    private static final int HIGH = 1 << 4;
+    private static final int LOW = 1 << 5;
+    private static final int CLOSE = 1 << 6;
+    private static final int VOLUME = 1 << 7;
+    private static final int REQUIRED = T_OPEN | T_CLOSE | SYMBOL | OPEN | HIGH | LOW | CLOSE | VOLUME;
+    private static final int FIRST_ID = 1;
+    private static final int FINAL_ID = 1 << 1;
+    private static final int DEPTH_REQUIRED = FIRST_ID | FINAL_ID | SYMBOL;
+    private static final int PRICE = 1 << 3;
+    private static final int QUANTITY = 1 << 4;
+    private static final int TRADE_TIME = 1 << 5;
+    private static final int TRADE_REQUIRED = SYMBOL | PRICE | QUANTITY | TRADE_TIME;
+
+    private final ObjectMapper objectMapper;
+    private final AsciiTable names;
+    private final ZoneRules zoneRules;
+    private final ZoneOffset fixedOffset;
+
+    public BinanceFrameDecoder(ObjectMapper objectMapper, MarketProperties marketProps) {
+        this.objectMapper = objectMapper;
+        Set<String> known = new LinkedHashSet<>();
+        known.add("kline");
+        for (String symbol : marketProps.getSymbolsOrDefault()) {
+            known.add(symbol.toUpperCase(Locale.ROOT));
+        }
+        known.addAll(marketProps.getIntervals());
+        this.names = new AsciiTable(known);
+        this.zoneRules = ZoneId.systemDefault().getRules();
+        this.fixedOffset = zoneRules.isFixedOffset() ? zoneRules.getOffset(Instant.EPOCH) : null;
+    }
+
+    public JsonFrameReader newReader() {
+        return new JsonFrameReader(names);
+    }
+
+    /**
+     * Decodes a raw or combined-stream kline frame straight from the
+     * buffer into {@code out}.
+     *
+     * @return {@code false} if the frame is not a kline in the expected
+     * shape; the caller should then use {@link #parseBinanceMessage}
+     */
+    public boolean decodeKline(DataBuffer payload, JsonFrameReader reader, KlineFrame out) {
+        try {
+            reader.reset(payload);
+            out.clear();
+            return reader.beginObject() && readEvent(reader, out);
+        } catch (JsonFrameReader.FrameFormatException e) {
+            return false;
+        }
+    }
+
+    private boolean readEvent(JsonFrameReader reader, KlineFrame out) {
+        boolean found = false;
+        while (reader.nextField()) {
+            if (reader.keyEquals(DATA)) {
+                if (!reader.beginObject()) {
+                    return false;
+                }
+                found = readEvent(reader, out);
+                continue;
+            }
+            switch (reader.keyChar()) {
+                case 'e' -> {
+                    if (!reader.readStringEquals(KLINE)) {
+                        return false;
+                    }
+                }
+                case 'E' -> out.setEventTime(reader.readLong());
+                case 'k' -> found = reader.beginObject() && readKline(reader, out);
+                default -> reader.skipValue();
+            }
+        }
+        return found;
+    }
+
+    private boolean readKline(JsonFrameReader reader, KlineFrame out) {
+        int seen = 0;
+        while (reader.nextField()) {
+            switch (reader.keyChar()) {
+                case 't' -> { out.setOpenTime(reader.readLong()); seen |= T_OPEN; }
+                case 'T' -> { out.setCloseTime(reader.readLong()); seen |= T_CLOSE; }
+                case 's' -> { out.setSymbol(reader.readString()); seen |= SYMBOL; }
+                case 'i' -> out.setInterval(reader.readString());
+                case 'o' -> { out.setOpen(reader.readDecimal()); seen |= OPEN; }
+                case 'h' -> { out.setHigh(reader.readDecimal()); seen |= HIGH; }
+                case 'l' -> { out.setLow(reader.readDecimal()); seen |= LOW; }
+                case 'c' -> { out.setClose(reader.readDecimal()); seen |= CLOSE; }
+                case 'v' -> { out.setVolume(reader.readDecimal()); seen |= VOLUME; }
+                case 'x' -> out.setFinalBar(reader.readBoolean());
+                default -> reader.skipValue();
+            }
+        }
+        return (seen & REQUIRED) == REQUIRED;
+    }
+
+    /**
+     * Decodes a raw or combined-stream {@code depthUpdate} frame into
+     * {@code out}.
+     *
+     * @return {@code false} if the frame is not a depth diff in the
+     * expected shape; the caller should then use {@link #parseDepth}
+     */
+    public boolean decodeDepth(DataBuffer payload, JsonFrameReader reader, DepthUpdate out) {
+        try {
+            reader.reset(payload);
+            out.clear();
+            return reader.beginObject() && readDepthEvent(reader, out);
+        } catch (JsonFrameReader.FrameFormatException e) {
+            return false;
+        }
+    }
+
+    private boolean readDepthEvent(JsonFrameReader reader, DepthUpdate out) {
+        boolean found = false;
+        int seen = 0;
+        while (reader.nextField()) {
+            if (reader.keyEquals(DATA)) {
+                if (!reader.beginObject()) {
+                    return false;
+                }
+                found = readDepthEvent(reader, out);
+                continue;
+            }
+            switch (reader.keyChar()) {
+                case 'e' -> {
+                    if (!reader.readStringEquals(DEPTH_UPDATE)) {
+                        return false;
+                    }
+                }
+                case 'E' -> out.setEventTime(reader.readLong());
+                case 's' -> { out.setSymbol(reader.readString()); seen |= SYMBOL; }
+                case 'U' -> { out.setFirstUpdateId(reader.readLong()); seen |= FIRST_ID; }
+                case 'u' -> { out.setFinalUpdateId(reader.readLong()); seen |= FINAL_ID; }
+                case 'b' -> readLevels(reader, out, true);
+                case 'a' -> readLevels(reader, out, false);
+                default -> reader.skipValue();
+            }
+        }
+        return found || (seen & DEPTH_REQUIRED) == DEPTH_REQUIRED;
+    }
+
+    private static void readLevels(JsonFrameReader reader, DepthUpdate out, boolean bids) {
+        if (!reader.beginArray()) {
+            throw JsonFrameReader.FrameFormatException.INSTANCE;
+        }
+        for (boolean first = true; reader.nextElement(first); first = false) {
+            if (!reader.beginArray()) {
+                throw JsonFrameReader.FrameFormatException.INSTANCE;
+            }
+            double price = reader.readDecimal();
+            reader.expectSeparator(',');
+            double quantity = reader.readDecimal();
+            if (reader.nextElement(false)) {
+                throw JsonFrameReader.FrameFormatException.INSTANCE;
+            }
+            if (bids) {
+                out.addBid(price, quantity);
+            } else {
+                out.addAsk(price, quantity);
+            }
+        }
+    }
+
+    public boolean parseDepth(String json, DepthUpdate out) {
+        try {
+            JsonNode node = objectMapper.readTree(json);
+            if (node.has("data")) {
+                node = node.get("data");
+            }
+            if (!node.has("U") || !node.has("u") || !node.has("s")) {
+                return false;
+            }
+            out.clear();
+            out.setSymbol(node.get("s").asString().toUpperCase(Locale.ROOT));
+            out.setEventTime(node.path("E").asLong());
+            out.setFirstUpdateId(node.get("U").asLong());
+            out.setFinalUpdateId(node.get("u").asLong());
+            fillLevels(node.path("b"), node.path("a"), out);
+            return true;
+        } catch (Exception e) {
+            log.warn("Failed to parse Binance depth message: {}", json, e);
+            return false;
+        }
+    }
+
+    /** Reads a REST {@code /api/v3/depth} response. */
+    public DepthUpdate toDepthSnapshot(String symbol, JsonNode node) {
+        DepthUpdate out = new DepthUpdate();
+        out.setSymbol(symbol);
+        out.setEventTime(System.currentTimeMillis());
+        out.setFirstUpdateId(node.get("lastUpdateId").asLong());
+        out.setFinalUpdateId(out.getFirstUpdateId());
+        fillLevels(node.path("bids"), node.path("asks"), out);
+        return out;
+    }
+
+    private static void fillLevels(JsonNode bids, JsonNode asks, DepthUpdate out) {
+        for (JsonNode level : bids) {
+            out.addBid(Double.parseDouble(level.get(0).asString()), Double.parseDouble(level.get(1).asString()));
+        }
+        for (JsonNode level : asks) {
+            out.addAsk(Double.parseDouble(level.get(0).asString()), Double.parseDouble(level.get(1).asString()));
+        }
+    }
+
+    /**
+     * Decodes a raw or combined-stream {@code aggTrade} frame into
+     * {@code out}.
+     *
+     * @return {@code false} if the frame is not an aggregate trade in the
+     * expected shape; the caller should then use {@link #parseTrade}
+     */
+    public boolean decodeTrade(DataBuffer payload, JsonFrameReader reader, TradeFrame out) {
+        try {
+            reader.reset(payload);
+            out.clear();
+            return reader.beginObject() && readTradeEvent(reader, out);
+        } catch (JsonFrameReader.FrameFormatException e) {
+            return false;
+        }
+    }
+
+    private boolean readTradeEvent(JsonFrameReader reader, TradeFrame out) {
+        boolean found = false;
+        int seen = 0;
+        while (reader.nextField()) {
+            if (reader.keyEquals(DATA)) {
+                if (!reader.beginObject()) {
+                    return false;
+                }
+                found = readTradeEvent(reader, out);
+                continue;
+            }
+            switch (reader.keyChar()) {
+                case 'e' -> {
+                    if (!reader.readStringEquals(AGG_TRADE)) {
+                        return false;
+                    }
+                }
+                case 'E' -> out.setEventTime(reader.readLong());
+                case 's' -> { out.setSymbol(reader.readString()); seen |= SYMBOL; }
+                case 'a' -> out.setAggregateId(reader.readLong());
+                case 'p' -> { out.setPrice(reader.readDecimal()); seen |= PRICE; }
+                case 'q' -> { out.setQuantity(reader.readDecimal()); seen |= QUANTITY; }
+                case 'T' -> { out.setTradeTime(reader.readLong()); seen |= TRADE_TIME; }
+                case 'm' -> out.setBuyerMaker(reader.readBoolean());
+                default -> reader.skipValue();
+            }
+        }
+        return found || (seen & TRADE_REQUIRED) == TRADE_REQUIRED;
+    }
+
+    public boolean parseTrade(String json, TradeFrame out) {
+        try {
+            JsonNode node = objectMapper.readTree(json);
+            if (node.has("data")) {
+                node = node.get("data");
+            }
+            if (!node.has("s") || !node.has("p") || !node.has("q") || !node.has("T")) {
+                return false;
+            }
+            out.clear();
+            out.setSymbol(node.get("s").asString().toUpperCase(Locale.ROOT));
+            out.setEventTime(node.path("E").asLong());
+            out.setAggregateId(node.path("a").asLong());
+            out.setPrice(Double.parseDouble(node.get("p").asString()));
+            out.setQuantity(Double.parseDouble(node.get("q").asString()));
+            out.setTradeTime(node.get("T").asLong());
+            out.setBuyerMaker(node.path("m").asBoolean());
+            return true;
+        } catch (Exception e) {
+            log.warn("Failed to parse Binance trade message: {}", json, e);
+            return false;
+        }
+    }
+
+    /**
+     * Decodes one row of a Binance kline CSV dump
+     * ({@code open_time,open,high,low,close,volume,close_time,...}). Newer
+     * dumps use microsecond timestamps, which are scaled down to millis.
+     */
+    public boolean decodeCsvKline(DataBuffer line, JsonFrameReader reader, KlineFrame out,
+                                  String symbol, String interval) {
+        try {
+            reader.reset(line);
+            out.clear();
+            out.setSymbol(symbol);
+            out.setInterval(interval);
+            out.setOpenTime(toMillis(reader.readLong()));
+            reader.expectSeparator(',');
+            out.setOpen(reader.readDecimal());
+            reader.expectSeparator(',');
+            out.setHigh(reader.readDecimal());
+            reader.expectSeparator(',');
+            out.setLow(reader.readDecimal());
+            reader.expectSeparator(',');
+            out.setClose(reader.readDecimal());
+            reader.expectSeparator(',');
+            out.setVolume(reader.readDecimal());
+            reader.expectSeparator(',');
+            out.setCloseTime(toMillis(reader.readLong()));
+            out.setEventTime(out.getCloseTime());
+            out.setFinalBar(true);
+            return true;
+        } catch (JsonFrameReader.FrameFormatException e) {
+            return false;
+        }
+    }
+
+    private static long toMillis(long timestamp) {
+        return timestamp > 100_000_000_000_000L ? timestamp / 1000 : timestamp;
+    }
+
+    public BinanceKlineMessage parseBinanceMessage(String json) {
+        try {
+            JsonNode node = objectMapper.readTree(json);
+            if (node.has("data")) {
+                node = node.get("data");
+            }
+            return objectMapper.treeToValue(node, BinanceKlineMessage.class);
+        } catch (Exception e) {
+            log.warn("Failed to parse Binance kline message: {}", json, e);
+            return null;
+        }
+    }
+
+    public MarketTickDto convertToTick(KlineFrame frame) {
+        return new MarketTickDto(
+                frame.getSymbol(),
+                frame.getInterval(),
+                toLocalDateTime(frame.getCloseTime()),
+                frame.getOpenTime(),
+                frame.getCloseTime(),
+                frame.getOpen(),
+                frame.getHigh(),
+                frame.getLow(),
+                frame.getClose(),
+                frame.getVolume(),
+                frame.isFinalBar()
+        );
+    }
+
+    public LocalDateTime toLocalDateTime(long epochMillis) {
+        ZoneOffset offset = fixedOffset != null
+                ? fixedOffset
+                : zoneRules.getOffset(Instant.ofEpochMilli(epochMillis));
+        return LocalDateTime.ofEpochSecond(
+                Math.floorDiv(epochMillis, 1000),
+                (int) Math.floorMod(epochMillis, 1000) * 1_000_000,
+                offset);
+    }
+}
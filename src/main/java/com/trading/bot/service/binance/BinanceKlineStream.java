@@ -0,0 +1,152 @@
+package com.trading.bot.service.binance;
+
+import com.trading.bot.config.MarketProperties;
+import com.trading.bot.domain.dto.BinanceKlineMessage;
+import com.trading.bot.domain.dto.MarketTickDto;
+import com.trading.bot.service.candle.Intervals;
+import com.trading.bot.service.journal.TickJournal;
+import com.trading.bot.service.metrics.PipelineMetrics;
+import com.trading.bot.service.metrics.PipelineStage;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.reactivestreams.Publisher;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.socket.WebSocketMessage;
+import org.springframework.web.reactive.socket.WebSocketSession;
+import org.springframework.web.reactive.socket.client.WebSocketClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Keeps one Binance combined-stream connection alive. It remembers the
+ * last kline open time per stream, reconnects with jittered exponential
+ * backoff, and on every reconnect replays the missed bars from REST
+ * through the pipeline before live frames resume.
+ */
+@Component
+@Slf4j
+@RequiredArgsConstructor
+public class BinanceKlineStream {
+
+    private final WebSocketClient binanceWebSocketClient;
+    private final BinanceFrameDecoder frameDecoder;
+    private final KlineBackfill klineBackfill;
+    private final MarketProperties marketProps;
+    private final TickJournal tickJournal;
+    private final PipelineMetrics pipelineMetrics;
+
+    /**
+     * Runs until cancelled. {@code pipeline} is applied once per
+     * connection to that connection's ticks, backfill first.
+     */
+    public Mono<Void> run(List<String> streams, Function<Flux<MarketTickDto>, ? extends Publisher<?>> pipeline) {
+        URI uri = URI.create(marketProps.getCombinedStreamUrl() + "?streams=" + String.join("/", streams));
+        ReconnectBackoff backoff = new ReconnectBackoff(marketProps.getReconnectMinBackoffMs(),
+                marketProps.getReconnectMaxBackoffMs());
+        Map<String, Long> lastOpenTimes = new ConcurrentHashMap<>();
+
+        return Mono.defer(() -> {
+                    log.info("Connecting to Binance combined stream with {} streams", streams.size());
+                    return binanceWebSocketClient.execute(uri,
+                            session -> handleSession(session, lastOpenTimes, backoff, pipeline));
+                })
+                .onErrorResume(ex -> {
+                    log.error("Binance WS connection error", ex);
+                    return Mono.empty();
+                })
+                .repeatWhen(sessions -> sessions.concatMap(ended -> {
+                    var delay = backoff.next();
+                    log.warn("Binance WS disconnected, reconnecting in {} ms", delay.toMillis());
+                    return Mono.delay(delay);
+                }))
+                .then();
+    }
+
+    private Mono<Void> handleSession(WebSocketSession session, Map<String, Long> lastOpenTimes,
+                                     ReconnectBackoff backoff,
+                                     Function<Flux<MarketTickDto>, ? extends Publisher<?>> pipeline) {
+        JsonFrameReader reader = frameDecoder.newReader();
+        KlineFrame frame = new KlineFrame();
+        Flux<MarketTickDto> live = session.receive()
+                .mapNotNull(message -> decodeTick(message, reader, frame))
+                .doOnNext(tick -> backoff.reset());
+        Flux<MarketTickDto> ticks = Flux.concat(backfill(Map.copyOf(lastOpenTimes)), live)
+                .filter(tick -> advance(tick, lastOpenTimes));
+        return Flux.from(pipeline.apply(ticks))
+                .onErrorResume(ex -> {
+                    log.error("Error in Binance WS stream", ex);
+                    return Mono.empty();
+                })
+                .then();
+    }
+
+    private Flux<MarketTickDto> backfill(Map<String, Long> resumeFrom) {
+        if (resumeFrom.isEmpty() || marketProps.getBackfillMaxBars() <= 0) {
+            return Flux.empty();
+        }
+        List<Map.Entry<String, Long>> gaps = new ArrayList<>(resumeFrom.entrySet());
+        gaps.sort(Map.Entry.comparingByKey());
+        return Flux.fromIterable(gaps)
+                .concatMap(gap -> {
+                    String key = gap.getKey();
+                    int at = key.lastIndexOf('@');
+                    log.info("Backfilling {} from open time {}", key, gap.getValue());
+                    return klineBackfill.fetch(key.substring(0, at), key.substring(at + 1), gap.getValue(),
+                            marketProps.getBackfillMaxBars());
+                });
+    }
+
+    /**
+     * Drops bars older than the last one seen for their stream and notes
+     * jumps of more than one interval.
+     */
+    private boolean advance(MarketTickDto tick, Map<String, Long> lastOpenTimes) {
+        String key = streamKey(tick.getSymbol(), tick.getInterval());
+        Long last = lastOpenTimes.get(key);
+        if (last != null) {
+            if (tick.getOpenTime() < last) {
+                return false;
+            }
+            if (tick.getOpenTime() > Intervals.nextBucketStart(tick.getInterval(), last)) {
+                pipelineMetrics.gap(tick.getSymbol());
+                log.warn("Gap in {}: last open time {}, received {}", key, last, tick.getOpenTime());
+            }
+        }
+        lastOpenTimes.put(key, tick.getOpenTime());
+        return true;
+    }
+
+    private MarketTickDto decodeTick(WebSocketMessage message, JsonFrameReader reader, KlineFrame frame) {
+        long received = System.nanoTime();
+        if (!frameDecoder.decodeKline(message.getPayload(), reader, frame)) {
+            BinanceKlineMessage msg = frameDecoder.parseBinanceMessage(message.getPayloadAsText());
+            if (msg == null || msg.getKline() == null) {
+                pipelineMetrics.parseFailure();
+                return null;
+            }
+            frame.fill(msg);
+        }
+        tickJournal.append(frame);
+        MarketTickDto tick = frameDecoder.convertToTick(frame);
+        tick.setReceivedNanos(received);
+        pipelineMetrics.recordSince(PipelineStage.PARSE, tick.getSymbol(), received);
+        if (frame.getEventTime() > 0) {
+            pipelineMetrics.record(PipelineStage.EXCHANGE, tick.getSymbol(),
+                    TimeUnit.MILLISECONDS.toNanos(System.currentTimeMillis() - frame.getEventTime()));
+        }
+        return tick;
+    }
+
+    private static String streamKey(String symbol, String interval) {
+        return symbol.toUpperCase(Locale.ROOT) + "@" + interval;
+    }
+}
@@ -0,0 +1,110 @@
+package com.trading.bot.service.binance;
+
+import com.trading.bot.config.MarketProperties;
+import com.trading.bot.config.TradeProperties;
+import com.trading.bot.domain.dto.MarketTickDto;
+import com.trading.bot.service.metrics.PipelineMetrics;
+import com.trading.bot.service.metrics.PipelineStage;
+import com.trading.bot.service.trade.TradeBarSpec;
+import com.trading.bot.service.trade.TradeBars;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.reactivestreams.Publisher;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.socket.WebSocketMessage;
+import org.springframework.web.reactive.socket.WebSocketSession;
+import org.springframework.web.reactive.socket.client.WebSocketClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.net.URI;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Streams {@code @aggTrade} events and folds them into the configured
+ * trade bars on the receive thread, so only closed bars reach the
+ * pipeline. Trades are decoded into one reused {@link TradeFrame}; a bar
+ * that is open when the connection drops is discarded.
+ */
+@Component
+@Slf4j
+@RequiredArgsConstructor
+public class BinanceTradeStream {
+
+    private final WebSocketClient binanceWebSocketClient;
+    private final BinanceFrameDecoder frameDecoder;
+    private final MarketProperties marketProps;
+    private final TradeProperties tradeProps;
+    private final PipelineMetrics pipelineMetrics;
+
+    /**
+     * Runs until cancelled. {@code pipeline} is applied once per
+     * connection to the bars built from that connection's trades.
+     */
+    public Mono<Void> run(List<String> symbols, Function<Flux<MarketTickDto>, ? extends Publisher<?>> pipeline) {
+        String streams = symbols.stream()
+                .map(symbol -> symbol.toLowerCase(Locale.ROOT) + "@aggTrade")
+                .collect(Collectors.joining("/"));
+        URI uri = URI.create(marketProps.getCombinedStreamUrl() + "?streams=" + streams);
+        List<TradeBarSpec> specs = tradeProps.getBars().stream().map(TradeBarSpec::parse).toList();
+        ReconnectBackoff backoff = new ReconnectBackoff(marketProps.getReconnectMinBackoffMs(),
+                marketProps.getReconnectMaxBackoffMs());
+
+        return Mono.defer(() -> {
+                    log.info("Connecting to Binance trade stream for {} symbols", symbols.size());
+                    return binanceWebSocketClient.execute(uri,
+                            session -> handleSession(session, new TradeBars(specs, frameDecoder::toLocalDateTime),
+                                    backoff, pipeline));
+                })
+                .onErrorResume(ex -> {
+                    log.error("Binance trade WS connection error", ex);
+                    return Mono.empty();
+                })
+                .repeatWhen(sessions -> sessions.concatMap(ended -> {
+                    var delay = backoff.next();
+                    log.warn("Binance trade WS disconnected, reconnecting in {} ms", delay.toMillis());
+                    return Mono.delay(delay);
+                }))
+                .then();
+    }
+
+    private Mono<Void> handleSession(WebSocketSession session, TradeBars bars, ReconnectBackoff backoff,
+                                     Function<Flux<MarketTickDto>, ? extends Publisher<?>> pipeline) {
+        JsonFrameReader reader = frameDecoder.newReader();
+        TradeFrame frame = new TradeFrame();
+        Flux<MarketTickDto> closed = session.receive()
+                .flatMapIterable(message -> onTrade(message, reader, frame, bars))
+                .doOnNext(bar -> backoff.reset());
+        return Flux.from(pipeline.apply(closed))
+                .onErrorResume(ex -> {
+                    log.error("Error in Binance trade WS stream", ex);
+                    return Mono.empty();
+                })
+                .then();
+    }
+
+    private List<MarketTickDto> onTrade(WebSocketMessage message, JsonFrameReader reader, TradeFrame frame,
+                                        TradeBars bars) {
+        long received = System.nanoTime();
+        if (!frameDecoder.decodeTrade(message.getPayload(), reader, frame)
+                && !frameDecoder.parseTrade(message.getPayloadAsText(), frame)) {
+            pipelineMetrics.parseFailure();
+            return List.of();
+        }
+        List<MarketTickDto> closed = bars.onTrade(frame.getSymbol(), frame.getTradeTime(), frame.getPrice(),
+                frame.getQuantity(), frame.isBuyerMaker());
+        for (MarketTickDto bar : closed) {
+            bar.setReceivedNanos(received);
+            pipelineMetrics.recordSince(PipelineStage.PARSE, bar.getSymbol(), received);
+            if (frame.getEventTime() > 0) {
+                pipelineMetrics.record(PipelineStage.EXCHANGE, bar.getSymbol(),
+                        TimeUnit.MILLISECONDS.toNanos(System.currentTimeMillis() - frame.getEventTime()));
+            }
+        }
+        return closed;
+    }
+}
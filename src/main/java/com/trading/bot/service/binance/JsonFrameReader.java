@@ -0,0 +1,372 @@
+package com.trading.bot.service.binance;
+
+import org.springframework.core.io.buffer.DataBuffer;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Forward-only JSON cursor over a WebSocket frame. Each frame is
+ * bulk-copied into a reused array first, because per-byte
+ * {@link DataBuffer#getByte} bounds checks box their arguments and cost far
+ * more than one copy. It only understands the flat shapes Binance sends;
+ * anything unexpected raises {@link FrameFormatException} so the caller can
+ * fall back to Jackson.
+ * Instances are reused per connection and are not thread-safe.
+ */
+public final class JsonFrameReader {
+
+    private static final double[] POW10 = {
+            1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10,
+            1e11, 1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+    };
+    private static final long MAX_EXACT_MANTISSA = 1L << 53;
+
+    private final AsciiTable names;
+
+    private byte[] buf = new byte[1024];
+    private int pos;
+    private int end;
+    private int keyStart;
+    private int keyLength;
+
+    JsonFrameReader(AsciiTable names) {
+        this.names = names;
+    }
+
+    public void reset(DataBuffer buffer) {
+        int length = buffer.readableByteCount();
+        if (length > buf.length) {
+            buf = new byte[Math.max(length, buf.length * 2)];
+        }
+        int start = buffer.readPosition();
+        buffer.read(buf, 0, length);
+        buffer.readPosition(start);
+        this.pos = 0;
+        this.end = length;
+    }
+
+    public boolean beginObject() {
+        skipWhitespace();
+        if (pos >= end || buf[pos] != '{') {
+            return false;
+        }
+        pos++;
+        return true;
+    }
+
+    public boolean beginArray() {
+        skipWhitespace();
+        if (pos >= end || buf[pos] != '[') {
+            return false;
+        }
+        pos++;
+        return true;
+    }
+
+    /**
+     * Advances to the next element of the current array.
+     *
+     * @return {@code false} once the closing bracket has been consumed
+     */
+    public boolean nextElement(boolean first) {
+        skipWhitespace();
+        byte c = current();
+        if (c == ']') {
+            pos++;
+            return false;
+        }
+        if (!first) {
+            expect(',');
+        }
+        return true;
+    }
+
+    /**
+     * Advances to the next field of the current object and positions the
+     * cursor on its value.
+     *
+     * @return {@code false} once the closing brace has been consumed
+     */
+    public boolean nextField() {
+        skipWhitespace();
+        byte c = current();
+        if (c == '}') {
+            pos++;
+            return false;
+        }
+        if (c == ',') {
+            pos++;
+            skipWhitespace();
+        }
+        expect('"');
+        keyStart = pos;
+        while (current() != '"') {
+            if (buf[pos] == '\\') {
+                throw FrameFormatException.INSTANCE;
+            }
+            pos++;
+        }
+        keyLength = pos - keyStart;
+        pos++;
+        skipWhitespace();
+        expect(':');
+        skipWhitespace();
+        return true;
+    }
+
+    public byte keyChar() {
+        return keyLength == 1 ? buf[keyStart] : 0;
+    }
+
+    public boolean keyEquals(byte[] key) {
+        if (key.length != keyLength) {
+            return false;
+        }
+        for (int i = 0; i < keyLength; i++) {
+            if (buf[keyStart + i] != key[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public long readLong() {
+        boolean quoted = current() == '"';
+        if (quoted) {
+            pos++;
+        }
+        boolean negative = current() == '-';
+        if (negative) {
+            pos++;
+        }
+        long value = 0;
+        int digits = 0;
+        byte c;
+        while (pos < end && (c = buf[pos]) >= '0' && c <= '9') {
+            value = value * 10 + (c - '0');
+            pos++;
+            digits++;
+        }
+        if (digits == 0 || digits > 18) {
+            throw FrameFormatException.INSTANCE;
+        }
+        if (quoted) {
+            expect('"');
+        }
+        return negative ? -value : value;
+    }
+
+    /**
+     * Reads a decimal, quoted or bare. Mantissas below 2^53 with at most 22
+     * fractional digits are computed with a single correctly rounded
+     * division, which matches {@link Double#parseDouble} exactly; anything
+     * else takes the slow path.
+     */
+    public double readDecimal() {
+        boolean quoted = current() == '"';
+        if (quoted) {
+            pos++;
+        }
+        int start = pos;
+        boolean negative = current() == '-';
+        if (negative) {
+            pos++;
+        }
+        long mantissa = 0;
+        int digits = 0;
+        int scale = 0;
+        boolean fraction = false;
+        boolean slow = false;
+        while (pos < end) {
+            byte c = buf[pos];
+            if (c >= '0' && c <= '9') {
+                if (digits < 18) {
+                    mantissa = mantissa * 10 + (c - '0');
+                    if (mantissa != 0) {
+                        digits++;
+                    }
+                    if (fraction) {
+                        scale++;
+                    }
+                } else {
+                    slow = true;
+                }
+            } else if (c == '.' && !fraction) {
+                fraction = true;
+            } else if (c == 'e' || c == 'E' || c == '+' || (c == '-' && pos > start)) {
+                slow = true;
+            } else {
+                break;
+            }
+            pos++;
+        }
+        if (pos == start) {
+            throw FrameFormatException.INSTANCE;
+        }
+        double value;
+        if (!slow && mantissa < MAX_EXACT_MANTISSA && scale < POW10.length) {
+            value = mantissa / POW10[scale];
+            if (negative) {
+                value = -value;
+            }
+        } else {
+            value = parseSlow(start, pos - start);
+        }
+        if (quoted) {
+            expect('"');
+        }
+        return value;
+    }
+
+    public boolean readBoolean() {
+        byte c = current();
+        if (c == 't') {
+            pos += 4;
+            return true;
+        }
+        if (c == 'f') {
+            pos += 5;
+            return false;
+        }
+        throw FrameFormatException.INSTANCE;
+    }
+
+    /**
+     * Reads a string value, returning the shared instance when it is one of
+     * the known names and allocating only for unknown values.
+     */
+    public String readString() {
+        expect('"');
+        int start = pos;
+        while (current() != '"') {
+            if (buf[pos] == '\\') {
+                throw FrameFormatException.INSTANCE;
+            }
+            pos++;
+        }
+        int length = pos - start;
+        pos++;
+        String known = names.lookup(buf, start, length);
+        if (known != null) {
+            return known;
+        }
+        return new String(buf, start, length, StandardCharsets.US_ASCII);
+    }
+
+    public boolean readStringEquals(byte[] expected) {
+        expect('"');
+        int start = pos;
+        while (current() != '"') {
+            pos++;
+        }
+        int length = pos - start;
+        pos++;
+        if (length != expected.length) {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            if (buf[start + i] != expected[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public boolean hasRemaining() {
+        skipWhitespace();
+        return pos < end;
+    }
+
+    /**
+     * Consumes a field separator, for the CSV layouts that share this
+     * reader's number parsing.
+     */
+    public void expectSeparator(char separator) {
+        skipWhitespace();
+        expect(separator);
+    }
+
+    public void skipField(char separator) {
+        while (pos < end && buf[pos] != separator) {
+            pos++;
+        }
+    }
+
+    public void skipValue() {
+        skipWhitespace();
+        byte c = current();
+        if (c == '"') {
+            skipString();
+            return;
+        }
+        if (c == '{' || c == '[') {
+            int depth = 0;
+            do {
+                c = current();
+                if (c == '"') {
+                    skipString();
+                    continue;
+                }
+                if (c == '{' || c == '[') {
+                    depth++;
+                } else if (c == '}' || c == ']') {
+                    depth--;
+                }
+                pos++;
+            } while (depth > 0);
+            return;
+        }
+        while (pos < end) {
+            c = buf[pos];
+            if (c == ',' || c == '}' || c == ']' || c <= ' ') {
+                return;
+            }
+            pos++;
+        }
+    }
+
+    private void skipString() {
+        pos++;
+        byte c;
+        while ((c = current()) != '"') {
+            pos += c == '\\' ? 2 : 1;
+        }
+        pos++;
+    }
+
+    private void skipWhitespace() {
+        while (pos < end && buf[pos] <= ' ') {
+            pos++;
+        }
+    }
+
+    private byte current() {
+        if (pos >= end) {
+            throw FrameFormatException.INSTANCE;
+        }
+        return buf[pos];
+    }
+
+    private void expect(char c) {
+        if (current() != c) {
+            throw FrameFormatException.INSTANCE;
+        }
+        pos++;
+    }
+
+    private double parseSlow(int start, int length) {
+        try {
+            return Double.parseDouble(new String(buf, start, length, StandardCharsets.US_ASCII));
+        } catch (NumberFormatException e) {
+            throw FrameFormatException.INSTANCE;
+        }
+    }
+
+    static final class FrameFormatException extends RuntimeException {
+        static final FrameFormatException INSTANCE = new FrameFormatException();
+
+        private FrameFormatException() {
+            super("Unexpected Binance frame shape", null, false, false);
+        }
+    }
+}
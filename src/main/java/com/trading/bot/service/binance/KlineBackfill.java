@@ -0,0 +1,94 @@
+package com.trading.bot.service.binance;
+
+import com.trading.bot.domain.dto.MarketTickDto;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import tools.jackson.databind.JsonNode;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Fetches klines missed while disconnected from the REST
+ * {@code /api/v3/klines} endpoint, oldest first.
+ */
+@Component
+@Slf4j
+@RequiredArgsConstructor
+public class KlineBackfill {
+
+    private static final int PAGE_LIMIT = 1000;
+
+    private final WebClient binanceWebClient;
+    private final BinanceFrameDecoder frameDecoder;
+
+    /**
+     * @param fromOpenTime open time of the first bar wanted, inclusive, so
+     *                     the last bar seen before a disconnect is
+     *                     re-delivered in its final form
+     * @param maxBars      upper bound on bars returned
+     */
+    public Flux<MarketTickDto> fetch(String symbol, String interval, long fromOpenTime, int maxBars) {
+        if (maxBars <= 0) {
+            return Flux.empty();
+        }
+        return fetchPages(symbol, interval, fromOpenTime, maxBars)
+                .onErrorResume(e -> {
+                    log.warn("Kline backfill failed for {}@{} from {}", symbol, interval, fromOpenTime, e);
+                    return Flux.empty();
+                });
+    }
+
+    private Flux<MarketTickDto> fetchPages(String symbol, String interval, long startTime, int remaining) {
+        int limit = Math.min(PAGE_LIMIT, remaining);
+        return page(symbol, interval, startTime, limit).flatMapMany(bars -> {
+            Flux<MarketTickDto> current = Flux.fromIterable(bars);
+            if (bars.size() < limit || remaining - bars.size() <= 0) {
+                return current;
+            }
+            long next = bars.get(bars.size() - 1).getOpenTime() + 1;
+            return current.concatWith(Flux.defer(() -> fetchPages(symbol, interval, next, remaining - bars.size())));
+        });
+    }
+
+    private Mono<List<MarketTickDto>> page(String symbol, String interval, long startTime, int limit) {
+        return binanceWebClient.get()
+                .uri(uri -> uri.path("/api/v3/klines")
+                        .queryParam("symbol", symbol)
+                        .queryParam("interval", interval)
+                        .queryParam("startTime", startTime)
+                        .queryParam("limit", limit)
+                        .build())
+                .retrieve()
+                .bodyToMono(JsonNode.class)
+                .map(rows -> toTicks(symbol, interval, rows));
+    }
+
+    private List<MarketTickDto> toTicks(String symbol, String interval, JsonNode rows) {
+        List<MarketTickDto> ticks = new ArrayList<>(rows.size());
+        long now = System.currentTimeMillis();
+        long received = System.nanoTime();
+        KlineFrame frame = new KlineFrame();
+        for (JsonNode row : rows) {
+            frame.clear();
+            frame.setSymbol(symbol);
+            frame.setInterval(interval);
+            frame.setOpenTime(row.get(0).asLong());
+            frame.setOpen(Double.parseDouble(row.get(1).asString()));
+            frame.setHigh(Double.parseDouble(row.get(2).asString()));
+            frame.setLow(Double.parseDouble(row.get(3).asString()));
+            frame.setClose(Double.parseDouble(row.get(4).asString()));
+            frame.setVolume(Double.parseDouble(row.get(5).asString()));
+            frame.setCloseTime(row.get(6).asLong());
+            frame.setFinalBar(frame.getCloseTime() < now);
+            MarketTickDto tick = frameDecoder.convertToTick(frame);
+            tick.setReceivedNanos(received);
+            ticks.add(tick);
+        }
+        return ticks;
+    }
+}
@@ -0,0 +1,61 @@
+package com.trading.bot.service.binance;
+
+import com.trading.bot.domain.dto.BinanceKlineMessage;
+import lombok.Data;
+
+/**
+ * Mutable, primitive-only view of one kline update. A single instance is
+ * reused for every frame of a connection.
+ */
+@Data
+public class KlineFrame {
+    private long eventTime;
+    private String symbol;
+    private String interval;
+    private long openTime;
+    private long closeTime;
+    private double open;
+    private double high;
+    private double low;
+    private double close;
+    private double volume;
+    private boolean finalBar;
+
+    public void clear() {
+        eventTime = 0;
+        symbol = null;
+        interval = null;
+        openTime = 0;
+        closeTime = 0;
+        open = 0;
+        high = 0;
+        low = 0;
+        close = 0;
+        volume = 0;
+        finalBar = false;
+    }
+
+    public KlineFrame fill(BinanceKlineMessage msg) {
+        BinanceKlineMessage.Kline k = msg.getKline();
+        eventTime = msg.getEventTime();
+        symbol = k.getSymbol();
+        interval = k.getInterval();
+        openTime = k.getStartTime();
+        closeTime = k.getCloseTime();
+        open = parseDouble(k.getOpenPrice());
+        high = parseDouble(k.getHighPrice());
+        low = parseDouble(k.getLowPrice());
+        close = parseDouble(k.getClosePrice());
+        volume = parseDouble(k.getVolume());
+        finalBar = k.isFinalBar();
+        return this;
+    }
+
+    private static double parseDouble(String v) {
+        try {
+            return v == null ? 0.0 : Double.parseDouble(v);
+        } catch (Exception e) {
+            return 0.0;
+        }
+    }
+}
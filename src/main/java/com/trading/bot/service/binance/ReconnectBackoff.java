@@ -0,0 +1,32 @@
+package com.trading.bot.service.binance;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Exponential backoff with jitter between 50% and 100% of the nominal
+ * delay, reset once a connection proves healthy.
+ */
+final class ReconnectBackoff {
+
+    private final long minMs;
+    private final long maxMs;
+    private volatile int attempt;
+
+    ReconnectBackoff(long minMs, long maxMs) {
+        this.minMs = Math.max(1, minMs);
+        this.maxMs = Math.max(this.minMs, maxMs);
+    }
+
+    Duration next() {
+        long nominal = Math.min(maxMs, minMs * (1L << Math.min(attempt++, 20)));
+        long jittered = nominal / 2 + ThreadLocalRandom.current().nextLong(nominal / 2 + 1);
+        return Duration.ofMillis(jittered);
+    }
+
+    void reset() {
+        if (attempt != 0) {
+            attempt = 0;
+        }
+    }
+}
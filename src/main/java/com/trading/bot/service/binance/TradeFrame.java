@@ -0,0 +1,29 @@
+package com.trading.bot.service.binance;
+
+import lombok.Data;
+
+/**
+ * Mutable, primitive-only view of one {@code aggTrade} event, reused for
+ * every frame of a connection.
+ */
+@Data
+public class TradeFrame {
+    private long eventTime;
+    private String symbol;
+    private long aggregateId;
+    private double price;
+    private double quantity;
+    private long tradeTime;
+    /** {@code true} when the buyer was the maker, i.e. the aggressor sold. */
+    private boolean buyerMaker;
+
+    public void clear() {
+        eventTime = 0;
+        symbol = null;
+        aggregateId = 0;
+        price = 0;
+        quantity = 0;
+        tradeTime = 0;
+        buyerMaker = false;
+    }
+}
@@ -0,0 +1,99 @@
+package com.trading.bot.service.book;
+
+import java.util.Arrays;
+
+/**
+ * One side of a book as parallel sorted {@code double} arrays, best level
+ * first. Updates cluster near the top, so inserting or removing with
+ * {@link System#arraycopy} is cheaper than walking a tree of boxed keys.
+ */
+final class BookSide {
+
+    private final boolean descending;
+    private final int maxLevels;
+    private double[] prices = new double[256];
+    private double[] quantities = new double[256];
+    private int size;
+
+    BookSide(boolean descending, int maxLevels) {
+        this.descending = descending;
+        this.maxLevels = Math.max(1, maxLevels);
+    }
+
+    /** Sets the quantity at {@code price}; zero removes the level. */
+    void update(double price, double quantity) {
+        int index = find(price);
+        if (index >= 0) {
+            if (quantity == 0) {
+                System.arraycopy(prices, index + 1, prices, index, size - index - 1);
+                System.arraycopy(quantities, index + 1, quantities, index, size - index - 1);
+                size--;
+            } else {
+                quantities[index] = quantity;
+            }
+            return;
+        }
+        if (quantity == 0) {
+            return;
+        }
+        int insert = -index - 1;
+        if (insert >= maxLevels) {
+            return;
+        }
+        if (size == prices.length) {
+            int capacity = Math.min(maxLevels, size * 2);
+            prices = Arrays.copyOf(prices, capacity);
+            quantities = Arrays.copyOf(quantities, capacity);
+        }
+        int moved = Math.min(size, maxLevels - 1) - insert;
+        System.arraycopy(prices, insert, prices, insert + 1, moved);
+        System.arraycopy(quantities, insert, quantities, insert + 1, moved);
+        prices[insert] = price;
+        quantities[insert] = quantity;
+        size = Math.min(size + 1, maxLevels);
+    }
+
+    void clear() {
+        size = 0;
+    }
+
+    int size() {
+        return size;
+    }
+
+    double price(int level) {
+        return prices[level];
+    }
+
+    double quantity(int level) {
+        return quantities[level];
+    }
+
+    /** Summed quantity of the best {@code levels} levels. */
+    double sum(int levels) {
+        double total = 0;
+        for (int i = 0, end = Math.min(size, levels); i < end; i++) {
+            total += quantities[i];
+        }
+        return total;
+    }
+
+    /** Same contract as {@link Arrays#binarySearch(double[], double)}, in this side's order. */
+    private int find(double price) {
+        int low = 0;
+        int high = size - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            double value = prices[mid];
+            if (value == price) {
+                return mid;
+            }
+            if (descending ? value > price : value < price) {
+                low = mid + 1;
+            } else {
+                high = mid - 1;
+            }
+        }
+        return -(low + 1);
+    }
+}
@@ -0,0 +1,74 @@
+package com.trading.bot.service.book;
+
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.Arrays;
+
+/**
+ * One depth diff or snapshot as parallel primitive arrays. The decoder
+ * reuses a single instance per connection; {@link OrderBook} copies it only
+ * while an update has to be buffered.
+ */
+@Getter
+@Setter
+public final class DepthUpdate {
+
+    private String symbol;
+    private long eventTime;
+    /** First update id in the event ({@code U}); equal to the last for a snapshot. */
+    private long firstUpdateId;
+    /** Final update id in the event ({@code u}), or the snapshot's {@code lastUpdateId}. */
+    private long finalUpdateId;
+
+    private double[] bidPrices = new double[16];
+    private double[] bidQuantities = new double[16];
+    private int bidCount;
+    private double[] askPrices = new double[16];
+    private double[] askQuantities = new double[16];
+    private int askCount;
+
+    public void clear() {
+        symbol = null;
+        eventTime = 0;
+        firstUpdateId = 0;
+        finalUpdateId = 0;
+        bidCount = 0;
+        askCount = 0;
+    }
+
+    public DepthUpdate addBid(double price, double quantity) {
+        if (bidCount == bidPrices.length) {
+            bidPrices = Arrays.copyOf(bidPrices, bidCount * 2);
+            bidQuantities = Arrays.copyOf(bidQuantities, bidCount * 2);
+        }
+        bidPrices[bidCount] = price;
+        bidQuantities[bidCount++] = quantity;
+        return this;
+    }
+
+    public DepthUpdate addAsk(double price, double quantity) {
+        if (askCount == askPrices.length) {
+            askPrices = Arrays.copyOf(askPrices, askCount * 2);
+            askQuantities = Arrays.copyOf(askQuantities, askCount * 2);
+        }
+        askPrices[askCount] = price;
+        askQuantities[askCount++] = quantity;
+        return this;
+    }
+
+    public DepthUpdate copy() {
+        DepthUpdate copy = new DepthUpdate();
+        copy.symbol = symbol;
+        copy.eventTime = eventTime;
+        copy.firstUpdateId = firstUpdateId;
+        copy.finalUpdateId = finalUpdateId;
+        copy.bidPrices = Arrays.copyOf(bidPrices, bidCount);
+        copy.bidQuantities = Arrays.copyOf(bidQuantities, bidCount);
+        copy.bidCount = bidCount;
+        copy.askPrices = Arrays.copyOf(askPrices, askCount);
+        copy.askQuantities = Arrays.copyOf(askQuantities, askCount);
+        copy.askCount = askCount;
+        return copy;
+    }
+}
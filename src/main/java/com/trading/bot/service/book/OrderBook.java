@@ -0,0 +1,211 @@
+package com.trading.bot.service.book;
+
+import com.trading.bot.domain.dto.OrderBookDto;
+
+import java.util.ArrayDeque;
+import java.util.Map;
+
+/**
+ * Local L2 book for one symbol, kept in step with Binance's diff stream
+ * using the documented update-id rules: diffs are buffered until a REST
+ * snapshot arrives, diffs already covered by the snapshot are dropped, and
+ * any later break in the {@code U == previous u + 1} chain drops the book
+ * back to buffering until a fresh snapshot is loaded.
+ * <p>
+ * One connection thread writes; queries take the same monitor, which is
+ * uncontended in practice.
+ */
+public final class OrderBook {
+
+    public enum Status {
+        /** Applied to a synced book. */
+        APPLIED,
+        /** Held until a snapshot is loaded. */
+        BUFFERED,
+        /** Already covered by the book; ignored. */
+        STALE,
+        /** Did not follow the previous update; the book needs a new snapshot. */
+        GAP
+    }
+
+    private enum State { UNSYNCED, AWAITING_SNAPSHOT, SYNCED }
+
+    static final int MAX_BUFFERED = 1000;
+
+    private final String symbol;
+    private final BookSide bids;
+    private final BookSide asks;
+    private final ArrayDeque<DepthUpdate> buffered = new ArrayDeque<>();
+
+    private State state = State.UNSYNCED;
+    private long lastUpdateId;
+    private long eventTime;
+
+    public OrderBook(String symbol, int maxLevels) {
+        this.symbol = symbol;
+        this.bids = new BookSide(true, maxLevels);
+        this.asks = new BookSide(false, maxLevels);
+    }
+
+    public String getSymbol() {
+        return symbol;
+    }
+
+    public synchronized boolean isSynced() {
+        return state == State.SYNCED;
+    }
+
+    public synchronized Status onDiff(DepthUpdate diff) {
+        if (state != State.SYNCED) {
+            buffer(diff);
+            return Status.BUFFERED;
+        }
+        if (diff.getFinalUpdateId() <= lastUpdateId) {
+            return Status.STALE;
+        }
+        if (diff.getFirstUpdateId() > lastUpdateId + 1) {
+            state = State.UNSYNCED;
+            buffered.clear();
+            buffer(diff);
+            return Status.GAP;
+        }
+        apply(diff);
+        return Status.APPLIED;
+    }
+
+    /**
+     * Claims the right to fetch a snapshot.
+     *
+     * @return {@code true} if the book is unsynced and no fetch is pending
+     */
+    public synchronized boolean requestSnapshot() {
+        if (state != State.UNSYNCED) {
+            return false;
+        }
+        state = State.AWAITING_SNAPSHOT;
+        return true;
+    }
+
+    /**
+     * Loads a snapshot and replays the buffered diffs on top of it.
+     *
+     * @return {@code false} if the snapshot is older than the buffered
+     * diffs or they do not chain; the book keeps waiting and the caller
+     * should fetch another snapshot
+     */
+    public synchronized boolean applySnapshot(DepthUpdate snapshot) {
+        if (state == State.SYNCED) {
+            return true;
+        }
+        long snapshotId = snapshot.getFinalUpdateId();
+        while (!buffered.isEmpty() && buffered.peekFirst().getFinalUpdateId() <= snapshotId) {
+            buffered.pollFirst();
+        }
+        if (!buffered.isEmpty() && buffered.peekFirst().getFirstUpdateId() > snapshotId + 1) {
+            state = State.AWAITING_SNAPSHOT;
+            return false;
+        }
+        bids.clear();
+        asks.clear();
+        apply(snapshot);
+        for (DepthUpdate diff = buffered.pollFirst(); diff != null; diff = buffered.pollFirst()) {
+            if (diff.getFirstUpdateId() > lastUpdateId + 1) {
+                buffered.clear();
+                bids.clear();
+                asks.clear();
+                state = State.AWAITING_SNAPSHOT;
+                return false;
+            }
+            apply(diff);
+        }
+        state = State.SYNCED;
+        return true;
+    }
+
+    /** Forgets the book, e.g. after the diff stream reconnects. */
+    public synchronized void reset() {
+        state = State.UNSYNCED;
+        buffered.clear();
+        bids.clear();
+        asks.clear();
+        lastUpdateId = 0;
+    }
+
+    /**
+     * @param depth           levels per side to include, 0 for top of book only
+     * @param imbalanceLevels levels per side summed for {@link OrderBookDto#getImbalance()}
+     * @return {@code null} until the book is synced and has both sides
+     */
+    public synchronized OrderBookDto view(int depth, int imbalanceLevels) {
+        if (state != State.SYNCED || bids.size() == 0 || asks.size() == 0) {
+            return null;
+        }
+        OrderBookDto dto = new OrderBookDto();
+        dto.setSymbol(symbol);
+        dto.setLastUpdateId(lastUpdateId);
+        dto.setEventTime(eventTime);
+        dto.setBestBid(bids.price(0));
+        dto.setBestBidQty(bids.quantity(0));
+        dto.setBestAsk(asks.price(0));
+        dto.setBestAskQty(asks.quantity(0));
+        dto.setSpread(asks.price(0) - bids.price(0));
+        dto.setMid((asks.price(0) + bids.price(0)) / 2);
+        dto.setImbalance(imbalance(imbalanceLevels));
+        dto.setBids(levels(bids, depth));
+        dto.setAsks(levels(asks, depth));
+        return dto;
+    }
+
+    /**
+     * Adds {@code book_imbalance} and {@code book_spread_bps} to
+     * {@code out}; does nothing while the book is not synced.
+     */
+    public synchronized void features(int imbalanceLevels, Map<String, Double> out) {
+        if (state != State.SYNCED || bids.size() == 0 || asks.size() == 0) {
+            return;
+        }
+        double mid = (asks.price(0) + bids.price(0)) / 2;
+        out.put("book_imbalance", imbalance(imbalanceLevels));
+        out.put("book_spread_bps", (asks.price(0) - bids.price(0)) / mid * 10_000);
+    }
+
+    private double imbalance(int levels) {
+        double bid = bids.sum(levels);
+        double ask = asks.sum(levels);
+        double total = bid + ask;
+        return total > 0 ? (bid - ask) / total : 0;
+    }
+
+    private void apply(DepthUpdate update) {
+        double[] prices = update.getBidPrices();
+        double[] quantities = update.getBidQuantities();
+        for (int i = 0, n = update.getBidCount(); i < n; i++) {
+            bids.update(prices[i], quantities[i]);
+        }
+        prices = update.getAskPrices();
+        quantities = update.getAskQuantities();
+        for (int i = 0, n = update.getAskCount(); i < n; i++) {
+            asks.update(prices[i], quantities[i]);
+        }
+        lastUpdateId = update.getFinalUpdateId();
+        if (update.getEventTime() > 0) {
+            eventTime = update.getEventTime();
+        }
+    }
+
+    private void buffer(DepthUpdate diff) {
+        if (buffered.size() == MAX_BUFFERED) {
+            buffered.pollFirst();
+        }
+        buffered.addLast(diff.copy());
+    }
+
+    private static double[][] levels(BookSide side, int depth) {
+        int n = Math.min(depth, side.size());
+        double[][] levels = new double[n][];
+        for (int i = 0; i < n; i++) {
+            levels[i] = new double[]{side.price(i), side.quantity(i)};
+        }
+        return levels;
+    }
+}
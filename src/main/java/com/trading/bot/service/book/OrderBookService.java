@@ -0,0 +1,53 @@
+package com.trading.bot.service.book;
+
+import com.trading.bot.config.DepthProperties;
+import com.trading.bot.domain.dto.MarketTickDto;
+import com.trading.bot.domain.dto.OrderBookDto;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+@Service
+@RequiredArgsConstructor
+public class OrderBookService {
+
+    private final DepthProperties depthProps;
+
+    private final Map<String, OrderBook> books = new ConcurrentHashMap<>();
+
+    public OrderBook book(String symbol) {
+        return books.computeIfAbsent(symbol.toUpperCase(Locale.ROOT),
+                key -> new OrderBook(key, depthProps.getMaxLevels()));
+    }
+
+    /**
+     * @return top of book, spread, mid, imbalance and {@code depth} levels
+     * per side, or {@code null} if the book is not synced
+     */
+    public OrderBookDto view(String symbol, Integer depth) {
+        OrderBook book = books.get(symbol.toUpperCase(Locale.ROOT));
+        if (book == null) {
+            return null;
+        }
+        int levels = depth != null ? depth : depthProps.getDefaultDepth();
+        return book.view(Math.max(0, Math.min(levels, depthProps.getMaxLevels())), depthProps.getImbalanceLevels());
+    }
+
+    public void attachFeatures(MarketTickDto tick) {
+        if (!depthProps.isEnabled() || !depthProps.isTickFeatures()) {
+            return;
+        }
+        OrderBook book = books.get(tick.getSymbol());
+        if (book == null) {
+            return;
+        }
+        if (tick.getIndicators() == null) {
+            tick.setIndicators(new LinkedHashMap<>());
+        }
+        book.features(depthProps.getImbalanceLevels(), tick.getIndicators());
+    }
+}
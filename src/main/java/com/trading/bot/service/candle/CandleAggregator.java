@@ -0,0 +1,113 @@
+package com.trading.bot.service.candle;
+
+import com.trading.bot.config.CandleProperties;
+import com.trading.bot.config.MarketProperties;
+import com.trading.bot.domain.dto.CandleDto;
+import com.trading.bot.domain.dto.MarketTickDto;
+import com.trading.bot.domain.dto.TickHistoryDto;
+import com.trading.bot.service.fanout.StompFanout;
+import com.trading.bot.service.history.TickRingBuffer;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Builds every configured timeframe from the source interval's klines.
+ * Closed bars are kept in per-timeframe ring buffers and published to
+ * {@code /topic/candles/{symbol}/{timeframe}}. Each symbol is only updated
+ * from its own lane.
+ */
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class CandleAggregator {
+
+    private static final TickRingBuffer EMPTY = new TickRingBuffer(1);
+
+    private final CandleProperties candleProps;
+    private final MarketProperties marketProps;
+    private final StompFanout stompFanout;
+
+    private final Map<String, SymbolCandles> candles = new ConcurrentHashMap<>();
+
+    public void onTick(MarketTickDto tick) {
+        if (!candleProps.isEnabled() || !sourceInterval().equals(tick.getInterval())) {
+            return;
+        }
+        SymbolCandles symbolCandles = candles.computeIfAbsent(tick.getSymbol(), this::newSymbolCandles);
+        for (int i = 0; i < symbolCandles.builders.length; i++) {
+            TickRingBuffer closed = symbolCandles.closed[i];
+            symbolCandles.builders[i].update(tick, bar -> publish(bar, closed));
+        }
+    }
+
+    public TickHistoryDto query(String symbol, String timeframe, Long from, Long to, Integer limit) {
+        String key = symbol.toUpperCase(Locale.ROOT);
+        TickHistoryDto result = new TickHistoryDto();
+        result.setSymbol(key);
+        result.setInterval(timeframe);
+        SymbolCandles symbolCandles = candles.get(key);
+        int index = symbolCandles != null ? symbolCandles.indexOf(timeframe) : -1;
+        TickRingBuffer buffer = index >= 0 ? symbolCandles.closed[index] : EMPTY;
+        return buffer.read(
+                from != null ? from : Long.MIN_VALUE,
+                to != null ? to : Long.MAX_VALUE,
+                limit != null ? limit : candleProps.getCapacity(),
+                result);
+    }
+
+    public List<CandleDto> currentBars(String symbol) {
+        List<CandleDto> result = new ArrayList<>();
+        SymbolCandles symbolCandles = candles.get(symbol.toUpperCase(Locale.ROOT));
+        if (symbolCandles == null) {
+            return result;
+        }
+        for (CandleBuilder builder : symbolCandles.builders) {
+            CandleDto bar = builder.current();
+            if (bar != null) {
+                result.add(bar);
+            }
+        }
+        return result;
+    }
+
+    private void publish(CandleDto bar, TickRingBuffer closed) {
+        closed.write(bar.getOpenTime(), bar.getOpen(), bar.getHigh(), bar.getLow(), bar.getClose(), bar.getVolume());
+        stompFanout.publish("/topic/candles/" + bar.getSymbol() + "/" + bar.getTimeframe(), null, bar);
+        log.debug("Closed {} {} bar at {}", bar.getSymbol(), bar.getTimeframe(), bar.getOpenTime());
+    }
+
+    private String sourceInterval() {
+        String source = candleProps.getSourceInterval();
+        return source != null ? source : marketProps.getDefaultInterval();
+    }
+
+    private SymbolCandles newSymbolCandles(String symbol) {
+        List<String> timeframes = candleProps.getTimeframes();
+        CandleBuilder[] builders = new CandleBuilder[timeframes.size()];
+        TickRingBuffer[] closed = new TickRingBuffer[timeframes.size()];
+        for (int i = 0; i < builders.length; i++) {
+            builders[i] = new CandleBuilder(symbol, timeframes.get(i));
+            closed[i] = new TickRingBuffer(Math.max(1, candleProps.getCapacity()));
+        }
+        return new SymbolCandles(builders, closed);
+    }
+
+    private record SymbolCandles(CandleBuilder[] builders, TickRingBuffer[] closed) {
+
+        int indexOf(String timeframe) {
+            for (int i = 0; i < builders.length; i++) {
+                if (builders[i].timeframe().equals(timeframe)) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+    }
+}
@@ -0,0 +1,121 @@
+package com.trading.bot.service.candle;
+
+import com.trading.bot.domain.dto.CandleDto;
+import com.trading.bot.domain.dto.MarketTickDto;
+
+import java.util.function.Consumer;
+
+/**
+ * Rolls source klines into one higher timeframe in O(1) per update. Final
+ * source bars are folded into the committed part of the bar; the latest
+ * non-final kline is kept separately and replaced on every update, so
+ * repeated updates of an open kline are never double counted.
+ */
+final class CandleBuilder {
+
+    private final String symbol;
+    private final String timeframe;
+
+    private long bucketStart = Long.MIN_VALUE;
+    private long bucketEnd = Long.MIN_VALUE;
+    private boolean committed;
+    private double open;
+    private double high;
+    private double low;
+    private double close;
+    private double volume;
+
+    private boolean provisional;
+    private double pOpen;
+    private double pHigh;
+    private double pLow;
+    private double pClose;
+    private double pVolume;
+
+    CandleBuilder(String symbol, String timeframe) {
+        this.symbol = symbol;
+        this.timeframe = timeframe;
+    }
+
+    String timeframe() {
+        return timeframe;
+    }
+
+    void update(MarketTickDto tick, Consumer<CandleDto> onClose) {
+        long bucket = tick.getOpenTime() >= bucketStart && tick.getOpenTime() < bucketEnd
+                ? bucketStart
+                : Intervals.bucketStart(timeframe, tick.getOpenTime());
+        if (bucket != bucketStart) {
+            if (bucket < bucketStart) {
+                return;
+            }
+            if (hasData()) {
+                onClose.accept(snapshot());
+            }
+            reset(bucket);
+        }
+
+        if (tick.isFinalBar()) {
+            fold(tick.getOpen(), tick.getHigh(), tick.getLow(), tick.getClose(), tick.getVolume());
+            provisional = false;
+            if (tick.getCloseTime() + 1 >= bucketEnd) {
+                onClose.accept(snapshot());
+                reset(bucketEnd);
+            }
+        } else {
+            provisional = true;
+            pOpen = tick.getOpen();
+            pHigh = tick.getHigh();
+            pLow = tick.getLow();
+            pClose = tick.getClose();
+            pVolume = tick.getVolume();
+        }
+    }
+
+    CandleDto current() {
+        return hasData() ? snapshot() : null;
+    }
+
+    private boolean hasData() {
+        return committed || provisional;
+    }
+
+    private void fold(double o, double h, double l, double c, double v) {
+        if (!committed) {
+            open = o;
+            high = h;
+            low = l;
+            volume = 0;
+            committed = true;
+        } else {
+            high = Math.max(high, h);
+            low = Math.min(low, l);
+        }
+        close = c;
+        volume += v;
+    }
+
+    private CandleDto snapshot() {
+        double o = committed ? open : pOpen;
+        double h = committed ? high : pHigh;
+        double l = committed ? low : pLow;
+        double c = committed ? close : pClose;
+        double v = committed ? volume : 0;
+        if (committed && provisional) {
+            h = Math.max(h, pHigh);
+            l = Math.min(l, pLow);
+            c = pClose;
+        }
+        if (provisional) {
+            v += pVolume;
+        }
+        return new CandleDto(symbol, timeframe, bucketStart, bucketEnd - 1, o, h, l, c, v);
+    }
+
+    private void reset(long bucket) {
+        bucketStart = bucket;
+        bucketEnd = Intervals.nextBucketStart(timeframe, bucket);
+        committed = false;
+        provisional = false;
+    }
+}
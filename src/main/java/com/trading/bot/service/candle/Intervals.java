@@ -0,0 +1,93 @@
+package com.trading.bot.service.candle;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+
+public final class Intervals {
+
+    private static final long DAY_MILLIS = 86_400_000L;
+    /** 1970-01-05, the first Monday after the epoch; Binance weeks start on Monday. */
+    private static final long FIRST_MONDAY_MILLIS = 4 * DAY_MILLIS;
+
+    private Intervals() {
+    }
+
+    /**
+     * Converts a Binance interval such as {@code 1s}, {@code 15m} or
+     * {@code 1d}, or a sub-second one such as {@code 250ms}, to
+     * milliseconds. Calendar months ({@code 1M}) have no fixed length and
+     * are rejected; use {@link #bucketStart} and {@link #nextBucketStart}.
+     */
+    public static long toMillis(String interval) {
+        if (interval == null || interval.length() < 2) {
+            throw new IllegalArgumentException("Invalid interval: " + interval);
+        }
+        if (interval.endsWith("ms") && interval.length() > 2) {
+            return amount(interval.substring(0, interval.length() - 1));
+        }
+        long amount = amount(interval);
+        return switch (interval.charAt(interval.length() - 1)) {
+            case 's' -> amount * 1_000L;
+            case 'm' -> amount * 60_000L;
+            case 'h' -> amount * 3_600_000L;
+            case 'd' -> amount * DAY_MILLIS;
+            case 'w' -> amount * 7 * DAY_MILLIS;
+            case 'M' -> throw new IllegalArgumentException("Interval has no fixed length: " + interval);
+            default -> throw new IllegalArgumentException("Invalid interval: " + interval);
+        };
+    }
+
+    /**
+     * Open time of the bar of {@code interval} that contains
+     * {@code timeMillis}, aligned as Binance aligns klines: weeks start on
+     * Monday and months on the first day of the month, both UTC.
+     */
+    public static long bucketStart(String interval, long timeMillis) {
+        if (isMonths(interval)) {
+            LocalDate date = Instant.ofEpochMilli(timeMillis).atZone(ZoneOffset.UTC).toLocalDate();
+            long months = (date.getYear() - 1970L) * 12 + date.getMonthValue() - 1;
+            long start = Math.floorDiv(months, amount(interval)) * amount(interval);
+            return LocalDate.of(1970, 1, 1).plusMonths(start).atStartOfDay(ZoneOffset.UTC).toInstant().toEpochMilli();
+        }
+        long millis = toMillis(interval);
+        long origin = interval.endsWith("w") ? FIRST_MONDAY_MILLIS : 0;
+        return Math.floorDiv(timeMillis - origin, millis) * millis + origin;
+    }
+
+    /**
+     * Open time of the bar following the one that opens at
+     * {@code bucketStart}.
+     */
+    public static long nextBucketStart(String interval, long bucketStart) {
+        if (isMonths(interval)) {
+            return Instant.ofEpochMilli(bucketStart).atZone(ZoneOffset.UTC).plusMonths(amount(interval))
+                    .toInstant().toEpochMilli();
+        }
+        return bucketStart + toMillis(interval);
+    }
+
+    /**
+     * @throws IllegalArgumentException if {@code interval} is not a
+     *                                  supported interval
+     */
+    public static void validate(String interval) {
+        nextBucketStart(interval, bucketStart(interval, 0));
+    }
+
+    private static boolean isMonths(String interval) {
+        return interval != null && interval.length() >= 2 && interval.charAt(interval.length() - 1) == 'M';
+    }
+
+    private static long amount(String interval) {
+        try {
+            long amount = Long.parseLong(interval.substring(0, interval.length() - 1));
+            if (amount > 0) {
+                return amount;
+            }
+        } catch (NumberFormatException ignored) {
+            // reported below
+        }
+        throw new IllegalArgumentException("Invalid interval: " + interval);
+    }
+}
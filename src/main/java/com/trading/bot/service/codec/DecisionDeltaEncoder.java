@@ -0,0 +1,60 @@
+package com.trading.bot.service.codec;
+
+import tools.jackson.databind.JsonNode;
+import tools.jackson.databind.ObjectMapper;
+import tools.jackson.databind.json.JsonMapper;
+import tools.jackson.databind.node.ObjectNode;
+
+import java.time.ZoneId;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Turns consecutive decisions of a symbol into field-level deltas: each
+ * message carries {@code symbol}, a per-symbol {@code seq}, whether it is a
+ * {@code keyframe}, and under {@code fields} only what changed since the
+ * previous decision (a field that became null is sent as null). Every
+ * {@code keyframeInterval}-th message is a keyframe holding all fields, so
+ * a late subscriber, or one that sees a gap in {@code seq}, resynchronizes
+ * on the next keyframe. Times are epoch milliseconds in every encoding.
+ */
+public class DecisionDeltaEncoder {
+
+    private final ObjectMapper objectMapper;
+    private final int keyframeInterval;
+    private final Map<String, State> states = new ConcurrentHashMap<>();
+
+    public DecisionDeltaEncoder(int keyframeInterval) {
+        this.objectMapper = JsonMapper.builder()
+                .addModule(PayloadCodecs.epochMillisModule(ZoneId.systemDefault()))
+                .build();
+        this.keyframeInterval = Math.max(1, keyframeInterval);
+    }
+
+    public ObjectNode next(String symbol, Object decision) {
+        ObjectNode current = objectMapper.valueToTree(decision);
+        State state = states.computeIfAbsent(symbol, s -> new State());
+        synchronized (state) {
+            long seq = ++state.seq;
+            boolean keyframe = state.previous == null || (seq - 1) % keyframeInterval == 0;
+            ObjectNode delta = objectMapper.createObjectNode();
+            delta.put("symbol", symbol);
+            delta.put("seq", seq);
+            delta.put("keyframe", keyframe);
+            ObjectNode fields = delta.putObject("fields");
+            for (Map.Entry<String, JsonNode> field : current.properties()) {
+                JsonNode before = keyframe ? null : state.previous.get(field.getKey());
+                if (keyframe || before == null || !before.equals(field.getValue())) {
+                    fields.set(field.getKey(), field.getValue());
+                }
+            }
+            state.previous = current;
+            return delta;
+        }
+    }
+
+    private static final class State {
+        private long seq;
+        private ObjectNode previous;
+    }
+}
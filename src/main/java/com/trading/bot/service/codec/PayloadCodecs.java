@@ -0,0 +1,86 @@
+package com.trading.bot.service.codec;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import org.springframework.stereotype.Component;
+import tools.jackson.core.JsonGenerator;
+import tools.jackson.core.JsonParser;
+import tools.jackson.core.JsonToken;
+import tools.jackson.databind.DeserializationContext;
+import tools.jackson.databind.ObjectMapper;
+import tools.jackson.databind.SerializationContext;
+import tools.jackson.databind.ValueDeserializer;
+import tools.jackson.databind.ValueSerializer;
+import tools.jackson.databind.module.SimpleModule;
+import tools.jackson.dataformat.cbor.CBORMapper;
+import tools.jackson.dataformat.smile.SmileMapper;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+
+/**
+ * Mappers for every {@link PayloadEncoding}. JSON uses the application's
+ * mapper unchanged; CBOR and Smile write {@link LocalDateTime} as epoch
+ * milliseconds in the zone the exchange decoder stamps ticks with, and skip
+ * nulls, which covers most of the optional decision fields.
+ */
+@Component
+public class PayloadCodecs {
+
+    private final ObjectMapper json;
+    private final CBORMapper cbor;
+    private final SmileMapper smile;
+
+    public PayloadCodecs(ObjectMapper objectMapper) {
+        this.json = objectMapper;
+        this.cbor = CBORMapper.builder()
+                .addModule(epochMillisModule(ZoneId.systemDefault()))
+                .changeDefaultPropertyInclusion(inclusion -> inclusion.withValueInclusion(JsonInclude.Include.NON_NULL))
+                .build();
+        this.smile = SmileMapper.builder()
+                .addModule(epochMillisModule(ZoneId.systemDefault()))
+                .changeDefaultPropertyInclusion(inclusion -> inclusion.withValueInclusion(JsonInclude.Include.NON_NULL))
+                .build();
+    }
+
+    public ObjectMapper mapper(PayloadEncoding encoding) {
+        return switch (encoding) {
+            case JSON -> json;
+            case CBOR -> cbor;
+            case SMILE -> smile;
+        };
+    }
+
+    public CBORMapper cbor() {
+        return cbor;
+    }
+
+    public SmileMapper smile() {
+        return smile;
+    }
+
+    public byte[] encode(PayloadEncoding encoding, Object payload) {
+        return mapper(encoding).writeValueAsBytes(payload);
+    }
+
+    /** Epoch millis out; epoch millis or ISO-8601 in, so peers still sending strings keep working. */
+    static SimpleModule epochMillisModule(ZoneId zone) {
+        SimpleModule module = new SimpleModule("epoch-millis-time");
+        module.addSerializer(LocalDateTime.class, new ValueSerializer<>() {
+            @Override
+            public void serialize(LocalDateTime value, JsonGenerator gen, SerializationContext ctxt) {
+                gen.writeNumber(value.atZone(zone).toInstant().toEpochMilli());
+            }
+        });
+        module.addDeserializer(LocalDateTime.class, new ValueDeserializer<>() {
+            @Override
+            public LocalDateTime deserialize(JsonParser p, DeserializationContext ctxt) {
+                if (p.currentToken() == JsonToken.VALUE_NUMBER_INT) {
+                    return LocalDateTime.ofInstant(Instant.ofEpochMilli(p.getLongValue()), zone);
+                }
+                return LocalDateTime.parse(p.getString());
+            }
+        });
+        return module;
+    }
+}
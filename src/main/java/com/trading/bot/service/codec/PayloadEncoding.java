@@ -0,0 +1,30 @@
+package com.trading.bot.service.codec;
+
+import org.springframework.http.MediaType;
+
+import java.util.Locale;
+
+/**
+ * Wire formats for UI topics and agent calls. JSON is the default; the
+ * binary ones write times as epoch milliseconds and leave out null fields.
+ */
+public enum PayloadEncoding {
+    JSON(MediaType.APPLICATION_JSON),
+    CBOR(MediaType.APPLICATION_CBOR),
+    SMILE(new MediaType("application", "x-jackson-smile"));
+
+    private final MediaType mediaType;
+
+    PayloadEncoding(MediaType mediaType) {
+        this.mediaType = mediaType;
+    }
+
+    public MediaType mediaType() {
+        return mediaType;
+    }
+
+    /** Destination segment of the encoded STOMP topics, e.g. {@code /topic/cbor/market}. */
+    public String segment() {
+        return name().toLowerCase(Locale.ROOT);
+    }
+}
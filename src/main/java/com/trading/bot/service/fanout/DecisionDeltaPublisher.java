@@ -0,0 +1,31 @@
+package com.trading.bot.service.fanout;
+
+import com.trading.bot.config.WebSocketProperties;
+import com.trading.bot.domain.dto.AgentDecisionDto;
+import com.trading.bot.service.codec.DecisionDeltaEncoder;
+import org.springframework.stereotype.Service;
+
+/**
+ * Publishes {@link DecisionDeltaEncoder} deltas on
+ * {@value #DESTINATION} when {@code websocket.decision-deltas.enabled}.
+ */
+@Service
+public class DecisionDeltaPublisher {
+
+    public static final String DESTINATION = "/topic/agent/decision/delta";
+
+    private final StompFanout stompFanout;
+    private final DecisionDeltaEncoder encoder;
+
+    public DecisionDeltaPublisher(StompFanout stompFanout, WebSocketProperties webSocketProps) {
+        this.stompFanout = stompFanout;
+        WebSocketProperties.DecisionDeltas deltas = webSocketProps.getDecisionDeltas();
+        this.encoder = deltas.isEnabled() ? new DecisionDeltaEncoder(deltas.getKeyframeInterval()) : null;
+    }
+
+    public void publish(String symbol, AgentDecisionDto decision) {
+        if (encoder != null) {
+            stompFanout.publishUnthrottled(DESTINATION, encoder.next(symbol, decision));
+        }
+    }
+}
@@ -0,0 +1,213 @@
+package com.trading.bot.service.fanout;
+
+import com.trading.bot.config.WebSocketProperties;
+import com.trading.bot.service.codec.PayloadCodecs;
+import com.trading.bot.service.codec.PayloadEncoding;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.stereotype.Service;
+import org.springframework.util.MimeTypeUtils;
+
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Publishes to STOMP topics, serializing each payload once and sharing the
+ * bytes between the realtime topic and every throttle tier. Subscribers
+ * choose their rate by destination: {@code /topic/market} gets every
+ * update, {@code /topic/throttled/1000/market} at most one per second per
+ * key, always the latest.
+ * <p>
+ * Encodings listed in {@code websocket.encodings} are published alongside
+ * JSON under {@code /topic/{encoding}/...} (and
+ * {@code /topic/throttled/{ms}/{encoding}/...}) as binary STOMP frames,
+ * which reach clients of the native {@code /ws-market-native} endpoint;
+ * SockJS can only carry text.
+ */
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class StompFanout {
+
+    public static final String THROTTLED_PREFIX = "/topic/throttled/";
+    /** STOMP header naming the encoding of a binary payload. */
+    public static final String ENCODING_HEADER = "payload-encoding";
+
+    private final SimpMessagingTemplate messagingTemplate;
+    private final PayloadCodecs payloadCodecs;
+    private final WebSocketProperties webSocketProps;
+
+    private final List<Tier> tiers = new ArrayList<>();
+    private final List<PayloadEncoding> encodings = new ArrayList<>();
+    private ScheduledExecutorService flusher;
+
+    @PostConstruct
+    public void start() {
+        EnumSet<PayloadEncoding> extra = EnumSet.noneOf(PayloadEncoding.class);
+        extra.addAll(webSocketProps.getEncodings());
+        extra.remove(PayloadEncoding.JSON);
+        encodings.addAll(extra);
+        if (!encodings.isEmpty()) {
+            log.info("STOMP topics also published as {}", encodings);
+        }
+        for (Long periodMs : webSocketProps.getThrottleTiersMs()) {
+            if (periodMs != null && periodMs > 0) {
+                tiers.add(new Tier(periodMs));
+            }
+        }
+        if (tiers.isEmpty()) {
+            return;
+        }
+        flusher = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "stomp-throttle");
+            thread.setDaemon(true);
+            return thread;
+        });
+        for (Tier tier : tiers) {
+            flusher.scheduleAtFixedRate(tier::flush, tier.periodMs, tier.periodMs, TimeUnit.MILLISECONDS);
+        }
+        log.info("STOMP throttle tiers: {} ms", webSocketProps.getThrottleTiersMs());
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (flusher != null) {
+            flusher.shutdownNow();
+        }
+    }
+
+    /** Flushes every throttle tier now, outside its schedule. */
+    void flush() {
+        tiers.forEach(Tier::flush);
+    }
+
+    /**
+     * @param key distinguishes independent streams sharing a destination,
+     *            such as symbols on {@code /topic/market}; only the latest
+     *            payload per key survives in a throttle tier
+     * @return the serialized JSON payload, for reuse by other transports,
+     * or {@code null} if it could not be serialized
+     */
+    public byte[] publish(String destination, String key, Object payload) {
+        return publish(destination, key, payload, true);
+    }
+
+    /** For streams that must not be conflated, such as deltas; no throttle tiers. */
+    public void publishUnthrottled(String destination, Object payload) {
+        publish(destination, null, payload, false);
+    }
+
+    private byte[] publish(String destination, String key, Object payload, boolean throttled) {
+        byte[] json = encode(destination, PayloadEncoding.JSON, payload);
+        if (json == null) {
+            return null;
+        }
+        deliver(destination, key, PayloadEncoding.JSON, json, throttled);
+        for (PayloadEncoding encoding : encodings) {
+            byte[] bytes = encode(destination, encoding, payload);
+            if (bytes != null) {
+                deliver(encodedDestination(destination, encoding), key, encoding, bytes, throttled);
+            }
+        }
+        return json;
+    }
+
+    private byte[] encode(String destination, PayloadEncoding encoding, Object payload) {
+        try {
+            return payloadCodecs.encode(encoding, payload);
+        } catch (Exception e) {
+            log.error("Failed to serialize {} payload for {}", encoding, destination, e);
+            return null;
+        }
+    }
+
+    private void deliver(String destination, String key, PayloadEncoding encoding, byte[] bytes, boolean throttled) {
+        send(destination, encoding, bytes);
+        if (throttled) {
+            for (Tier tier : tiers) {
+                tier.offer(destination, key != null ? key : "", encoding, bytes);
+            }
+        }
+    }
+
+    private void send(String destination, PayloadEncoding encoding, byte[] bytes) {
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.create(SimpMessageType.MESSAGE);
+        if (encoding == PayloadEncoding.JSON) {
+            accessor.setContentType(MimeTypeUtils.APPLICATION_JSON);
+        } else {
+            // only octet-stream payloads leave the STOMP handler as binary WebSocket frames
+            accessor.setContentType(MimeTypeUtils.APPLICATION_OCTET_STREAM);
+            accessor.setNativeHeader(ENCODING_HEADER, encoding.segment());
+        }
+        accessor.setLeaveMutable(true);
+        Message<byte[]> message = MessageBuilder.createMessage(bytes, accessor.getMessageHeaders());
+        try {
+            messagingTemplate.send(destination, message);
+        } catch (Exception e) {
+            log.warn("Failed to publish to {}", destination, e);
+        }
+    }
+
+    private static String encodedDestination(String destination, PayloadEncoding encoding) {
+        return destination.startsWith("/topic/")
+                ? "/topic/" + encoding.segment() + destination.substring("/topic".length())
+                : "/" + encoding.segment() + destination;
+    }
+
+    private final class Tier {
+        private final long periodMs;
+        private final String prefix;
+        private final Map<String, Map<String, Slot>> slots = new ConcurrentHashMap<>();
+
+        private Tier(long periodMs) {
+            this.periodMs = periodMs;
+            this.prefix = THROTTLED_PREFIX + periodMs;
+        }
+
+        private void offer(String destination, String key, PayloadEncoding encoding, byte[] bytes) {
+            slots.computeIfAbsent(destination, d -> new ConcurrentHashMap<>())
+                    .computeIfAbsent(key, k -> new Slot(throttledDestination(destination), encoding))
+                    .latest.set(bytes);
+        }
+
+        private void flush() {
+            slots.values().forEach(byKey -> byKey.values().forEach(slot -> {
+                byte[] bytes = slot.latest.getAndSet(null);
+                if (bytes != null) {
+                    send(slot.destination, slot.encoding, bytes);
+                }
+            }));
+        }
+
+        private String throttledDestination(String destination) {
+            return prefix + (destination.startsWith("/topic/")
+                    ? destination.substring("/topic".length())
+                    : "/" + destination);
+        }
+    }
+
+    private static final class Slot {
+        private final String destination;
+        private final PayloadEncoding encoding;
+        private final AtomicReference<byte[]> latest = new AtomicReference<>();
+
+        private Slot(String destination, PayloadEncoding encoding) {
+            this.destination = destination;
+            this.encoding = encoding;
+        }
+    }
+}
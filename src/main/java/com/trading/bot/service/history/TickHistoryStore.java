@@ -0,0 +1,45 @@
+package com.trading.bot.service.history;
+
+import com.trading.bot.config.HistoryProperties;
+import com.trading.bot.domain.dto.MarketTickDto;
+import com.trading.bot.domain.dto.TickHistoryDto;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+@Service
+@RequiredArgsConstructor
+public class TickHistoryStore {
+
+    private static final TickRingBuffer EMPTY = new TickRingBuffer(1);
+
+    private final HistoryProperties historyProps;
+
+    private final Map<String, TickRingBuffer> buffers = new ConcurrentHashMap<>();
+
+    public void record(MarketTickDto tick) {
+        buffers.computeIfAbsent(key(tick.getSymbol(), tick.getInterval()),
+                        k -> new TickRingBuffer(Math.max(1, historyProps.getCapacity())))
+                .write(tick.getOpenTime(), tick.getOpen(), tick.getHigh(), tick.getLow(),
+                        tick.getClose(), tick.getVolume());
+    }
+
+    public TickHistoryDto query(String symbol, String interval, Long from, Long to, Integer limit) {
+        TickHistoryDto result = new TickHistoryDto();
+        result.setSymbol(symbol.toUpperCase(Locale.ROOT));
+        result.setInterval(interval);
+        TickRingBuffer buffer = buffers.getOrDefault(key(symbol, interval), EMPTY);
+        return buffer.read(
+                from != null ? from : Long.MIN_VALUE,
+                to != null ? to : Long.MAX_VALUE,
+                limit != null ? limit : historyProps.getDefaultLimit(),
+                result);
+    }
+
+    private static String key(String symbol, String interval) {
+        return symbol.toUpperCase(Locale.ROOT) + "@" + interval;
+    }
+}
@@ -0,0 +1,141 @@
+package com.trading.bot.service.history;
+
+import com.trading.bot.domain.dto.TickHistoryDto;
+
+import java.util.concurrent.locks.StampedLock;
+
+/**
+ * Fixed-capacity OHLCV history stored as one primitive array per column.
+ * There must be a single writer; readers use optimistic stamps and only
+ * fall back to a read lock when they race with a write.
+ * <p>
+ * A write with the same open time as the newest row updates that row in
+ * place, so repeated updates of an open kline keep one row per bar.
+ */
+public class TickRingBuffer {
+
+    private final int capacity;
+    private final long[] openTime;
+    private final double[] open;
+    private final double[] high;
+    private final double[] low;
+    private final double[] close;
+    private final double[] volume;
+    private final StampedLock lock = new StampedLock();
+
+    private long written;
+
+    public TickRingBuffer(int capacity) {
+        this.capacity = capacity;
+        this.openTime = new long[capacity];
+        this.open = new double[capacity];
+        this.high = new double[capacity];
+        this.low = new double[capacity];
+        this.close = new double[capacity];
+        this.volume = new double[capacity];
+    }
+
+    public void write(long time, double o, double h, double l, double c, double v) {
+        long stamp = lock.writeLock();
+        try {
+            int slot;
+            if (written > 0 && openTime[slot(written - 1)] == time) {
+                slot = slot(written - 1);
+            } else {
+                slot = slot(written);
+                written++;
+            }
+            openTime[slot] = time;
+            open[slot] = o;
+            high[slot] = h;
+            low[slot] = l;
+            close[slot] = c;
+            volume[slot] = v;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    public int size() {
+        long stamp = lock.tryOptimisticRead();
+        long count = written;
+        if (!lock.validate(stamp)) {
+            stamp = lock.readLock();
+            try {
+                count = written;
+            } finally {
+                lock.unlockRead(stamp);
+            }
+        }
+        return (int) Math.min(count, capacity);
+    }
+
+    /**
+     * Copies the newest {@code limit} rows whose open time lies in
+     * {@code [from, to]} into {@code out}.
+     */
+    public TickHistoryDto read(long from, long to, int limit, TickHistoryDto out) {
+        long stamp = lock.tryOptimisticRead();
+        if (stamp != 0) {
+            readInto(from, to, limit, out);
+            if (lock.validate(stamp)) {
+                return out;
+            }
+        }
+        stamp = lock.readLock();
+        try {
+            readInto(from, to, limit, out);
+            return out;
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    private void readInto(long from, long to, int limit, TickHistoryDto out) {
+        long end = written;
+        long start = Math.max(0, end - capacity);
+        long lo = lowerBound(start, end, from);
+        long hi = lowerBound(lo, end, to == Long.MAX_VALUE ? to : to + 1);
+        lo = Math.max(lo, hi - Math.max(0, limit));
+
+        int count = (int) Math.max(0, hi - lo);
+        long[] times = new long[count];
+        double[] o = new double[count];
+        double[] h = new double[count];
+        double[] l = new double[count];
+        double[] c = new double[count];
+        double[] v = new double[count];
+        for (int i = 0; i < count; i++) {
+            int slot = slot(lo + i);
+            times[i] = openTime[slot];
+            o[i] = open[slot];
+            h[i] = high[slot];
+            l[i] = low[slot];
+            c[i] = close[slot];
+            v[i] = volume[slot];
+        }
+        out.setCount(count);
+        out.setOpenTime(times);
+        out.setOpen(o);
+        out.setHigh(h);
+        out.setLow(l);
+        out.setClose(c);
+        out.setVolume(v);
+    }
+
+    private long lowerBound(long lo, long hi, long time) {
+        while (lo < hi) {
+            long mid = (lo + hi) >>> 1;
+            if (openTime[slot(mid)] < time) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+
+    private int slot(long index) {
+        return (int) (index % capacity);
+    }
+}
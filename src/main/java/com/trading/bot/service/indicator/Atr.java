@@ -0,0 +1,47 @@
+package com.trading.bot.service.indicator;
+
+import com.trading.bot.domain.dto.MarketTickDto;
+
+import java.util.Map;
+
+/**
+ * Average true range with Wilder smoothing.
+ */
+final class Atr implements Indicator {
+
+    private final int period;
+    private final String key;
+
+    private boolean hasPrevious;
+    private double previousClose;
+    private int count;
+    private double atr;
+
+    Atr(int period) {
+        this.period = period;
+        this.key = "atr_" + period;
+    }
+
+    @Override
+    public void update(MarketTickDto tick, boolean commit, Map<String, Double> out) {
+        double range = tick.getHigh() - tick.getLow();
+        double trueRange = hasPrevious
+                ? Math.max(range, Math.max(Math.abs(tick.getHigh() - previousClose), Math.abs(tick.getLow() - previousClose)))
+                : range;
+
+        double value = count < period
+                ? (atr * count + trueRange) / (count + 1)
+                : (atr * (period - 1) + trueRange) / period;
+        if (commit) {
+            atr = value;
+            previousClose = tick.getClose();
+            hasPrevious = true;
+            if (count < period) {
+                count++;
+            }
+        }
+        if (count + (commit ? 0 : 1) >= period) {
+            out.put(key, value);
+        }
+    }
+}
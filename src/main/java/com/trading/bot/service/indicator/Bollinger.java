@@ -0,0 +1,68 @@
+package com.trading.bot.service.indicator;
+
+import com.trading.bot.domain.dto.MarketTickDto;
+
+import java.util.Map;
+
+/**
+ * Bollinger bands over a fixed window of closes. Running sums are rebuilt
+ * from the window each time it wraps to keep floating-point drift bounded.
+ */
+final class Bollinger implements Indicator {
+
+    private final int period;
+    private final double width;
+    private final double[] window;
+    private final String midKey;
+    private final String upperKey;
+    private final String lowerKey;
+
+    private int count;
+    private int next;
+    private double sum;
+    private double sumSquares;
+
+    Bollinger(int period, double width) {
+        this.period = period;
+        this.width = width;
+        this.window = new double[period];
+        this.midKey = "bb_mid_" + period;
+        this.upperKey = "bb_upper_" + period;
+        this.lowerKey = "bb_lower_" + period;
+    }
+
+    @Override
+    public void update(MarketTickDto tick, boolean commit, Map<String, Double> out) {
+        double close = tick.getClose();
+        double evicted = count == period ? window[next] : 0;
+        double s = sum - evicted + close;
+        double sq = sumSquares - evicted * evicted + close * close;
+        int n = Math.min(count + 1, period);
+
+        if (commit) {
+            window[next] = close;
+            next = (next + 1) % period;
+            if (count < period) {
+                count++;
+            }
+            if (next == 0) {
+                s = 0;
+                sq = 0;
+                for (double v : window) {
+                    s += v;
+                    sq += v * v;
+                }
+            }
+            sum = s;
+            sumSquares = sq;
+        }
+        if (n < period) {
+            return;
+        }
+        double mean = s / n;
+        double std = Math.sqrt(Math.max(0, sq / n - mean * mean));
+        out.put(midKey, mean);
+        out.put(upperKey, mean + width * std);
+        out.put(lowerKey, mean - width * std);
+    }
+}
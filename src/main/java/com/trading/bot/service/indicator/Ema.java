@@ -0,0 +1,49 @@
+package com.trading.bot.service.indicator;
+
+import com.trading.bot.domain.dto.MarketTickDto;
+
+import java.util.Map;
+
+/**
+ * Exponential moving average of the close, seeded with the simple average
+ * of the first {@code period} bars.
+ */
+final class Ema implements Indicator {
+
+    private final int period;
+    private final double alpha;
+    private final String key;
+
+    private int count;
+    private double sum;
+    private double ema;
+
+    Ema(int period) {
+        this.period = period;
+        this.alpha = 2.0 / (period + 1);
+        this.key = "ema_" + period;
+    }
+
+    @Override
+    public void update(MarketTickDto tick, boolean commit, Map<String, Double> out) {
+        double close = tick.getClose();
+        double value;
+        if (count < period) {
+            value = (sum + close) / (count + 1);
+            if (commit) {
+                sum += close;
+                count++;
+                ema = value;
+            }
+            if (count + (commit ? 0 : 1) < period) {
+                return;
+            }
+        } else {
+            value = ema + alpha * (close - ema);
+            if (commit) {
+                ema = value;
+            }
+        }
+        out.put(key, value);
+    }
+}
@@ -0,0 +1,15 @@
+package com.trading.bot.service.indicator;
+
+import com.trading.bot.domain.dto.MarketTickDto;
+
+import java.util.Map;
+
+/**
+ * Streaming indicator with constant memory. State only advances when
+ * {@code commit} is true (a final bar); other updates produce a provisional
+ * value for the still-open bar.
+ */
+interface Indicator {
+
+    void update(MarketTickDto tick, boolean commit, Map<String, Double> out);
+}
@@ -0,0 +1,62 @@
+package com.trading.bot.service.indicator;
+
+import com.trading.bot.config.IndicatorProperties;
+import com.trading.bot.domain.dto.MarketTickDto;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Keeps one set of streaming indicators per symbol and interval and
+ * attaches their current values to each tick. Called from the symbol's
+ * lane only.
+ */
+@Service
+@RequiredArgsConstructor
+public class IndicatorEngine {
+
+    private final IndicatorProperties indicatorProps;
+
+    private final Map<String, Indicator[]> indicators = new ConcurrentHashMap<>();
+
+    public void onTick(MarketTickDto tick) {
+        if (!indicatorProps.isEnabled()) {
+            return;
+        }
+        Indicator[] set = indicators.computeIfAbsent(tick.getSymbol() + "@" + tick.getInterval(), k -> newSet());
+        Map<String, Double> values = new LinkedHashMap<>();
+        for (Indicator indicator : set) {
+            indicator.update(tick, tick.isFinalBar(), values);
+        }
+        if (tick.getIndicators() != null) {
+            tick.getIndicators().putAll(values);
+        } else {
+            tick.setIndicators(values);
+        }
+    }
+
+    private Indicator[] newSet() {
+        List<Indicator> set = new ArrayList<>();
+        for (Integer period : indicatorProps.getEmaPeriods()) {
+            set.add(new Ema(period));
+        }
+        if (indicatorProps.getRsiPeriod() > 0) {
+            set.add(new Rsi(indicatorProps.getRsiPeriod()));
+        }
+        if (indicatorProps.getAtrPeriod() > 0) {
+            set.add(new Atr(indicatorProps.getAtrPeriod()));
+        }
+        if (indicatorProps.getBollingerPeriod() > 0) {
+            set.add(new Bollinger(indicatorProps.getBollingerPeriod(), indicatorProps.getBollingerStdDev()));
+        }
+        if (indicatorProps.isVwap()) {
+            set.add(new Vwap());
+        }
+        return set.toArray(new Indicator[0]);
+    }
+}
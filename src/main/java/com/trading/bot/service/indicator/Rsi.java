@@ -0,0 +1,61 @@
+package com.trading.bot.service.indicator;
+
+import com.trading.bot.domain.dto.MarketTickDto;
+
+import java.util.Map;
+
+/**
+ * Relative strength index with Wilder smoothing.
+ */
+final class Rsi implements Indicator {
+
+    private final int period;
+    private final String key;
+
+    private boolean hasPrevious;
+    private double previousClose;
+    private int count;
+    private double avgGain;
+    private double avgLoss;
+
+    Rsi(int period) {
+        this.period = period;
+        this.key = "rsi_" + period;
+    }
+
+    @Override
+    public void update(MarketTickDto tick, boolean commit, Map<String, Double> out) {
+        double close = tick.getClose();
+        if (!hasPrevious) {
+            if (commit) {
+                previousClose = close;
+                hasPrevious = true;
+            }
+            return;
+        }
+        double change = close - previousClose;
+        double gain = Math.max(change, 0);
+        double loss = Math.max(-change, 0);
+
+        double g;
+        double l;
+        if (count < period) {
+            g = (avgGain * count + gain) / (count + 1);
+            l = (avgLoss * count + loss) / (count + 1);
+        } else {
+            g = (avgGain * (period - 1) + gain) / period;
+            l = (avgLoss * (period - 1) + loss) / period;
+        }
+        if (commit) {
+            avgGain = g;
+            avgLoss = l;
+            previousClose = close;
+            if (count < period) {
+                count++;
+            }
+        }
+        if (count + (commit ? 0 : 1) >= period) {
+            out.put(key, l == 0 ? 100.0 : 100.0 - 100.0 / (1.0 + g / l));
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package com.trading.bot.service.indicator;
+
+import com.trading.bot.domain.dto.MarketTickDto;
+
+import java.util.Map;
+
+/**
+ * Session VWAP of the typical price, reset at every UTC day boundary.
+ */
+final class Vwap implements Indicator {
+
+    private static final long DAY_MILLIS = 86_400_000L;
+
+    private long session = Long.MIN_VALUE;
+    private double priceVolume;
+    private double volume;
+
+    @Override
+    public void update(MarketTickDto tick, boolean commit, Map<String, Double> out) {
+        long day = Math.floorDiv(tick.getOpenTime(), DAY_MILLIS);
+        if (day != session) {
+            session = day;
+            priceVolume = 0;
+            volume = 0;
+        }
+        double typical = (tick.getHigh() + tick.getLow() + tick.getClose()) / 3.0;
+        double pv = priceVolume + typical * tick.getVolume();
+        double v = volume + tick.getVolume();
+        if (commit) {
+            priceVolume = pv;
+            volume = v;
+        }
+        if (v > 0) {
+            out.put("vwap", pv / v);
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package com.trading.bot.service.journal;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Append-only name table that maps symbols and intervals to the small ids
+ * stored in journal records; one name per line, id = line number.
+ */
+final class JournalDictionary {
+
+    private final Path file;
+    private final Map<String, Integer> ids = new ConcurrentHashMap<>();
+    private final List<String> names = new CopyOnWriteArrayList<>();
+
+    JournalDictionary(Path file) throws IOException {
+        this.file = file;
+        if (Files.exists(file)) {
+            for (String name : Files.readAllLines(file, StandardCharsets.UTF_8)) {
+                ids.put(name, names.size());
+                names.add(name);
+            }
+        }
+    }
+
+    int idOf(String name) {
+        Integer id = ids.get(name);
+        return id != null ? id : register(name);
+    }
+
+    String nameOf(int id) {
+        return id >= 0 && id < names.size() ? names.get(id) : null;
+    }
+
+    void reload() throws IOException {
+        if (!Files.exists(file)) {
+            return;
+        }
+        List<String> lines = Files.readAllLines(file, StandardCharsets.UTF_8);
+        for (int i = names.size(); i < lines.size(); i++) {
+            ids.put(lines.get(i), names.size());
+            names.add(lines.get(i));
+        }
+    }
+
+    private synchronized int register(String name) {
+        Integer existing = ids.get(name);
+        if (existing != null) {
+            return existing;
+        }
+        try {
+            Files.writeString(file, name + "\n", StandardCharsets.UTF_8,
+                    StandardOpenOption.CREATE, StandardOpenOption.APPEND, StandardOpenOption.SYNC);
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed to extend journal dictionary " + file, e);
+        }
+        int id = names.size();
+        names.add(name);
+        ids.put(name, id);
+        return id;
+    }
+}
@@ -0,0 +1,212 @@
+package com.trading.bot.service.journal;
+
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Reads a tick journal, possibly while it is being written, from this or
+ * another process. Not thread-safe; create one reader per consumer.
+ */
+@Slf4j
+public class JournalReader {
+
+    private final Path dir;
+    private final JournalDictionary dictionary;
+    private final JournalRecord record = new JournalRecord();
+
+    private List<Long> firstSeqs = new ArrayList<>();
+    private List<Path> paths = new ArrayList<>();
+    private JournalSegment current;
+
+    JournalReader(Path dir, JournalDictionary dictionary) throws IOException {
+        this.dir = dir;
+        this.dictionary = dictionary;
+        refresh();
+    }
+
+    /**
+     * Finds the first record received at or after {@code timeMillis}.
+     *
+     * @return its sequence number, or the next sequence to be written if
+     * there is none yet
+     */
+    public long seekByTime(long timeMillis) throws IOException {
+        refresh();
+        int index = 0;
+        for (int i = 0; i < paths.size(); i++) {
+            JournalSegment segment = segmentAt(i);
+            if (segment.committedCount() > 0 && segment.receivedAt(0) <= timeMillis) {
+                index = i;
+            }
+        }
+        for (int i = index; i < paths.size(); i++) {
+            JournalSegment segment = segmentAt(i);
+            int count = segment.committedCount();
+            int lo = 0;
+            int hi = count;
+            while (lo < hi) {
+                int mid = (lo + hi) >>> 1;
+                if (segment.receivedAt(mid) < timeMillis) {
+                    lo = mid + 1;
+                } else {
+                    hi = mid;
+                }
+            }
+            if (lo < count || i == paths.size() - 1) {
+                return segment.firstSeq + lo;
+            }
+        }
+        return 1;
+    }
+
+    /**
+     * Replays committed records from {@code fromSeq} to the current end.
+     *
+     * @return the sequence number following the last record delivered
+     */
+    public long replay(long fromSeq, Consumer<JournalRecord> handler) throws IOException {
+        refresh();
+        long seq = Math.max(1, fromSeq);
+        while (read(seq)) {
+            handler.accept(record);
+            seq++;
+        }
+        return seq;
+    }
+
+    /**
+     * Follows the journal from {@code fromSeq}, polling for new records.
+     * Records are emitted as copies and read in batches of at most
+     * {@code batchSize}, the next batch only once the previous one has been
+     * consumed, so a slow subscriber never makes the reader run ahead.
+     * Reads run on {@code scheduler}, as they may map new segment files.
+     */
+    public Flux<JournalRecord> tail(long fromSeq, Duration pollInterval, int batchSize, Scheduler scheduler) {
+        int limit = Math.max(1, batchSize);
+        return Flux.defer(() -> {
+            long[] next = {Math.max(1, fromSeq)};
+            return Flux.defer(() -> {
+                        List<JournalRecord> batch;
+                        try {
+                            batch = readBatch(next, limit);
+                        } catch (IOException e) {
+                            return Flux.error(e);
+                        }
+                        return batch.isEmpty()
+                                ? Mono.delay(pollInterval, scheduler).thenMany(Flux.<JournalRecord>empty())
+                                : Flux.fromIterable(batch);
+                    })
+                    .subscribeOn(scheduler)
+                    .repeat();
+        });
+    }
+
+    public Flux<JournalRecord> tail(long fromSeq, Duration pollInterval) {
+        return tail(fromSeq, pollInterval, 256, Schedulers.boundedElastic());
+    }
+
+    private List<JournalRecord> readBatch(long[] next, int limit) throws IOException {
+        List<JournalRecord> batch = new ArrayList<>();
+        while (batch.size() < limit && read(next[0])) {
+            batch.add(record.copy());
+            next[0]++;
+        }
+        return batch;
+    }
+
+    private boolean read(long seq) throws IOException {
+        JournalSegment segment = segmentFor(seq);
+        if (segment == null) {
+            return false;
+        }
+        int slot = (int) (seq - segment.firstSeq);
+        if (!segment.isCommitted(slot)) {
+            return false;
+        }
+        MappedByteBuffer buf = segment.buffer;
+        int base = slot * JournalSegment.RECORD_SIZE;
+        record.seq = seq;
+        record.receivedAt = buf.getLong(base + JournalSegment.RECEIVED_AT);
+        record.eventTime = buf.getLong(base + JournalSegment.EVENT_TIME);
+        record.openTime = buf.getLong(base + JournalSegment.OPEN_TIME);
+        record.closeTime = buf.getLong(base + JournalSegment.CLOSE_TIME);
+        record.open = buf.getDouble(base + JournalSegment.OPEN);
+        record.high = buf.getDouble(base + JournalSegment.HIGH);
+        record.low = buf.getDouble(base + JournalSegment.LOW);
+        record.close = buf.getDouble(base + JournalSegment.CLOSE);
+        record.volume = buf.getDouble(base + JournalSegment.VOLUME);
+        record.symbol = name(buf.getInt(base + JournalSegment.SYMBOL_ID));
+        record.interval = name(buf.getShort(base + JournalSegment.INTERVAL_ID));
+        record.finalBar = (buf.getShort(base + JournalSegment.FLAGS) & JournalSegment.FLAG_FINAL) != 0;
+        return true;
+    }
+
+    private String name(int id) throws IOException {
+        if (id < 0) {
+            return null;
+        }
+        String name = dictionary.nameOf(id);
+        if (name == null) {
+            dictionary.reload();
+            name = dictionary.nameOf(id);
+        }
+        return name;
+    }
+
+    private JournalSegment segmentFor(long seq) throws IOException {
+        if (current != null && seq >= current.firstSeq && seq < current.firstSeq + current.capacity) {
+            return current;
+        }
+        int index = indexOf(seq);
+        if (index < 0 || (index == paths.size() - 1 && seq >= firstSeqs.get(index) + segmentAt(index).capacity)) {
+            refresh();
+            index = indexOf(seq);
+        }
+        return index >= 0 ? segmentAt(index) : null;
+    }
+
+    private int indexOf(long seq) {
+        int lo = 0;
+        int hi = firstSeqs.size() - 1;
+        int found = -1;
+        while (lo <= hi) {
+            int mid = (lo + hi) >>> 1;
+            if (firstSeqs.get(mid) <= seq) {
+                found = mid;
+                lo = mid + 1;
+            } else {
+                hi = mid - 1;
+            }
+        }
+        return found;
+    }
+
+    private JournalSegment segmentAt(int index) throws IOException {
+        Path path = paths.get(index);
+        if (current == null || !current.path.equals(path)) {
+            current = JournalSegment.open(path, false);
+        }
+        return current;
+    }
+
+    private void refresh() throws IOException {
+        List<Path> segments = TickJournal.listSegments(dir);
+        List<Long> seqs = new ArrayList<>(segments.size());
+        for (Path path : segments) {
+            seqs.add(JournalSegment.parseFirstSeq(path));
+        }
+        this.paths = segments;
+        this.firstSeqs = seqs;
+    }
+}
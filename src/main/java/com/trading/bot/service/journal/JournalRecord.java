@@ -0,0 +1,43 @@
+package com.trading.bot.service.journal;
+
+import lombok.Getter;
+
+/**
+ * Reusable flyweight for one journal record; readers overwrite it on every
+ * read, so copy out anything that must outlive the callback.
+ */
+@Getter
+public class JournalRecord {
+    long seq;
+    long receivedAt;
+    long eventTime;
+    long openTime;
+    long closeTime;
+    double open;
+    double high;
+    double low;
+    double close;
+    double volume;
+    String symbol;
+    String interval;
+    boolean finalBar;
+
+    /** Detached copy, safe to hand to asynchronous consumers. */
+    public JournalRecord copy() {
+        JournalRecord copy = new JournalRecord();
+        copy.seq = seq;
+        copy.receivedAt = receivedAt;
+        copy.eventTime = eventTime;
+        copy.openTime = openTime;
+        copy.closeTime = closeTime;
+        copy.open = open;
+        copy.high = high;
+        copy.low = low;
+        copy.close = close;
+        copy.volume = volume;
+        copy.symbol = symbol;
+        copy.interval = interval;
+        copy.finalBar = finalBar;
+        return copy;
+    }
+}
@@ -0,0 +1,124 @@
+package com.trading.bot.service.journal;
+
+import java.io.IOException;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * One memory-mapped journal file of fixed-width little-endian records:
+ * <pre>
+ *  0 seq        8 receivedAt  16 eventTime  24 openTime  32 closeTime
+ * 40 open      48 high        56 low        64 close     72 volume
+ * 80 symbolId (int)  84 intervalId (short)  86 flags (short)
+ * </pre>
+ * The sequence number is stored last with release semantics, so a record
+ * whose seq field does not match its slot was never completely written.
+ */
+final class JournalSegment {
+
+    static final int RECORD_SIZE = 88;
+    static final String PREFIX = "journal-";
+    static final String SUFFIX = ".dat";
+
+    static final int SEQ = 0;
+    static final int RECEIVED_AT = 8;
+    static final int EVENT_TIME = 16;
+    static final int OPEN_TIME = 24;
+    static final int CLOSE_TIME = 32;
+    static final int OPEN = 40;
+    static final int HIGH = 48;
+    static final int LOW = 56;
+    static final int CLOSE = 64;
+    static final int VOLUME = 72;
+    static final int SYMBOL_ID = 80;
+    static final int INTERVAL_ID = 84;
+    static final int FLAGS = 86;
+
+    static final short FLAG_FINAL = 1;
+
+    private static final VarHandle LONGS = MethodHandles.byteBufferViewVarHandle(long[].class, ByteOrder.LITTLE_ENDIAN);
+
+    final Path path;
+    final long firstSeq;
+    final int capacity;
+    final MappedByteBuffer buffer;
+
+    private JournalSegment(Path path, long firstSeq, int capacity, MappedByteBuffer buffer) {
+        this.path = path;
+        this.firstSeq = firstSeq;
+        this.capacity = capacity;
+        this.buffer = buffer;
+        this.buffer.order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    static JournalSegment create(Path dir, long firstSeq, long segmentBytes) throws IOException {
+        int capacity = (int) Math.min(Integer.MAX_VALUE / RECORD_SIZE, Math.max(1, segmentBytes / RECORD_SIZE));
+        Path path = dir.resolve(fileName(firstSeq));
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE)) {
+            return new JournalSegment(path, firstSeq, capacity,
+                    channel.map(FileChannel.MapMode.READ_WRITE, 0, (long) capacity * RECORD_SIZE));
+        }
+    }
+
+    static JournalSegment open(Path path, boolean writable) throws IOException {
+        long firstSeq = parseFirstSeq(path);
+        try (FileChannel channel = writable
+                ? FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE)
+                : FileChannel.open(path, StandardOpenOption.READ)) {
+            int capacity = (int) (channel.size() / RECORD_SIZE);
+            MappedByteBuffer buffer = channel.map(writable ? FileChannel.MapMode.READ_WRITE : FileChannel.MapMode.READ_ONLY,
+                    0, (long) capacity * RECORD_SIZE);
+            return new JournalSegment(path, firstSeq, capacity, buffer);
+        }
+    }
+
+    static String fileName(long firstSeq) {
+        return String.format("%s%020d%s", PREFIX, firstSeq, SUFFIX);
+    }
+
+    static long parseFirstSeq(Path path) {
+        String name = path.getFileName().toString();
+        return Long.parseLong(name.substring(PREFIX.length(), name.length() - SUFFIX.length()));
+    }
+
+    static boolean isSegment(Path path) {
+        String name = path.getFileName().toString();
+        return name.startsWith(PREFIX) && name.endsWith(SUFFIX);
+    }
+
+    void publishSeq(int slot, long seq) {
+        LONGS.setRelease(buffer, slot * RECORD_SIZE + SEQ, seq);
+    }
+
+    boolean isCommitted(int slot) {
+        return slot < capacity && (long) LONGS.getAcquire(buffer, slot * RECORD_SIZE + SEQ) == firstSeq + slot;
+    }
+
+    /**
+     * Number of completely written records, found by binary search since
+     * records are only ever appended.
+     */
+    int committedCount() {
+        int lo = 0;
+        int hi = capacity;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (isCommitted(mid)) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+
+    long receivedAt(int slot) {
+        return buffer.getLong(slot * RECORD_SIZE + RECEIVED_AT);
+    }
+}
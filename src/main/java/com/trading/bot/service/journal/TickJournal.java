@@ -0,0 +1,144 @@
+package com.trading.bot.service.journal;
+
+import com.trading.bot.config.JournalProperties;
+import com.trading.bot.service.binance.KlineFrame;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Crash-safe local record of every raw kline received. Records are
+ * appended to memory-mapped segment files that roll over at
+ * {@code market.journal.segment-bytes}; the append path performs only
+ * absolute puts into the mapping and does not allocate.
+ */
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class TickJournal {
+
+    private static final String DICTIONARY = "names.txt";
+
+    private final JournalProperties journalProps;
+
+    private Path dir;
+    private JournalDictionary dictionary;
+    private JournalSegment segment;
+    private int nextSlot;
+    private long nextSeq = 1;
+    private long lastReceivedAt;
+    private volatile boolean open;
+
+    @PostConstruct
+    public void start() throws IOException {
+        if (!journalProps.isEnabled()) {
+            return;
+        }
+        dir = Path.of(journalProps.getDir());
+        Files.createDirectories(dir);
+        dictionary = new JournalDictionary(dir.resolve(DICTIONARY));
+
+        List<Path> segments = listSegments(dir);
+        if (segments.isEmpty()) {
+            segment = JournalSegment.create(dir, nextSeq, journalProps.getSegmentBytes());
+        } else {
+            segment = JournalSegment.open(segments.get(segments.size() - 1), true);
+            nextSlot = segment.committedCount();
+            nextSeq = segment.firstSeq + nextSlot;
+            if (nextSlot > 0) {
+                lastReceivedAt = segment.receivedAt(nextSlot - 1);
+            }
+        }
+        open = true;
+        log.info("Tick journal open in {} at seq {}", dir.toAbsolutePath(), nextSeq);
+    }
+
+    @PreDestroy
+    public synchronized void close() {
+        if (!open) {
+            return;
+        }
+        open = false;
+        segment.buffer.force();
+    }
+
+    public boolean isEnabled() {
+        return open;
+    }
+
+    /**
+     * @return the sequence number assigned to the record, or 0 if the
+     * journal is disabled
+     */
+    public synchronized long append(KlineFrame frame) {
+        if (!open) {
+            return 0;
+        }
+        if (nextSlot == segment.capacity) {
+            roll();
+        }
+        long seq = nextSeq++;
+        long now = Math.max(System.currentTimeMillis(), lastReceivedAt);
+        lastReceivedAt = now;
+
+        MappedByteBuffer buf = segment.buffer;
+        int base = nextSlot * JournalSegment.RECORD_SIZE;
+        buf.putLong(base + JournalSegment.RECEIVED_AT, now);
+        buf.putLong(base + JournalSegment.EVENT_TIME, frame.getEventTime());
+        buf.putLong(base + JournalSegment.OPEN_TIME, frame.getOpenTime());
+        buf.putLong(base + JournalSegment.CLOSE_TIME, frame.getCloseTime());
+        buf.putDouble(base + JournalSegment.OPEN, frame.getOpen());
+        buf.putDouble(base + JournalSegment.HIGH, frame.getHigh());
+        buf.putDouble(base + JournalSegment.LOW, frame.getLow());
+        buf.putDouble(base + JournalSegment.CLOSE, frame.getClose());
+        buf.putDouble(base + JournalSegment.VOLUME, frame.getVolume());
+        buf.putInt(base + JournalSegment.SYMBOL_ID, dictionary.idOf(frame.getSymbol()));
+        buf.putShort(base + JournalSegment.INTERVAL_ID,
+                (short) (frame.getInterval() != null ? dictionary.idOf(frame.getInterval()) : -1));
+        buf.putShort(base + JournalSegment.FLAGS, frame.isFinalBar() ? JournalSegment.FLAG_FINAL : 0);
+        segment.publishSeq(nextSlot, seq);
+        nextSlot++;
+        return seq;
+    }
+
+    public synchronized long getLastSeq() {
+        return nextSeq - 1;
+    }
+
+    public JournalReader newReader() throws IOException {
+        if (dir == null) {
+            throw new IllegalStateException("Tick journal is disabled");
+        }
+        return new JournalReader(dir, new JournalDictionary(dir.resolve(DICTIONARY)));
+    }
+
+    private void roll() {
+        segment.buffer.force();
+        try {
+            segment = JournalSegment.create(dir, nextSeq, journalProps.getSegmentBytes());
+        } catch (IOException e) {
+            open = false;
+            throw new UncheckedIOException("Failed to roll tick journal at seq " + nextSeq, e);
+        }
+        nextSlot = 0;
+        log.info("Tick journal rolled to {}", segment.path.getFileName());
+    }
+
+    static List<Path> listSegments(Path dir) throws IOException {
+        try (Stream<Path> files = Files.list(dir)) {
+            return files.filter(JournalSegment::isSegment)
+                    .sorted()
+                    .toList();
+        }
+    }
+}
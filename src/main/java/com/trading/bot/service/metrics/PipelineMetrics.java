@@ -0,0 +1,174 @@
+package com.trading.bot.service.metrics;
+
+import com.trading.bot.service.agent.AgentEndpoint;
+import com.trading.bot.service.agent.AgentResilience;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Per-symbol stage latencies and pipeline error counters. Timers keep
+ * HDR-backed sliding-window histograms, published both as client-side
+ * percentiles and as Prometheus buckets; lookups after the first tick of a
+ * symbol are a single map read.
+ */
+@Component
+public class PipelineMetrics {
+
+    public static final String LATENCY = "market.pipeline.latency";
+
+    private static final PipelineStage[] STAGES = PipelineStage.values();
+
+    private final MeterRegistry registry;
+
+    private final Map<String, Timer[]> timers = new ConcurrentHashMap<>();
+    private final Map<String, Counter> fallbackDecisions = new ConcurrentHashMap<>();
+    private final Map<String, Counter> gaps = new ConcurrentHashMap<>();
+    private final Map<String, Counter> depthResyncs = new ConcurrentHashMap<>();
+
+    private final Counter parseFailures;
+    private final Counter agentTimeouts;
+    private final Counter agentErrors;
+
+    public PipelineMetrics(MeterRegistry registry) {
+        this.registry = registry;
+        this.parseFailures = Counter.builder("market.parse.failures")
+                .description("Market frames that could not be decoded")
+                .register(registry);
+        this.agentTimeouts = Counter.builder("agent.timeouts")
+                .description("Agent calls that exceeded the timeout")
+                .register(registry);
+        this.agentErrors = Counter.builder("agent.errors")
+                .description("Agent calls that failed for any other reason")
+                .register(registry);
+    }
+
+    public void record(PipelineStage stage, String symbol, long nanos) {
+        if (nanos >= 0) {
+            timers.computeIfAbsent(symbol, this::registerTimers)[stage.ordinal()].record(nanos, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    /** Records the segment from {@code startNanos} to now, if the start is known. */
+    public void recordSince(PipelineStage stage, String symbol, long startNanos) {
+        if (startNanos != 0) {
+            record(stage, symbol, System.nanoTime() - startNanos);
+        }
+    }
+
+    public void parseFailure() {
+        parseFailures.increment();
+    }
+
+    public void agentFailure(Throwable error) {
+        if (error instanceof TimeoutException) {
+            agentTimeouts.increment();
+        } else {
+            agentErrors.increment();
+        }
+    }
+
+    public void gap(String symbol) {
+        gaps.computeIfAbsent(symbol, s -> Counter.builder("market.stream.gaps")
+                .description("Jumps of more than one interval between consecutive klines")
+                .tag("symbol", s)
+                .register(registry)).increment();
+    }
+
+    public void depthResync(String symbol) {
+        depthResyncs.computeIfAbsent(symbol, s -> Counter.builder("market.depth.resyncs")
+                .description("Order book snapshots reloaded after a break in the depth diff sequence")
+                .tag("symbol", s)
+                .register(registry)).increment();
+    }
+
+    public void fallbackDecision(String symbol) {
+        fallbackDecisions.computeIfAbsent(symbol, s -> Counter.builder("agent.fallback.decisions")
+                .description("Provisional decisions issued because the agent missed its deadline")
+                .tag("symbol", s)
+                .register(registry)).increment();
+    }
+
+    public void bindAgentEndpoint(AgentEndpoint endpoint) {
+        String url = endpoint.getUrl();
+        AgentResilience resilience = endpoint.getResilience();
+        Gauge.builder("agent.circuit.state", resilience, r -> r.getState().ordinal())
+                .description("Agent circuit breaker: 0 closed, 1 half-open, 2 open")
+                .tag("endpoint", url)
+                .register(registry);
+        TimeGauge.builder("agent.timeout.current", resilience, TimeUnit.MILLISECONDS, AgentResilience::getTimeoutMillis)
+                .description("Timeout currently applied to agent calls")
+                .tag("endpoint", url)
+                .register(registry);
+        FunctionCounter.builder("agent.circuit.rejected", resilience, AgentResilience::getRejected)
+                .description("Agent calls rejected without being sent while the circuit was open")
+                .tag("endpoint", url)
+                .register(registry);
+        Gauge.builder("agent.endpoint.in.flight", endpoint, AgentEndpoint::getInFlight)
+                .tag("endpoint", url)
+                .register(registry);
+        Gauge.builder("agent.endpoint.healthy", endpoint, e -> e.isHealthy() ? 1 : 0)
+                .description("Last health check of the agent instance: 1 up, 0 down")
+                .tag("endpoint", url)
+                .register(registry);
+        TimeGauge.builder("agent.endpoint.latency", endpoint, TimeUnit.MILLISECONDS, AgentEndpoint::getLatencyMillis)
+                .description("Moving average of successful call latency, used for routing")
+                .tag("endpoint", url)
+                .register(registry);
+    }
+
+    /**
+     * Exposes a symbol's dispatcher counters without adding work to the
+     * dispatch path. {@code conflated} counts ticks dropped by back-pressure;
+     * {@code empty} counts agent calls that were made but gave no decision.
+     */
+    public void bindDispatchStats(String symbol, LongAdder dispatched, LongAdder conflated, LongAdder empty,
+                                  LongAdder skipped, AtomicInteger inFlight) {
+        FunctionCounter.builder("agent.dispatch.ticks", dispatched, LongAdder::sum)
+                .tag("symbol", symbol)
+                .register(registry);
+        FunctionCounter.builder("market.ticks.dropped", conflated, LongAdder::sum)
+                .description("Ticks superseded by a newer one while waiting for an agent slot")
+                .tag("symbol", symbol)
+                .tag("reason", "conflated")
+                .register(registry);
+        FunctionCounter.builder("agent.dispatch.empty", empty, LongAdder::sum)
+                .description("Agent calls that gave no decision: breaker rejections and swallowed failures")
+                .tag("symbol", symbol)
+                .register(registry);
+        FunctionCounter.builder("agent.dispatch.skipped", skipped, LongAdder::sum)
+                .description("Agent calls saved by the dispatch policy")
+                .tag("symbol", symbol)
+                .register(registry);
+        Gauge.builder("agent.dispatch.in.flight", inFlight, AtomicInteger::get)
+                .tag("symbol", symbol)
+                .register(registry);
+    }
+
+    private Timer[] registerTimers(String symbol) {
+        Timer[] result = new Timer[STAGES.length];
+        for (PipelineStage stage : STAGES) {
+            result[stage.ordinal()] = Timer.builder(LATENCY)
+                    .tag("stage", stage.tag())
+                    .tag("symbol", symbol)
+                    .publishPercentiles(0.5, 0.9, 0.99, 0.999)
+                    .publishPercentileHistogram()
+                    .minimumExpectedValue(Duration.ofNanos(1_000))
+                    .maximumExpectedValue(Duration.ofSeconds(30))
+                    .register(registry);
+        }
+        return result;
+    }
+}
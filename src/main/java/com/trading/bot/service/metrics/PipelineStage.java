@@ -0,0 +1,32 @@
+package com.trading.bot.service.metrics;
+
+/**
+ * Latency segments between a kline leaving the exchange and its decision
+ * reaching STOMP subscribers.
+ */
+public enum PipelineStage {
+    /** Exchange event time to frame received, wall clock. */
+    EXCHANGE("exchange"),
+    /** Frame received to tick decoded. */
+    PARSE("parse"),
+    /** Frame received to {@code /topic/market} broadcast. */
+    TICK_BROADCAST("tick_broadcast"),
+    /** Frame received to agent request sent, including lane and conflation wait. */
+    DISPATCH_WAIT("dispatch_wait"),
+    /** Agent request sent to response received. */
+    AGENT("agent"),
+    /** Agent response received to {@code /topic/agent/decision} broadcast. */
+    DECISION_BROADCAST("decision_broadcast"),
+    /** Frame received to decision broadcast. */
+    END_TO_END("end_to_end");
+
+    private final String tag;
+
+    PipelineStage(String tag) {
+        this.tag = tag;
+    }
+
+    public String tag() {
+        return tag;
+    }
+}
@@ -0,0 +1,30 @@
+package com.trading.bot.service.persistence;
+
+import com.trading.bot.domain.dto.AgentDecisionDto;
+import com.trading.bot.domain.dto.MarketTickDto;
+import com.trading.bot.domain.dto.TradeEventDto;
+
+/**
+ * One row waiting to be written; exactly one of the payload fields is set.
+ */
+record PendingWrite(Kind kind, MarketTickDto tick, AgentDecisionDto decision, TradeEventDto trade,
+                    long recordedAt) {
+
+    enum Kind {
+        TICK,
+        DECISION,
+        TRADE
+    }
+
+    static PendingWrite tick(MarketTickDto tick) {
+        return new PendingWrite(Kind.TICK, tick, null, null, System.currentTimeMillis());
+    }
+
+    static PendingWrite decision(AgentDecisionDto decision) {
+        return new PendingWrite(Kind.DECISION, null, decision, null, System.currentTimeMillis());
+    }
+
+    static PendingWrite trade(TradeEventDto trade) {
+        return new PendingWrite(Kind.TRADE, null, null, trade, System.currentTimeMillis());
+    }
+}
@@ -0,0 +1,405 @@
+package com.trading.bot.service.persistence;
+
+import com.trading.bot.config.PersistenceProperties;
+import com.trading.bot.config.ReplayProperties;
+import com.trading.bot.domain.dto.AgentDecisionDto;
+import com.trading.bot.domain.dto.MarketTickDto;
+import com.trading.bot.domain.dto.PersistenceStatsDto;
+import com.trading.bot.domain.dto.TradeEventDto;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import org.springframework.stereotype.Service;
+import tools.jackson.databind.ObjectMapper;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Stream;
+
+/**
+ * Takes ticks, decisions and trades off the hot path into a bounded queue
+ * and writes them to PostgreSQL in batches from a single background thread.
+ * Callers never block: when the queue is full the configured overflow
+ * policy drops, or hands the row to a second bounded queue that the same
+ * thread spills to local JSON-lines files, which are replayed once the
+ * database catches up. In replay mode nothing is written, so replayed rows
+ * never mix with live history.
+ */
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class WriteBehindWriter {
+
+    private static final String INSERT_TICK = """
+            INSERT INTO market_tick (symbol, kline_interval, open_time, close_time, open, high, low, close,
+                                     volume, final_bar, indicators)
+            VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, CAST(? AS JSONB))
+            ON CONFLICT (symbol, kline_interval, open_time) DO UPDATE SET
+                close_time = EXCLUDED.close_time, open = EXCLUDED.open, high = EXCLUDED.high,
+                low = EXCLUDED.low, close = EXCLUDED.close, volume = EXCLUDED.volume,
+                final_bar = EXCLUDED.final_bar, indicators = EXCLUDED.indicators""";
+
+    private static final String INSERT_DECISION = """
+            INSERT INTO agent_decision (symbol, action, quantity, price, reason, balance, equity, realized_pnl,
+                                        roi_pct, position_side, position_size, take_profit_price,
+                                        stop_loss_price, avg_entry_price, created_at, source)
+            VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)""";
+
+    private static final String INSERT_TRADE = """
+            INSERT INTO trade_event (trade_id, symbol, side, price, volume, realized_pnl, balance_after,
+                                     position_size_after, executed_at, reason)
+            VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)
+            ON CONFLICT (trade_id) DO NOTHING""";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+    private final PersistenceProperties persistenceProps;
+    private final ReplayProperties replayProps;
+
+    private final LongAdder written = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+    private final LongAdder spilled = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+
+    private BlockingQueue<PendingWrite> queue;
+    private BlockingQueue<PendingWrite> spillQueue;
+    private BufferedWriter spillWriter;
+    private long spillSequence;
+    private Thread worker;
+    private volatile boolean running;
+    private volatile boolean lastWriteFailed;
+
+    @PostConstruct
+    public void start() {
+        if (!persistenceProps.isEnabled()) {
+            return;
+        }
+        if (replayProps.isEnabled()) {
+            log.info("Replay mode enabled, write-behind persistence is off");
+            return;
+        }
+        queue = new ArrayBlockingQueue<>(Math.max(1, persistenceProps.getQueueCapacity()));
+        spillQueue = new ArrayBlockingQueue<>(Math.max(1, persistenceProps.getQueueCapacity()));
+        running = true;
+        worker = new Thread(this::runLoop, "write-behind");
+        worker.setDaemon(true);
+        worker.start();
+        log.info("Write-behind persistence enabled: batchSize={}, flushIntervalMs={}, overflow={}",
+                persistenceProps.getBatchSize(), persistenceProps.getFlushIntervalMs(),
+                persistenceProps.getOverflowPolicy());
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        if (worker == null) {
+            return;
+        }
+        running = false;
+        worker.join(TimeUnit.SECONDS.toMillis(10));
+        closeSpillWriter();
+    }
+
+    public void recordTick(MarketTickDto tick) {
+        if (queue != null && (tick.isFinalBar() || !persistenceProps.isFinalBarsOnly())) {
+            enqueue(PendingWrite.tick(tick));
+        }
+    }
+
+    public void recordDecision(AgentDecisionDto decision, List<TradeEventDto> trades) {
+        if (queue == null) {
+            return;
+        }
+        enqueue(PendingWrite.decision(decision));
+        if (trades != null) {
+            for (TradeEventDto trade : trades) {
+                enqueue(PendingWrite.trade(trade));
+            }
+        }
+    }
+
+    public PersistenceStatsDto getStats() {
+        return new PersistenceStatsDto(queue != null, queue != null ? queue.size() + spillQueue.size() : 0,
+                written.sum(), dropped.sum(), spilled.sum(), failed.sum());
+    }
+
+    private void enqueue(PendingWrite write) {
+        if (queue.offer(write)) {
+            return;
+        }
+        switch (persistenceProps.getOverflowPolicy()) {
+            case DROP_NEWEST -> dropped.increment();
+            case DROP_OLDEST -> {
+                if (queue.poll() != null) {
+                    dropped.increment();
+                }
+                if (!queue.offer(write)) {
+                    dropped.increment();
+                }
+            }
+            case SPILL -> {
+                if (!spillQueue.offer(write)) {
+                    dropped.increment();
+                }
+            }
+        }
+    }
+
+    private void runLoop() {
+        if (persistenceProps.isInitSchema()) {
+            initSchema();
+        }
+        int batchSize = Math.max(1, persistenceProps.getBatchSize());
+        long flushNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(1, persistenceProps.getFlushIntervalMs()));
+        List<PendingWrite> batch = new ArrayList<>(batchSize);
+
+        while (running || !queue.isEmpty()) {
+            try {
+                spillQueued(batch, batchSize);
+                PendingWrite first = queue.poll(flushNanos, TimeUnit.NANOSECONDS);
+                if (first == null) {
+                    replaySpill();
+                    continue;
+                }
+                batch.add(first);
+                long deadline = System.nanoTime() + flushNanos;
+                while (batch.size() < batchSize) {
+                    if (queue.drainTo(batch, batchSize - batch.size()) > 0) {
+                        continue;
+                    }
+                    long remaining = deadline - System.nanoTime();
+                    PendingWrite next = remaining > 0 ? queue.poll(remaining, TimeUnit.NANOSECONDS) : null;
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+                flush(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (Exception e) {
+                log.error("Write-behind loop error", e);
+            } finally {
+                batch.clear();
+            }
+        }
+        spillQueued(batch, batchSize);
+    }
+
+    /**
+     * Moves rows that overflowed into the spill queue to the spill file.
+     */
+    private void spillQueued(List<PendingWrite> buffer, int batchSize) {
+        while (spillQueue.drainTo(buffer, batchSize) > 0) {
+            spill(buffer);
+            buffer.clear();
+        }
+    }
+
+    private void flush(List<PendingWrite> batch) {
+        Map<TickKey, PendingWrite> ticks = new LinkedHashMap<>();
+        List<PendingWrite> decisions = new ArrayList<>();
+        List<PendingWrite> trades = new ArrayList<>();
+        for (PendingWrite write : batch) {
+            switch (write.kind()) {
+                case TICK -> {
+                    // a batched upsert fails as a whole if it touches one bar twice; keep the latest
+                    MarketTickDto tick = write.tick();
+                    TickKey key = new TickKey(tick.getSymbol(), tick.getInterval(), tick.getOpenTime());
+                    ticks.remove(key);
+                    ticks.put(key, write);
+                }
+                case DECISION -> decisions.add(write);
+                case TRADE -> trades.add(write);
+            }
+        }
+        writeBatch(INSERT_TICK, new ArrayList<>(ticks.values()));
+        writeBatch(INSERT_DECISION, decisions);
+        writeBatch(INSERT_TRADE, trades);
+    }
+
+    private void writeBatch(String sql, List<PendingWrite> rows) {
+        if (rows.isEmpty()) {
+            return;
+        }
+        try {
+            jdbcTemplate.batchUpdate(sql, rows, rows.size(), (ps, write) -> {
+                switch (write.kind()) {
+                    case TICK -> bindTick(ps, write.tick());
+                    case DECISION -> bindDecision(ps, write.decision(), write.recordedAt());
+                    case TRADE -> bindTrade(ps, write.trade());
+                }
+            });
+            written.add(rows.size());
+            lastWriteFailed = false;
+        } catch (Exception e) {
+            lastWriteFailed = true;
+            log.error("Failed to write {} rows to PostgreSQL", rows.size(), e);
+            if (persistenceProps.getOverflowPolicy() == PersistenceProperties.OverflowPolicy.SPILL) {
+                spill(rows);
+            } else {
+                failed.add(rows.size());
+            }
+        }
+    }
+
+    private void bindTick(PreparedStatement ps, MarketTickDto tick) throws SQLException {
+        ps.setString(1, tick.getSymbol());
+        ps.setString(2, tick.getInterval());
+        ps.setLong(3, tick.getOpenTime());
+        ps.setLong(4, tick.getCloseTime());
+        ps.setDouble(5, tick.getOpen());
+        ps.setDouble(6, tick.getHigh());
+        ps.setDouble(7, tick.getLow());
+        ps.setDouble(8, tick.getClose());
+        ps.setDouble(9, tick.getVolume());
+        ps.setBoolean(10, tick.isFinalBar());
+        ps.setString(11, tick.getIndicators() != null ? objectMapper.writeValueAsString(tick.getIndicators()) : null);
+    }
+
+    private void bindDecision(PreparedStatement ps, AgentDecisionDto d, long recordedAt)
+            throws SQLException {
+        ps.setString(1, d.getSymbol());
+        ps.setString(2, d.getAction());
+        setDouble(ps, 3, d.getQuantity());
+        setDouble(ps, 4, d.getPrice());
+        ps.setString(5, d.getReason());
+        setDouble(ps, 6, d.getBalance());
+        setDouble(ps, 7, d.getEquity());
+        setDouble(ps, 8, d.getRealizedPnl());
+        setDouble(ps, 9, d.getRoiPct());
+        ps.setString(10, d.getPositionSide());
+        setDouble(ps, 11, d.getPositionSize());
+        setDouble(ps, 12, d.getTakeProfitPrice());
+        setDouble(ps, 13, d.getStopLossPrice());
+        setDouble(ps, 14, d.getAvgEntryPrice());
+        ps.setObject(15, OffsetDateTime.ofInstant(Instant.ofEpochMilli(recordedAt), ZoneOffset.UTC));
+        ps.setString(16, d.getSource());
+    }
+
+    private void bindTrade(PreparedStatement ps, TradeEventDto t) throws SQLException {
+        ps.setString(1, t.getId());
+        ps.setString(2, t.getSymbol());
+        ps.setString(3, t.getSide());
+        ps.setDouble(4, t.getPrice());
+        ps.setDouble(5, t.getVolume());
+        ps.setDouble(6, t.getRealizedPnl());
+        ps.setDouble(7, t.getBalanceAfter());
+        ps.setDouble(8, t.getPositionSizeAfter());
+        ps.setObject(9, t.getTimestamp());
+        ps.setString(10, t.getReason());
+    }
+
+    private static void setDouble(PreparedStatement ps, int index, Double value) throws SQLException {
+        if (value == null) {
+            ps.setNull(index, Types.DOUBLE);
+        } else {
+            ps.setDouble(index, value);
+        }
+    }
+
+    private void initSchema() {
+        try {
+            new ResourceDatabasePopulator(new ClassPathResource("db/schema.sql"))
+                    .execute(jdbcTemplate.getDataSource());
+            log.info("Persistence schema is up to date");
+        } catch (Exception e) {
+            log.error("Failed to initialise persistence schema", e);
+        }
+    }
+
+    private synchronized void spill(List<PendingWrite> writes) {
+        try {
+            if (spillWriter == null) {
+                Path dir = Path.of(persistenceProps.getSpillDir());
+                Files.createDirectories(dir);
+                String name = String.format("spill-%d-%06d.jsonl", System.currentTimeMillis(), spillSequence++);
+                spillWriter = Files.newBufferedWriter(dir.resolve(name),
+                        StandardCharsets.UTF_8, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+            }
+            for (PendingWrite write : writes) {
+                spillWriter.write(objectMapper.writeValueAsString(write));
+                spillWriter.newLine();
+            }
+            spillWriter.flush();
+            spilled.add(writes.size());
+        } catch (Exception e) {
+            log.error("Failed to spill {} rows", writes.size(), e);
+            dropped.add(writes.size());
+        }
+    }
+
+    private synchronized void closeSpillWriter() {
+        if (spillWriter != null) {
+            try {
+                spillWriter.close();
+            } catch (IOException e) {
+                log.warn("Failed to close spill file", e);
+            }
+            spillWriter = null;
+        }
+    }
+
+    private void replaySpill() {
+        Path dir = Path.of(persistenceProps.getSpillDir());
+        if (persistenceProps.getOverflowPolicy() != PersistenceProperties.OverflowPolicy.SPILL
+                || lastWriteFailed || !Files.isDirectory(dir)) {
+            return;
+        }
+        List<Path> files;
+        synchronized (this) {
+            closeSpillWriter();
+            try (Stream<Path> list = Files.list(dir)) {
+                files = list.filter(p -> p.getFileName().toString().endsWith(".jsonl")).sorted().toList();
+            } catch (IOException e) {
+                log.warn("Failed to list spill directory {}", dir, e);
+                return;
+            }
+        }
+        for (Path file : files) {
+            if (!queue.isEmpty()) {
+                return;
+            }
+            try {
+                List<PendingWrite> rows = new ArrayList<>();
+                for (String line : Files.readAllLines(file, StandardCharsets.UTF_8)) {
+                    if (!line.isBlank()) {
+                        rows.add(objectMapper.readValue(line, PendingWrite.class));
+                    }
+                }
+                Files.delete(file);
+                log.info("Replaying {} spilled rows from {}", rows.size(), file);
+                for (int from = 0; from < rows.size(); from += Math.max(1, persistenceProps.getBatchSize())) {
+                    flush(rows.subList(from, Math.min(rows.size(), from + persistenceProps.getBatchSize())));
+                }
+            } catch (Exception e) {
+                log.error("Failed to replay spill file {}", file, e);
+            }
+        }
+    }
+
+    private record TickKey(String symbol, String interval, long openTime) {
+    }
+}
@@ -0,0 +1,188 @@
+package com.trading.bot.service.replay;
+
+import com.trading.bot.config.ReplayProperties;
+import com.trading.bot.domain.dto.BinanceKlineMessage;
+import com.trading.bot.domain.dto.MarketTickDto;
+import com.trading.bot.service.binance.BinanceFrameDecoder;
+import com.trading.bot.service.binance.JsonFrameReader;
+import com.trading.bot.service.binance.KlineFrame;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import reactor.core.publisher.Flux;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Streams a recorded kline file (Binance JSON lines, raw or combined, or
+ * CSV dumps) as ticks. The file is memory-mapped in large windows and every
+ * line is decoded in place by {@link BinanceFrameDecoder}.
+ */
+@Slf4j
+public class ReplayFileSource {
+
+    private static final long WINDOW = 256L * 1024 * 1024;
+
+    private final Path file;
+    private final ReplayProperties replayProps;
+    private final BinanceFrameDecoder frameDecoder;
+    private final AtomicLong skippedLines;
+
+    public ReplayFileSource(Path file, ReplayProperties replayProps, BinanceFrameDecoder frameDecoder,
+                            AtomicLong skippedLines) {
+        this.file = file;
+        this.replayProps = replayProps;
+        this.frameDecoder = frameDecoder;
+        this.skippedLines = skippedLines;
+    }
+
+    /**
+     * Must be subscribed on a thread that may block, since pacing parks the
+     * emitting thread between ticks.
+     */
+    public Flux<MarketTickDto> ticks() {
+        return Flux.generate(Cursor::new, (cursor, sink) -> {
+            MarketTickDto tick = cursor.next();
+            if (tick == null) {
+                sink.complete();
+            } else {
+                cursor.pace(tick);
+                tick.setReceivedNanos(System.nanoTime());
+                sink.next(tick);
+            }
+            return cursor;
+        }, Cursor::close);
+    }
+
+    private final class Cursor {
+
+        private final FileChannel channel;
+        private final long size;
+        private final JsonFrameReader reader = frameDecoder.newReader();
+        private final KlineFrame frame = new KlineFrame();
+
+        private MappedByteBuffer window;
+        private long windowStart;
+        private int position;
+
+        private long firstTickTime = Long.MIN_VALUE;
+        private long startNanos;
+
+        private Cursor() {
+            try {
+                this.channel = FileChannel.open(file, StandardOpenOption.READ);
+                this.size = channel.size();
+                map(0);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Failed to open replay file " + file, e);
+            }
+        }
+
+        private MarketTickDto next() {
+            while (true) {
+                DataBuffer line = nextLine();
+                if (line == null) {
+                    return null;
+                }
+                MarketTickDto tick = decode(line);
+                if (tick != null) {
+                    return tick;
+                }
+                skippedLines.incrementAndGet();
+            }
+        }
+
+        private DataBuffer nextLine() {
+            while (true) {
+                int limit = window.limit();
+                int end = position;
+                while (end < limit && window.get(end) != '\n') {
+                    end++;
+                }
+                boolean eof = windowStart + limit >= size;
+                if (end == limit && !eof) {
+                    if (position == 0) {
+                        throw new IllegalStateException("Replay line longer than mapping window in " + file);
+                    }
+                    map(windowStart + position);
+                    continue;
+                }
+                if (position >= limit) {
+                    return null;
+                }
+                int start = position;
+                position = Math.min(end + 1, limit);
+                if (end > start && window.get(end - 1) == '\r') {
+                    end--;
+                }
+                if (end == start) {
+                    continue;
+                }
+                return DefaultDataBufferFactory.sharedInstance.wrap(window.slice(start, end - start));
+            }
+        }
+
+        private MarketTickDto decode(DataBuffer line) {
+            byte first = line.getByte(line.readPosition());
+            boolean json = replayProps.getFormat() == ReplayProperties.Format.JSON
+                    || (replayProps.getFormat() == ReplayProperties.Format.AUTO && first == '{');
+            if (json) {
+                if (frameDecoder.decodeKline(line, reader, frame)) {
+                    return frameDecoder.convertToTick(frame);
+                }
+                BinanceKlineMessage msg = frameDecoder.parseBinanceMessage(line.toString(StandardCharsets.UTF_8));
+                return msg != null && msg.getKline() != null ? frameDecoder.convertToTick(frame.fill(msg)) : null;
+            }
+            if (first < '0' || first > '9') {
+                return null;
+            }
+            return frameDecoder.decodeCsvKline(line, reader, frame, replayProps.getSymbol(), replayProps.getInterval())
+                    ? frameDecoder.convertToTick(frame)
+                    : null;
+        }
+
+        private void pace(MarketTickDto tick) {
+            double speed = replayProps.getSpeed();
+            if (speed <= 0) {
+                return;
+            }
+            if (firstTickTime == Long.MIN_VALUE) {
+                firstTickTime = tick.getCloseTime();
+                startNanos = System.nanoTime();
+                return;
+            }
+            long due = startNanos + (long) (TimeUnit.MILLISECONDS.toNanos(tick.getCloseTime() - firstTickTime) / speed);
+            long wait;
+            while ((wait = due - System.nanoTime()) > 0) {
+                LockSupport.parkNanos(wait);
+            }
+        }
+
+        private void map(long offset) {
+            try {
+                windowStart = offset;
+                window = channel.map(FileChannel.MapMode.READ_ONLY, offset, Math.min(WINDOW, size - offset));
+                position = 0;
+            } catch (IOException e) {
+                throw new UncheckedIOException("Failed to map replay file " + file, e);
+            }
+        }
+
+        private void close() {
+            try {
+                channel.close();
+            } catch (IOException e) {
+                log.warn("Failed to close replay file {}", file, e);
+            }
+        }
+    }
+}
@@ -0,0 +1,167 @@
+package com.trading.bot.service.replay;
+
+import com.trading.bot.config.ReplayProperties;
+import com.trading.bot.config.TradingProperties;
+import com.trading.bot.domain.dto.AgentDecisionDto;
+import com.trading.bot.domain.dto.ReplaySummaryDto;
+import com.trading.bot.domain.dto.ReplaySymbolResultDto;
+import com.trading.bot.service.MarketDataService;
+import com.trading.bot.service.TickDecision;
+import com.trading.bot.service.binance.BinanceFrameDecoder;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Drives the normal tick pipeline from a recorded file instead of the live
+ * Binance socket and reports throughput, decision latency and the final
+ * account result of every replayed symbol once the file is exhausted.
+ * Nothing is persisted while replay mode is on. Latency percentiles come
+ * from a fixed-size uniform sample of all decisions, so memory and summary
+ * cost stay flat however long the file is.
+ */
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class ReplayService {
+
+    private static final int LATENCY_SAMPLE_SIZE = 8192;
+
+    private final ReplayProperties replayProps;
+    private final TradingProperties tradingProperties;
+    private final MarketDataService marketDataService;
+    private final BinanceFrameDecoder frameDecoder;
+
+    private final AtomicLong ticks = new AtomicLong();
+    private final AtomicLong skippedLines = new AtomicLong();
+
+    private volatile boolean running;
+    private volatile long startedNanos;
+    private volatile long finishedNanos;
+    private final Map<String, Long> decisionsBySymbol = new TreeMap<>();
+    private long decisions;
+    private final long[] latencySample = new long[LATENCY_SAMPLE_SIZE];
+    private long latencySum;
+    private long maxLatency;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void startOnReady() {
+        if (replayProps.isEnabled()) {
+            start();
+        }
+    }
+
+    public synchronized void start() {
+        if (running) {
+            return;
+        }
+        running = true;
+        ticks.set(0);
+        skippedLines.set(0);
+        decisions = 0;
+        latencySum = 0;
+        maxLatency = 0;
+        decisionsBySymbol.clear();
+        startedNanos = System.nanoTime();
+        finishedNanos = 0;
+
+        Scheduler reader = Schedulers.newSingle("replay-reader");
+        ReplayFileSource source = new ReplayFileSource(Path.of(replayProps.getFile()), replayProps, frameDecoder,
+                skippedLines);
+        log.info("Starting replay of {} at speed {}", replayProps.getFile(),
+                replayProps.getSpeed() > 0 ? replayProps.getSpeed() + "x" : "max");
+
+        // the file may hold any number of symbols, each needing its own lane
+        marketDataService.ingest(source.ticks().doOnNext(tick -> ticks.incrementAndGet()).subscribeOn(reader), false,
+                        Integer.MAX_VALUE)
+                .doOnNext(this::record)
+                .doOnError(e -> log.error("Replay failed", e))
+                .doFinally(signal -> {
+                    finishedNanos = System.nanoTime();
+                    running = false;
+                    reader.dispose();
+                    log.info("Replay finished: {}", getSummary());
+                })
+                .subscribe();
+    }
+
+    public synchronized ReplaySummaryDto getSummary() {
+        ReplaySummaryDto summary = new ReplaySummaryDto();
+        summary.setFile(replayProps.getFile());
+        summary.setRunning(running);
+        summary.setSpeed(replayProps.getSpeed());
+        summary.setTicks(ticks.get());
+        summary.setSkippedLines(skippedLines.get());
+        summary.setDecisions(decisions);
+
+        long end = finishedNanos != 0 ? finishedNanos : System.nanoTime();
+        double elapsed = startedNanos != 0 ? (end - startedNanos) / 1e9 : 0;
+        summary.setElapsedSeconds(elapsed);
+        summary.setTicksPerSecond(elapsed > 0 ? ticks.get() / elapsed : 0);
+
+        if (decisions > 0) {
+            long[] sorted = Arrays.copyOf(latencySample, (int) Math.min(decisions, latencySample.length));
+            Arrays.sort(sorted);
+            summary.setAvgDecisionLatencyMs((double) latencySum / decisions / 1e6);
+            summary.setP50DecisionLatencyMs(percentile(sorted, 0.50) / 1e6);
+            summary.setP99DecisionLatencyMs(percentile(sorted, 0.99) / 1e6);
+            summary.setMaxDecisionLatencyMs(maxLatency / 1e6);
+        }
+
+        double initialBalance = tradingProperties.getInitialBalance();
+        List<ReplaySymbolResultDto> results = new ArrayList<>();
+        double totalEquity = 0;
+        int accounts = 0;
+        for (Map.Entry<String, Long> entry : decisionsBySymbol.entrySet()) {
+            AgentDecisionDto last = marketDataService.getLastDecision(entry.getKey());
+            Double equity = last != null ? last.getEquity() : null;
+            results.add(new ReplaySymbolResultDto(entry.getKey(), entry.getValue(), equity,
+                    roiPct(equity, initialBalance)));
+            if (equity != null) {
+                totalEquity += equity;
+                accounts++;
+            }
+        }
+        summary.setSymbols(results);
+        if (accounts > 0) {
+            summary.setFinalEquity(totalEquity);
+            summary.setRoiPct(roiPct(totalEquity, initialBalance * accounts));
+        }
+        return summary;
+    }
+
+    private synchronized void record(TickDecision decision) {
+        long latency = decision.latencyNanos();
+        latencySum += latency;
+        maxLatency = Math.max(maxLatency, latency);
+        // reservoir sampling: every decision so far is equally likely to be in the sample
+        long slot = decisions < latencySample.length ? decisions : ThreadLocalRandom.current().nextLong(decisions + 1);
+        if (slot < latencySample.length) {
+            latencySample[(int) slot] = latency;
+        }
+        decisions++;
+        decisionsBySymbol.merge(decision.tick().getSymbol(), 1L, Long::sum);
+    }
+
+    private static Double roiPct(Double equity, double initialBalance) {
+        return equity != null && initialBalance > 0 ? (equity - initialBalance) / initialBalance * 100.0 : null;
+    }
+
+    private static long percentile(long[] sorted, double p) {
+        int index = (int) Math.ceil(p * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(sorted.length - 1, index))];
+    }
+}
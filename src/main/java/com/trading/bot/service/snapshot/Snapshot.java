@@ -0,0 +1,8 @@
+package com.trading.bot.service.snapshot;
+
+/**
+ * One published state of a channel: its per-channel sequence number, the
+ * matching HTTP entity tag and the JSON body, serialized once.
+ */
+public record Snapshot(long seq, String etag, byte[] body) {
+}
@@ -0,0 +1,72 @@
+package com.trading.bot.service.snapshot;
+
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Sinks;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Latest serialized state per channel, such as the current tick of one
+ * symbol and interval, for the HTTP read paths. Every update gets the next
+ * sequence number of its channel. ETags also carry a per-process epoch, so
+ * a tag cached before a restart never matches a new body.
+ */
+@Service
+public class SnapshotStore {
+
+    private final String epoch = Long.toString(System.currentTimeMillis(), 36);
+    private final Map<String, Channel> channels = new ConcurrentHashMap<>();
+
+    public static String tickKey(String symbol, String interval) {
+        return "market/" + symbol.toUpperCase(Locale.ROOT) + "@" + interval;
+    }
+
+    public static String decisionKey(String symbol) {
+        return "decision/" + symbol.toUpperCase(Locale.ROOT);
+    }
+
+    public static String accountKey(String symbol) {
+        return "account/" + symbol.toUpperCase(Locale.ROOT);
+    }
+
+    public void publish(String key, byte[] body) {
+        if (body == null) {
+            return;
+        }
+        Channel channel = channel(key);
+        synchronized (channel) {
+            long seq = channel.latest != null ? channel.latest.seq() + 1 : 1;
+            Snapshot snapshot = new Snapshot(seq, "\"" + epoch + "-" + seq + "\"", body);
+            channel.latest = snapshot;
+            channel.sink.tryEmitNext(snapshot);
+        }
+    }
+
+    /** @return the current snapshot, or {@code null} before the first update */
+    public Snapshot latest(String key) {
+        Channel channel = channels.get(key);
+        return channel != null ? channel.latest : null;
+    }
+
+    /**
+     * The current snapshot, if any, followed by every later one. Slow
+     * subscribers should apply {@link Flux#onBackpressureLatest()}.
+     * Channels are never evicted, so callers must not pass keys taken
+     * unchecked from requests.
+     */
+    public Flux<Snapshot> updates(String key) {
+        return channel(key).sink.asFlux();
+    }
+
+    private Channel channel(String key) {
+        return channels.computeIfAbsent(key, k -> new Channel());
+    }
+
+    private static final class Channel {
+        private final Sinks.Many<Snapshot> sink = Sinks.many().replay().latest();
+        private volatile Snapshot latest;
+    }
+}
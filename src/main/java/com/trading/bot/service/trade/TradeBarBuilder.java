@@ -0,0 +1,104 @@
+package com.trading.bot.service.trade;
+
+import com.trading.bot.domain.dto.MarketTickDto;
+
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.LongFunction;
+
+/**
+ * Folds trades into one kind of bar with primitive accumulators only; the
+ * only allocation is the tick emitted when a bar closes. A time bar closes
+ * on the first trade of the next bucket. Count and volume bars close on
+ * the trade that reaches the threshold, which stays whole in that bar.
+ * Their open times strictly increase, one millisecond past the previous
+ * bar's when several bars start within the same millisecond, so every bar
+ * keeps its own key downstream and in {@code market_tick}.
+ */
+final class TradeBarBuilder {
+
+    private final String symbol;
+    private final TradeBarSpec spec;
+    private final LongFunction<LocalDateTime> timestamps;
+
+    private boolean open;
+    private long openTime = Long.MIN_VALUE;
+    private long lastTime;
+    private double openPrice;
+    private double high;
+    private double low;
+    private double close;
+    private double volume;
+    private double buyVolume;
+    private double notional;
+    private long trades;
+
+    TradeBarBuilder(String symbol, TradeBarSpec spec, LongFunction<LocalDateTime> timestamps) {
+        this.symbol = symbol;
+        this.spec = spec;
+        this.timestamps = timestamps;
+    }
+
+    /**
+     * @param buyerMaker Binance's {@code m} flag; {@code true} means the
+     *                   aggressor sold
+     * @return the bar this trade closed, or {@code null}
+     */
+    MarketTickDto onTrade(long time, double price, double quantity, boolean buyerMaker) {
+        MarketTickDto closed = null;
+        if (spec.kind() == TradeBarSpec.Kind.TIME) {
+            long bucket = Math.floorDiv(time, spec.millis()) * spec.millis();
+            if (open && bucket > openTime) {
+                closed = toTick(openTime + spec.millis() - 1);
+                open = false;
+            }
+            if (!open) {
+                start(bucket, price);
+            }
+        } else if (!open) {
+            start(Math.max(time, openTime + 1), price);
+        }
+
+        high = Math.max(high, price);
+        low = Math.min(low, price);
+        close = price;
+        volume += quantity;
+        if (!buyerMaker) {
+            buyVolume += quantity;
+        }
+        notional += price * quantity;
+        trades++;
+        lastTime = Math.max(lastTime, time);
+
+        if ((spec.kind() == TradeBarSpec.Kind.TICKS && trades >= spec.threshold())
+                || (spec.kind() == TradeBarSpec.Kind.VOLUME && volume >= spec.threshold())) {
+            closed = toTick(lastTime);
+            open = false;
+        }
+        return closed;
+    }
+
+    private void start(long time, double price) {
+        open = true;
+        openTime = time;
+        lastTime = time;
+        openPrice = price;
+        high = price;
+        low = price;
+        volume = 0;
+        buyVolume = 0;
+        notional = 0;
+        trades = 0;
+    }
+
+    private MarketTickDto toTick(long closeTime) {
+        Map<String, Double> flow = new LinkedHashMap<>();
+        flow.put("trade_count", (double) trades);
+        flow.put("trade_buy_volume", buyVolume);
+        flow.put("trade_sell_volume", volume - buyVolume);
+        flow.put("trade_vwap", volume > 0 ? notional / volume : close);
+        return new MarketTickDto(symbol, spec.label(), timestamps.apply(closeTime), openTime, closeTime,
+                openPrice, high, low, close, volume, true, flow);
+    }
+}
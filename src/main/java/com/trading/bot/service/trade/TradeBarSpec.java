@@ -0,0 +1,32 @@
+package com.trading.bot.service.trade;
+
+import com.trading.bot.service.candle.Intervals;
+
+/**
+ * How a trade bar closes: after a fixed wall-clock span, a number of
+ * trades, or an amount of base-asset volume.
+ */
+public record TradeBarSpec(String label, Kind kind, long millis, double threshold) {
+
+    public enum Kind { TIME, TICKS, VOLUME }
+
+    public static TradeBarSpec parse(String spec) {
+        String label = spec.trim();
+        if (label.length() < 2) {
+            throw new IllegalArgumentException("Invalid trade bar: " + spec);
+        }
+        String amount = label.substring(0, label.length() - 1);
+        return switch (label.charAt(label.length() - 1)) {
+            case 't' -> new TradeBarSpec(label, Kind.TICKS, 0, positive(Long.parseLong(amount), spec));
+            case 'v' -> new TradeBarSpec(label, Kind.VOLUME, 0, positive(Double.parseDouble(amount), spec));
+            default -> new TradeBarSpec(label, Kind.TIME, (long) positive(Intervals.toMillis(label), spec), 0);
+        };
+    }
+
+    private static double positive(double value, String spec) {
+        if (!(value > 0)) {
+            throw new IllegalArgumentException("Invalid trade bar: " + spec);
+        }
+        return value;
+    }
+}
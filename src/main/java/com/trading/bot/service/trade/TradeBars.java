@@ -0,0 +1,50 @@
+package com.trading.bot.service.trade;
+
+import com.trading.bot.domain.dto.MarketTickDto;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.LongFunction;
+
+/**
+ * Every configured trade bar for the symbols of one connection. Not
+ * thread-safe; it is driven by that connection's receive loop.
+ */
+public final class TradeBars {
+
+    private final List<TradeBarSpec> specs;
+    private final LongFunction<LocalDateTime> timestamps;
+    private final Map<String, TradeBarBuilder[]> builders = new HashMap<>();
+
+    public TradeBars(List<TradeBarSpec> specs, LongFunction<LocalDateTime> timestamps) {
+        this.specs = specs;
+        this.timestamps = timestamps;
+    }
+
+    /** @return the bars closed by this trade, usually none */
+    public List<MarketTickDto> onTrade(String symbol, long time, double price, double quantity, boolean buyerMaker) {
+        TradeBarBuilder[] symbolBuilders = builders.computeIfAbsent(symbol, this::newBuilders);
+        List<MarketTickDto> closed = List.of();
+        for (TradeBarBuilder builder : symbolBuilders) {
+            MarketTickDto bar = builder.onTrade(time, price, quantity, buyerMaker);
+            if (bar != null) {
+                if (closed.isEmpty()) {
+                    closed = new ArrayList<>(symbolBuilders.length);
+                }
+                closed.add(bar);
+            }
+        }
+        return closed;
+    }
+
+    private TradeBarBuilder[] newBuilders(String symbol) {
+        TradeBarBuilder[] result = new TradeBarBuilder[specs.size()];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = new TradeBarBuilder(symbol, specs.get(i), timestamps);
+        }
+        return result;
+    }
+}
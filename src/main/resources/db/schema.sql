@@ -0,0 +1,50 @@
+CREATE TABLE IF NOT EXISTS market_tick (
+    symbol          VARCHAR(32)      NOT NULL,
+    kline_interval  VARCHAR(8)       NOT NULL,
+    open_time       BIGINT           NOT NULL,
+    close_time      BIGINT           NOT NULL,
+    open            DOUBLE PRECISION NOT NULL,
+    high            DOUBLE PRECISION NOT NULL,
+    low             DOUBLE PRECISION NOT NULL,
+    close           DOUBLE PRECISION NOT NULL,
+    volume          DOUBLE PRECISION NOT NULL,
+    final_bar       BOOLEAN          NOT NULL,
+    indicators      JSONB,
+    PRIMARY KEY (symbol, kline_interval, open_time)
+);
+
+CREATE TABLE IF NOT EXISTS agent_decision (
+    id                BIGSERIAL PRIMARY KEY,
+    symbol            VARCHAR(32)  NOT NULL,
+    action            VARCHAR(32)  NOT NULL,
+    quantity          DOUBLE PRECISION,
+    price             DOUBLE PRECISION,
+    reason            TEXT,
+    balance           DOUBLE PRECISION,
+    equity            DOUBLE PRECISION,
+    realized_pnl      DOUBLE PRECISION,
+    roi_pct           DOUBLE PRECISION,
+    position_side     VARCHAR(16),
+    position_size     DOUBLE PRECISION,
+    take_profit_price DOUBLE PRECISION,
+    stop_loss_price   DOUBLE PRECISION,
+    avg_entry_price   DOUBLE PRECISION,
+    created_at        TIMESTAMPTZ  NOT NULL,
+    source            VARCHAR(16)
+);
+
+CREATE INDEX IF NOT EXISTS agent_decision_symbol_created_at ON agent_decision (symbol, created_at);
+
+CREATE TABLE IF NOT EXISTS trade_event (
+    id                  BIGSERIAL PRIMARY KEY,
+    trade_id            VARCHAR(64) UNIQUE,
+    symbol              VARCHAR(32),
+    side                VARCHAR(16),
+    price               DOUBLE PRECISION,
+    volume              DOUBLE PRECISION,
+    realized_pnl        DOUBLE PRECISION,
+    balance_after       DOUBLE PRECISION,
+    position_size_after DOUBLE PRECISION,
+    executed_at         TIMESTAMP,
+    reason              TEXT
+);
@@ -0,0 +1,157 @@
+package com.trading.bot.soak;
+
+import com.trading.bot.service.candle.Intervals;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.server.HttpServer;
+import reactor.netty.http.server.HttpServerRequest;
+import reactor.netty.http.websocket.WebsocketInbound;
+import reactor.netty.http.websocket.WebsocketOutbound;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Local stand-in for the Binance combined stream. Each connection emits
+ * kline frames for the streams named in its {@code ?streams=} query, round
+ * robin, at {@code updatesPerSecond} per stream, with the event time set to
+ * the wall clock so the exchange-lag metric stays meaningful. Prices follow
+ * a random walk and every bar rolls over on its interval boundary with a
+ * closing frame. REST backfill answers with no bars.
+ */
+final class FakeBinanceExchange {
+
+    private static final Duration EMIT_PERIOD = Duration.ofMillis(1);
+
+    private final double updatesPerSecond;
+    private final LongAdder framesSent = new LongAdder();
+    private DisposableServer server;
+
+    FakeBinanceExchange(double updatesPerSecond) {
+        this.updatesPerSecond = updatesPerSecond;
+    }
+
+    void start() {
+        server = HttpServer.create()
+                .port(0)
+                .route(routes -> routes
+                        .get("/stream", (request, response) -> response.sendWebsocket(
+                                (in, out) -> session(request, in, out)))
+                        .get("/api/v3/klines", (request, response) -> response
+                                .header("Content-Type", "application/json")
+                                .sendString(Mono.just("[]"))))
+                .bindNow();
+    }
+
+    void stop() {
+        if (server != null) {
+            server.disposeNow();
+        }
+    }
+
+    int port() {
+        return server.port();
+    }
+
+    long framesSent() {
+        return framesSent.sum();
+    }
+
+    private Mono<Void> session(HttpServerRequest request, WebsocketInbound in, WebsocketOutbound out) {
+        List<StreamState> streams = parseStreams(request.uri());
+        if (streams.isEmpty()) {
+            return out.sendClose();
+        }
+        long startNanos = System.nanoTime();
+        double framesPerNano = updatesPerSecond * streams.size() / 1e9;
+        long[] emitted = {0};
+        int[] next = {0};
+        Flux<String> frames = Flux.interval(EMIT_PERIOD)
+                .onBackpressureDrop()
+                .concatMapIterable(i -> {
+                    long due = (long) ((System.nanoTime() - startNanos) * framesPerNano) - emitted[0];
+                    List<String> batch = new ArrayList<>((int) Math.max(0, due));
+                    for (long k = 0; k < due; k++) {
+                        streams.get(next[0]).nextFrames(batch);
+                        next[0] = (next[0] + 1) % streams.size();
+                    }
+                    emitted[0] += due;
+                    return batch;
+                })
+                .doOnNext(frame -> framesSent.increment());
+        // keep reading so close frames from the client are processed
+        return Mono.when(in.receive().then(), out.sendString(frames).then());
+    }
+
+    private static List<StreamState> parseStreams(String uri) {
+        List<StreamState> streams = new ArrayList<>();
+        int start = uri.indexOf("streams=");
+        if (start < 0) {
+            return streams;
+        }
+        String query = uri.substring(start + "streams=".length());
+        int end = query.indexOf('&');
+        for (String name : (end < 0 ? query : query.substring(0, end)).split("/")) {
+            int at = name.indexOf("@kline_");
+            if (at > 0) {
+                streams.add(new StreamState(name, name.substring(0, at).toUpperCase(Locale.ROOT),
+                        name.substring(at + "@kline_".length())));
+            }
+        }
+        return streams;
+    }
+
+    private static final class StreamState {
+
+        private final String name;
+        private final String symbol;
+        private final String interval;
+        private final long intervalMillis;
+
+        private long openTime;
+        private double open;
+        private double high;
+        private double low;
+        private double close;
+        private double volume;
+
+        StreamState(String name, String symbol, String interval) {
+            this.name = name;
+            this.symbol = symbol;
+            this.interval = interval;
+            this.intervalMillis = Intervals.toMillis(interval);
+            this.close = 100 + ThreadLocalRandom.current().nextDouble() * 50_000;
+        }
+
+        void nextFrames(List<String> out) {
+            long now = System.currentTimeMillis();
+            long bucket = now - now % intervalMillis;
+            if (bucket != openTime) {
+                if (openTime != 0) {
+                    out.add(frame(now, true));
+                }
+                openTime = bucket;
+                open = high = low = close;
+                volume = 0;
+            }
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            close *= 1 + random.nextGaussian() * 0.0002;
+            high = Math.max(high, close);
+            low = Math.min(low, close);
+            volume += random.nextDouble() * 2;
+            out.add(frame(now, false));
+        }
+
+        private String frame(long eventTime, boolean closed) {
+            return "{\"stream\":\"" + name + "\",\"data\":{\"e\":\"kline\",\"E\":" + eventTime
+                    + ",\"s\":\"" + symbol + "\",\"k\":{\"t\":" + openTime + ",\"T\":" + (openTime + intervalMillis - 1)
+                    + ",\"s\":\"" + symbol + "\",\"i\":\"" + interval + "\",\"o\":\"" + open + "\",\"c\":\"" + close
+                    + "\",\"h\":\"" + high + "\",\"l\":\"" + low + "\",\"v\":\"" + volume + "\",\"x\":" + closed + "}}}";
+        }
+    }
+}
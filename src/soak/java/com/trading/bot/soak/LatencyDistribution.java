@@ -0,0 +1,70 @@
+package com.trading.bot.soak;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Response delay of the stub agent, parsed from a short spec:
+ * <ul>
+ *   <li>{@code fixed:5} - always 5 ms</li>
+ *   <li>{@code uniform:2-20} - uniform between 2 and 20 ms</li>
+ *   <li>{@code exp:5} - exponential with a 5 ms mean</li>
+ *   <li>{@code lognormal:5,0.5} - 5 ms median, sigma 0.5: mostly fast with a long tail</li>
+ * </ul>
+ * Fractional milliseconds are allowed everywhere.
+ */
+final class LatencyDistribution {
+
+    private final String spec;
+    private final Kind kind;
+    private final double a;
+    private final double b;
+
+    private enum Kind {
+        FIXED, UNIFORM, EXP, LOGNORMAL
+    }
+
+    private LatencyDistribution(String spec, Kind kind, double a, double b) {
+        this.spec = spec;
+        this.kind = kind;
+        this.a = a;
+        this.b = b;
+    }
+
+    static LatencyDistribution parse(String spec) {
+        String[] parts = spec.trim().split(":", 2);
+        if (parts.length != 2) {
+            throw new IllegalArgumentException("Latency spec must look like kind:params, got " + spec);
+        }
+        String params = parts[1].trim();
+        return switch (parts[0].trim().toLowerCase()) {
+            case "fixed" -> new LatencyDistribution(spec, Kind.FIXED, Double.parseDouble(params), 0);
+            case "uniform" -> {
+                String[] range = params.split("-", 2);
+                yield new LatencyDistribution(spec, Kind.UNIFORM, Double.parseDouble(range[0]), Double.parseDouble(range[1]));
+            }
+            case "exp" -> new LatencyDistribution(spec, Kind.EXP, Double.parseDouble(params), 0);
+            case "lognormal" -> {
+                String[] shape = params.split(",", 2);
+                yield new LatencyDistribution(spec, Kind.LOGNORMAL, Double.parseDouble(shape[0]), Double.parseDouble(shape[1]));
+            }
+            default -> throw new IllegalArgumentException("Unknown latency distribution " + parts[0]);
+        };
+    }
+
+    Duration next() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        double millis = switch (kind) {
+            case FIXED -> a;
+            case UNIFORM -> a + random.nextDouble() * (b - a);
+            case EXP -> -a * Math.log(1.0 - random.nextDouble());
+            case LOGNORMAL -> a * Math.exp(b * random.nextGaussian());
+        };
+        return Duration.ofNanos((long) (Math.max(0, millis) * 1_000_000));
+    }
+
+    @Override
+    public String toString() {
+        return spec;
+    }
+}
@@ -0,0 +1,344 @@
+package com.trading.bot.soak;
+
+import com.sun.management.GarbageCollectionNotificationInfo;
+import com.trading.bot.MarketMonitoringAgentApplication;
+import com.trading.bot.service.metrics.PipelineMetrics;
+import com.trading.bot.service.metrics.PipelineStage;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.distribution.CountAtBucket;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import tools.jackson.databind.SerializationFeature;
+import tools.jackson.databind.json.JsonMapper;
+
+import javax.management.NotificationEmitter;
+import javax.management.openmbean.CompositeData;
+import java.io.File;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Soak driver: starts {@link FakeBinanceExchange} and {@link StubAgent},
+ * boots the whole application against them, lets it warm up, then measures
+ * a fixed window and prints (and writes as JSON) sustained tick and
+ * decision rates, decision latency percentiles, heap and GC pauses.
+ * <p>
+ * Run with {@code mvn -Psoak verify -DskipTests}; knobs are system
+ * properties ({@code soak.symbols}, {@code soak.updates-per-second},
+ * {@code soak.agent-latency}, ...), and any application property can be
+ * overridden with {@code -Dsoak.jvm-args="-Dpython.agent.batch.enabled=true"}.
+ * Exits with status 1 when {@code soak.min-ticks-per-second} or
+ * {@code soak.max-p99-ms} is set and missed.
+ * <p>
+ * Stand-ins share the JVM with the service, so heap and GC figures include
+ * them; they are kept allocation-light for that reason.
+ */
+public final class SoakRunner {
+
+    private static final double[] QUANTILES = {0.5, 0.9, 0.99, 0.999};
+    private static final String[] QUANTILE_NAMES = {"p50", "p90", "p99", "p999"};
+
+    private final MeterRegistry registry;
+    private final Map<String, GcStats> gcStats = new ConcurrentHashMap<>();
+    private volatile boolean measuring;
+
+    private SoakRunner(MeterRegistry registry) {
+        this.registry = registry;
+    }
+
+    public static void main(String[] args) throws Exception {
+        int symbolCount = Integer.getInteger("soak.symbols", 50);
+        String intervals = System.getProperty("soak.intervals", "1s");
+        double updatesPerSecond = Double.parseDouble(System.getProperty("soak.updates-per-second", "4"));
+        LatencyDistribution agentLatency = LatencyDistribution.parse(
+                System.getProperty("soak.agent-latency", "lognormal:5,0.5"));
+        int warmupSeconds = Integer.getInteger("soak.warmup-seconds", 15);
+        int durationSeconds = Integer.getInteger("soak.duration-seconds", 60);
+        double minTicksPerSecond = Double.parseDouble(System.getProperty("soak.min-ticks-per-second", "0"));
+        double maxP99Millis = Double.parseDouble(System.getProperty("soak.max-p99-ms", "0"));
+        File reportFile = new File(System.getProperty("soak.report", "target/soak-report.json"));
+
+        FakeBinanceExchange exchange = new FakeBinanceExchange(updatesPerSecond);
+        StubAgent agent = new StubAgent(agentLatency);
+        exchange.start();
+        agent.start();
+
+        List<String> symbols = new ArrayList<>();
+        for (int i = 0; i < symbolCount; i++) {
+            symbols.add(String.format("SOAK%04dUSDT", i));
+        }
+        Map<String, Object> appProperties = new LinkedHashMap<>();
+        appProperties.put("server.port", 0);
+        appProperties.put("market.binance.combined-stream-url", "ws://localhost:" + exchange.port() + "/stream");
+        appProperties.put("market.binance.rest-url", "http://localhost:" + exchange.port());
+        appProperties.put("market.binance.symbols", String.join(",", symbols));
+        appProperties.put("market.binance.intervals", intervals);
+        appProperties.put("market.replay.enabled", false);
+        appProperties.put("market.depth.enabled", false);
+        appProperties.put("market.trades.enabled", false);
+        appProperties.put("market.journal.enabled", false);
+        appProperties.put("persistence.enabled", false);
+        appProperties.put("python.agent.base-url", "http://localhost:" + agent.port());
+        // per-tick INFO logging would dominate the profile at soak rates
+        appProperties.put("logging.level.com.trading.bot", "WARN");
+
+        // system properties outrank application.yaml; ones already given with -D win
+        appProperties.forEach((key, value) -> {
+            if (System.getProperty(key) == null) {
+                System.setProperty(key, String.valueOf(value));
+            }
+        });
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(MarketMonitoringAgentApplication.class)
+                .run(args);
+        int exitCode = 0;
+        try {
+            SoakRunner runner = new SoakRunner(context.getBean(MeterRegistry.class));
+            runner.listenForGc();
+
+            System.out.printf("Soak: %d symbols x %s at %.1f updates/s per stream, agent %s; warming up %ds%n",
+                    symbolCount, intervals, updatesPerSecond, agentLatency, warmupSeconds);
+            Thread.sleep(TimeUnit.SECONDS.toMillis(warmupSeconds));
+
+            Window start = runner.sample(exchange, agent);
+            runner.measuring = true;
+            long heapPeak = 0;
+            for (int s = 0; s < durationSeconds; s++) {
+                Thread.sleep(1000);
+                heapPeak = Math.max(heapPeak, ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed());
+            }
+            runner.measuring = false;
+            Window end = runner.sample(exchange, agent);
+
+            Map<String, Object> report = runner.report(start, end, heapPeak);
+            report.put("config", Map.of("symbols", symbolCount, "intervals", intervals,
+                    "updatesPerSecond", updatesPerSecond, "agentLatency", agentLatency.toString(),
+                    "warmupSeconds", warmupSeconds, "durationSeconds", durationSeconds));
+            String json = JsonMapper.builder().enable(SerializationFeature.INDENT_OUTPUT).build()
+                    .writeValueAsString(report);
+            System.out.println(json);
+            if (reportFile.getParentFile() != null) {
+                reportFile.getParentFile().mkdirs();
+            }
+            Files.writeString(reportFile.toPath(), json);
+            System.out.println("Soak report written to " + reportFile.getAbsolutePath());
+
+            double ticksPerSecond = (double) report.get("ticksPerSecond");
+            Object p99 = ((Map<?, ?>) report.get("decisionLatencyMs")).get("p99");
+            if (minTicksPerSecond > 0 && ticksPerSecond < minTicksPerSecond) {
+                System.out.printf("FAILED: %.1f ticks/s is below soak.min-ticks-per-second=%.1f%n",
+                        ticksPerSecond, minTicksPerSecond);
+                exitCode = 1;
+            }
+            if (maxP99Millis > 0 && (!(p99 instanceof Double millis) || millis > maxP99Millis)) {
+                System.out.printf("FAILED: decision p99 %s ms exceeds soak.max-p99-ms=%.1f%n", p99, maxP99Millis);
+                exitCode = 1;
+            }
+        } finally {
+            context.close();
+            agent.stop();
+            exchange.stop();
+        }
+        System.exit(exitCode);
+    }
+
+    private void listenForGc() {
+        for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+            if (gc instanceof NotificationEmitter emitter) {
+                emitter.addNotificationListener((notification, handback) -> {
+                    if (measuring && GarbageCollectionNotificationInfo.GARBAGE_COLLECTION_NOTIFICATION
+                            .equals(notification.getType())) {
+                        GarbageCollectionNotificationInfo info =
+                                GarbageCollectionNotificationInfo.from((CompositeData) notification.getUserData());
+                        gcStats.computeIfAbsent(info.getGcName(), name -> new GcStats())
+                                .add(info.getGcInfo().getDuration());
+                    }
+                }, null, null);
+            }
+        }
+    }
+
+    private Window sample(FakeBinanceExchange exchange, StubAgent agent) {
+        Map<PipelineStage, Histogram> histograms = new LinkedHashMap<>();
+        for (PipelineStage stage : List.of(PipelineStage.PARSE, PipelineStage.AGENT, PipelineStage.END_TO_END)) {
+            Collection<Timer> found = registry.find(PipelineMetrics.LATENCY).tag("stage", stage.tag()).timers();
+            histograms.put(stage, Histogram.of(found));
+        }
+        return new Window(System.nanoTime(), exchange.framesSent(), agent.requests(),
+                counter("market.ticks.dropped"), counter("agent.timeouts") + counter("agent.errors"),
+                liveHeapAfterGc(), histograms);
+    }
+
+    private Map<String, Object> report(Window start, Window end, long heapPeak) {
+        double seconds = (end.nanos - start.nanos) / 1e9;
+        Histogram parsed = end.histograms.get(PipelineStage.PARSE).minus(start.histograms.get(PipelineStage.PARSE));
+        Histogram agent = end.histograms.get(PipelineStage.AGENT).minus(start.histograms.get(PipelineStage.AGENT));
+        Histogram decisions = end.histograms.get(PipelineStage.END_TO_END)
+                .minus(start.histograms.get(PipelineStage.END_TO_END));
+
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("seconds", round(seconds));
+        report.put("framesOfferedPerSecond", round((end.framesSent - start.framesSent) / seconds));
+        report.put("ticksPerSecond", round(parsed.count / seconds));
+        report.put("decisionsPerSecond", round(decisions.count / seconds));
+        report.put("agentRequestsPerSecond", round((end.agentRequests - start.agentRequests) / seconds));
+        report.put("ticksDropped", (long) (end.dropped - start.dropped));
+        report.put("agentFailures", (long) (end.agentFailures - start.agentFailures));
+        report.put("decisionLatencyMs", decisions.summary());
+        report.put("agentLatencyMs", agent.summary());
+
+        Map<String, Object> heap = new LinkedHashMap<>();
+        heap.put("peakUsedMb", round(heapPeak / 1048576.0));
+        heap.put("liveAfterGcStartMb", round(start.liveHeap / 1048576.0));
+        heap.put("liveAfterGcEndMb", round(end.liveHeap / 1048576.0));
+        heap.put("maxMb", round(ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getMax() / 1048576.0));
+        report.put("heap", heap);
+
+        Map<String, Object> gc = new LinkedHashMap<>();
+        gcStats.forEach((name, stats) -> gc.put(name, stats.summary(seconds)));
+        report.put("gc", gc);
+        return report;
+    }
+
+    private double counter(String name) {
+        double total = 0;
+        for (Counter counter : registry.find(name).counters()) {
+            total += counter.count();
+        }
+        for (FunctionCounter counter : registry.find(name).functionCounters()) {
+            total += counter.count();
+        }
+        return total;
+    }
+
+    /** Old-generation occupancy after the last collection, i.e. the live set; 0 if not reported. */
+    private static long liveHeapAfterGc() {
+        long live = 0;
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            String name = pool.getName();
+            if (pool.getType() == MemoryType.HEAP && pool.getCollectionUsage() != null
+                    && (name.contains("Old") || name.contains("Tenured"))) {
+                live += pool.getCollectionUsage().getUsed();
+            }
+        }
+        return live;
+    }
+
+    private static double round(double value) {
+        return Math.round(value * 100) / 100.0;
+    }
+
+    private record Window(long nanos, long framesSent, long agentRequests, double dropped, double agentFailures,
+                          long liveHeap, Map<PipelineStage, Histogram> histograms) {
+    }
+
+    /**
+     * Bucket counts of a stage summed over symbols. The pipeline timers
+     * publish cumulative percentile-histogram buckets, so subtracting two
+     * samples gives the distribution of exactly the measured window;
+     * percentiles are reported as the upper bound of their bucket.
+     */
+    private static final class Histogram {
+
+        private final long count;
+        private final double totalMillis;
+        private final double[] bucketMillis;
+        private final double[] cumulative;
+
+        private Histogram(long count, double totalMillis, double[] bucketMillis, double[] cumulative) {
+            this.count = count;
+            this.totalMillis = totalMillis;
+            this.bucketMillis = bucketMillis;
+            this.cumulative = cumulative;
+        }
+
+        static Histogram of(Collection<Timer> timers) {
+            long count = 0;
+            double total = 0;
+            double[] bounds = new double[0];
+            double[] cumulative = new double[0];
+            for (Timer timer : timers) {
+                var snapshot = timer.takeSnapshot();
+                CountAtBucket[] buckets = snapshot.histogramCounts();
+                if (bounds.length == 0) {
+                    bounds = new double[buckets.length];
+                    cumulative = new double[buckets.length];
+                    for (int b = 0; b < buckets.length; b++) {
+                        bounds[b] = buckets[b].bucket(TimeUnit.MILLISECONDS);
+                    }
+                }
+                for (int b = 0; b < Math.min(buckets.length, cumulative.length); b++) {
+                    cumulative[b] += buckets[b].count();
+                }
+                count += snapshot.count();
+                total += snapshot.total(TimeUnit.MILLISECONDS);
+            }
+            return new Histogram(count, total, bounds, cumulative);
+        }
+
+        Histogram minus(Histogram earlier) {
+            double[] diff = cumulative.clone();
+            for (int b = 0; b < Math.min(diff.length, earlier.cumulative.length); b++) {
+                diff[b] -= earlier.cumulative[b];
+            }
+            return new Histogram(count - earlier.count, totalMillis - earlier.totalMillis, bucketMillis, diff);
+        }
+
+        Map<String, Object> summary() {
+            Map<String, Object> summary = new LinkedHashMap<>();
+            summary.put("count", count);
+            summary.put("mean", count == 0 ? null : round(totalMillis / count));
+            for (int i = 0; i < QUANTILES.length; i++) {
+                summary.put(QUANTILE_NAMES[i], quantile(QUANTILES[i]));
+            }
+            return summary;
+        }
+
+        private Double quantile(double q) {
+            if (count == 0) {
+                return null;
+            }
+            double rank = q * count;
+            for (int b = 0; b < cumulative.length; b++) {
+                if (cumulative[b] >= rank) {
+                    return round(bucketMillis[b]);
+                }
+            }
+            return null;
+        }
+    }
+
+    private static final class GcStats {
+
+        private long count;
+        private long totalMillis;
+        private long maxMillis;
+
+        synchronized void add(long millis) {
+            count++;
+            totalMillis += millis;
+            maxMillis = Math.max(maxMillis, millis);
+        }
+
+        synchronized Map<String, Object> summary(double seconds) {
+            Map<String, Object> summary = new LinkedHashMap<>();
+            summary.put("count", count);
+            summary.put("totalMs", totalMillis);
+            summary.put("maxMs", maxMillis);
+            summary.put("percentOfWallClock", round(100.0 * totalMillis / (seconds * 1000)));
+            return summary;
+        }
+    }
+}
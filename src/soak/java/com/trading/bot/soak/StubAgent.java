@@ -0,0 +1,86 @@
+package com.trading.bot.soak;
+
+import reactor.core.publisher.Mono;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.server.HttpServer;
+
+import java.util.StringJoiner;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Local stand-in for the Python agent: answers {@code /api/agent/on-tick},
+ * the batch endpoint and {@code /health}, delaying each answer by a sample
+ * from the configured distribution. It always holds, with a flat account
+ * marked at the tick's close, so the stub costs next to nothing and the
+ * measured time is the service's own plus the injected delay.
+ */
+final class StubAgent {
+
+    private final LatencyDistribution latency;
+    private final LongAdder requests = new LongAdder();
+    private DisposableServer server;
+
+    StubAgent(LatencyDistribution latency) {
+        this.latency = latency;
+    }
+
+    void start() {
+        server = HttpServer.create()
+                .port(0)
+                .route(routes -> routes
+                        .post("/api/agent/on-tick", (request, response) -> request.receive().aggregate().asString()
+                                .flatMap(body -> Mono.delay(latency.next()).thenReturn(decision(body, 0)))
+                                .flatMap(decision -> response.header("Content-Type", "application/json")
+                                        .sendString(Mono.just(decision)).then()))
+                        .post("/api/agent/on-tick/batch", (request, response) -> request.receive().aggregate().asString()
+                                .flatMap(body -> Mono.delay(latency.next()).thenReturn(decisions(body)))
+                                .flatMap(decisions -> response.header("Content-Type", "application/json")
+                                        .sendString(Mono.just(decisions)).then()))
+                        .get("/health", (request, response) -> response.sendString(Mono.just("ok"))))
+                .bindNow();
+    }
+
+    void stop() {
+        if (server != null) {
+            server.disposeNow();
+        }
+    }
+
+    int port() {
+        return server.port();
+    }
+
+    long requests() {
+        return requests.sum();
+    }
+
+    private String decisions(String body) {
+        StringJoiner joined = new StringJoiner(",", "[", "]");
+        for (int from = body.indexOf("\"symbol\""); from >= 0; from = body.indexOf("\"symbol\"", from + 1)) {
+            joined.add(decision(body, from));
+        }
+        return joined.toString();
+    }
+
+    /** Decision for the tick whose {@code "symbol"} key is at or after {@code from}. */
+    private String decision(String body, int from) {
+        requests.increment();
+        String close = field(body, "\"close\"", from);
+        return "{\"trades\":[],\"account\":{\"balance\":10000.0,\"equity\":10000.0,\"position_side\":\"FLAT\","
+                + "\"position_size\":0.0,\"avg_entry_price\":0.0,\"last_price\":" + (close.isEmpty() ? "null" : close)
+                + ",\"realized_pnl\":0.0},\"debug\":{\"strategy_action\":\"HOLD\",\"strategy_reason\":\"soak\"}}";
+    }
+
+    private static String field(String body, String key, int from) {
+        int at = body.indexOf(key, from);
+        if (at < 0) {
+            return "";
+        }
+        int start = body.indexOf(':', at) + 1;
+        int end = start;
+        while (end < body.length() && ",}]".indexOf(body.charAt(end)) < 0) {
+            end++;
+        }
+        return body.substring(start, end).trim();
+    }
+}
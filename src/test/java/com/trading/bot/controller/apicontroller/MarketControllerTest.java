@@ -0,0 +1,136 @@
+package com.trading.bot.controller.apicontroller;
+
+import com.trading.bot.config.MarketProperties;
+import com.trading.bot.config.SnapshotProperties;
+import com.trading.bot.service.snapshot.SnapshotStore;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+class MarketControllerTest {
+
+    private static final String TICKS = SnapshotStore.tickKey("BTCUSDT", "1s");
+
+    private final SnapshotStore snapshotStore = new SnapshotStore();
+    private final MockMvc mvc = MockMvcBuilders.standaloneSetup(new MarketController(null, marketProps(), null,
+            null, null, null, null, snapshotStore, snapshotProps())).build();
+
+    @Test
+    void currentAnswersNotModifiedWhileTheEtagMatches() throws Exception {
+        mvc.perform(get("/api/market/current")).andExpect(status().isNoContent());
+        snapshotStore.publish(TICKS, bytes("{\"close\":1}"));
+
+        MvcResult first = mvc.perform(get("/api/market/current"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(MarketController.SEQ_HEADER, "1"))
+                .andExpect(content().string("{\"close\":1}"))
+                .andReturn();
+        String etag = first.getResponse().getHeader(HttpHeaders.ETAG);
+        assertNotNull(etag);
+
+        mvc.perform(get("/api/market/current").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, etag));
+
+        snapshotStore.publish(TICKS, bytes("{\"close\":2}"));
+        mvc.perform(get("/api/market/current").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk())
+                .andExpect(header().string(MarketController.SEQ_HEADER, "2"));
+    }
+
+    @Test
+    void longPollWaitsForANewerSnapshot() throws Exception {
+        snapshotStore.publish(TICKS, bytes("{\"close\":1}"));
+
+        MvcResult idle = mvc.perform(get("/api/market/current/poll?since=1&timeoutMs=20"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        mvc.perform(asyncDispatch(idle)).andExpect(status().isNoContent());
+
+        MvcResult pending = mvc.perform(get("/api/market/current/poll?since=1&timeoutMs=5000"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        snapshotStore.publish(TICKS, bytes("{\"close\":2}"));
+        mvc.perform(asyncDispatch(pending))
+                .andExpect(status().isOk())
+                .andExpect(header().string(MarketController.SEQ_HEADER, "2"))
+                .andExpect(content().string("{\"close\":2}"));
+    }
+
+    @Test
+    void longPollAheadOfTheChannelGetsTheCurrentSnapshot() throws Exception {
+        snapshotStore.publish(TICKS, bytes("{\"close\":1}"));
+
+        MvcResult restarted = mvc.perform(get("/api/market/current/poll?since=500&timeoutMs=5000"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        mvc.perform(asyncDispatch(restarted))
+                .andExpect(status().isOk())
+                .andExpect(header().string(MarketController.SEQ_HEADER, "1"));
+    }
+
+    @Test
+    void waitingOnUnknownChannelsIsRefused() throws Exception {
+        mvc.perform(get("/api/market/current/poll?symbol=NOPEUSDT&timeoutMs=20")).andExpect(status().isNotFound());
+        mvc.perform(get("/api/market/current/poll?interval=7s&timeoutMs=20")).andExpect(status().isNotFound());
+        mvc.perform(get("/api/market/last-decision/poll?symbol=NOPEUSDT&timeoutMs=20"))
+                .andExpect(status().isNotFound());
+        mvc.perform(get("/api/market/stream?symbol=NOPEUSDT")).andExpect(status().isNotFound());
+
+        snapshotStore.publish(SnapshotStore.tickKey("BTCUSDT", "100t"), bytes("{\"close\":1}"));
+        MvcResult live = mvc.perform(get("/api/market/current/poll?interval=100t&timeoutMs=5000"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        mvc.perform(asyncDispatch(live)).andExpect(status().isOk());
+    }
+
+    @Test
+    void streamSendsCurrentSnapshotsThenUpdates() throws Exception {
+        snapshotStore.publish(TICKS, bytes("{\"close\":1}"));
+        snapshotStore.publish(SnapshotStore.decisionKey("BTCUSDT"), bytes("{\"action\":\"HOLD\"}"));
+
+        MvcResult stream = mvc.perform(get("/api/market/stream"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        snapshotStore.publish(TICKS, bytes("{\"close\":2}"));
+
+        String update = "id:2\nevent:market\ndata:{\"close\":2}\n\n";
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!stream.getResponse().getContentAsString().contains(update) && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+        String body = stream.getResponse().getContentAsString();
+        assertTrue(body.startsWith("id:1\nevent:market\ndata:{\"close\":1}\n\n"), body);
+        assertTrue(body.contains("id:1\nevent:decision\ndata:{\"action\":\"HOLD\"}\n\n"), body);
+        assertTrue(body.contains(update), body);
+    }
+
+    private static MarketProperties marketProps() {
+        MarketProperties props = new MarketProperties();
+        props.setSymbol("BTCUSDT");
+        return props;
+    }
+
+    private static SnapshotProperties snapshotProps() {
+        SnapshotProperties props = new SnapshotProperties();
+        props.setSseHeartbeatMs(0);
+        return props;
+    }
+
+    private static byte[] bytes(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+}
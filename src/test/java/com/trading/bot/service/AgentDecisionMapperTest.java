@@ -0,0 +1,28 @@
+package com.trading.bot.service;
+
+import com.trading.bot.config.TradingProperties;
+import com.trading.bot.domain.dto.AgentDecisionDto;
+import com.trading.bot.domain.dto.MarketTickDto;
+import com.trading.bot.service.agent.RuleBasedFallbackStrategy;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AgentDecisionMapperTest {
+
+    private final AgentDecisionMapper mapper = new AgentDecisionMapper(new TradingProperties());
+
+    @Test
+    void fallbackBeforeAnyAgentAnswerReportsNoAccount() {
+        MarketTickDto tick = new MarketTickDto("BTCUSDT", "1s", null, 1000, 1999, 100, 100, 100, 100, 1, true);
+
+        AgentDecisionDto decision = mapper.toAgentDecision(new RuleBasedFallbackStrategy().decide(tick), tick);
+
+        assertEquals("HOLD", decision.getAction());
+        assertEquals(100.0, decision.getPrice());
+        assertNull(decision.getBalance());
+        assertNull(decision.getEquity());
+        assertNull(decision.getRoiPct());
+        assertNull(decision.getRealizedPnl());
+    }
+}
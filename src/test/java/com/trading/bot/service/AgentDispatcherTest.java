@@ -0,0 +1,183 @@
+package com.trading.bot.service;
+
+import com.trading.bot.config.PythonAgentProperties;
+import com.trading.bot.domain.dto.BotDecisionDto;
+import com.trading.bot.domain.dto.DispatchStatsDto;
+import com.trading.bot.domain.dto.MarketTickDto;
+import com.trading.bot.service.agent.RuleBasedFallbackStrategy;
+import com.trading.bot.service.metrics.PipelineMetrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AgentDispatcherTest {
+
+    private final PythonAgentProperties props = new PythonAgentProperties();
+    private final HeldAgentClient agent = new HeldAgentClient();
+    private final AgentDispatcher dispatcher = new AgentDispatcher(agent, props,
+            new PipelineMetrics(new SimpleMeterRegistry()), new RuleBasedFallbackStrategy());
+
+    @Test
+    void limitsInFlightConflatesToLatestAndKeepsTickOrder() {
+        props.setMaxInFlightPerSymbol(2);
+        props.getDispatch().setPolicy(PythonAgentProperties.DispatchPolicy.EVERY_UPDATE);
+        Sinks.Many<MarketTickDto> ticks = Sinks.many().unicast().onBackpressureBuffer();
+
+        StepVerifier.create(dispatcher.dispatch("BTCUSDT", ticks.asFlux(), true).map(d -> d.tick().getClose()))
+                .then(() -> {
+                    for (int i = 1; i <= 5; i++) {
+                        ticks.tryEmitNext(tick(i, false));
+                    }
+                })
+                .then(() -> {
+                    assertEquals(List.of(1.0, 2.0), agent.sentCloses());
+                    assertEquals(2, stats().getInFlight());
+                    agent.answer(1);
+                })
+                .expectNoEvent(Duration.ofMillis(10))
+                .then(() -> agent.answer(0))
+                .expectNext(1.0, 2.0)
+                .then(() -> {
+                    assertEquals(List.of(1.0, 2.0, 5.0), agent.sentCloses());
+                    assertEquals(2, stats().getConflated());
+                    agent.answer(2);
+                    ticks.tryEmitComplete();
+                })
+                .expectNext(5.0)
+                .expectComplete()
+                .verify(Duration.ofSeconds(1));
+
+        assertEquals(3, stats().getDispatched());
+        assertEquals(0, stats().getInFlight());
+    }
+
+    @Test
+    void withoutConflationEveryTickWaitsForAFreeSlot() {
+        props.setMaxInFlightPerSymbol(1);
+        props.getDispatch().setPolicy(PythonAgentProperties.DispatchPolicy.EVERY_UPDATE);
+        Sinks.Many<MarketTickDto> ticks = Sinks.many().unicast().onBackpressureBuffer();
+
+        StepVerifier.create(dispatcher.dispatch("BTCUSDT", ticks.asFlux(), false).map(d -> d.tick().getClose()))
+                .then(() -> {
+                    for (int i = 1; i <= 3; i++) {
+                        ticks.tryEmitNext(tick(i, false));
+                    }
+                    ticks.tryEmitComplete();
+                    assertEquals(List.of(1.0), agent.sentCloses());
+                    agent.answer(0);
+                })
+                .expectNext(1.0)
+                .then(() -> {
+                    assertEquals(List.of(1.0, 2.0), agent.sentCloses());
+                    agent.answer(1);
+                })
+                .expectNext(2.0)
+                .then(() -> agent.answer(2))
+                .expectNext(3.0)
+                .expectComplete()
+                .verify(Duration.ofSeconds(1));
+
+        assertEquals(0, stats().getConflated());
+        assertEquals(3, stats().getDispatched());
+    }
+
+    @Test
+    void countsEmptyAgentAnswersApartFromConflation() {
+        props.getDispatch().setPolicy(PythonAgentProperties.DispatchPolicy.EVERY_UPDATE);
+
+        StepVerifier.create(dispatcher.dispatch("BTCUSDT", Flux.just(tick(1, true)), true))
+                .then(() -> agent.calls.get(0).tryEmitEmpty())
+                .expectComplete()
+                .verify(Duration.ofSeconds(1));
+
+        assertEquals(1, stats().getEmpty());
+        assertEquals(0, stats().getConflated());
+    }
+
+    @Test
+    void hedgePublishesFallbackAtDeadlineThenReconcilesAgentAnswer() {
+        props.getHedge().setEnabled(true);
+        props.getHedge().setDeadlineMs(300);
+
+        StepVerifier.withVirtualTime(() -> dispatcher.dispatch("BTCUSDT", Flux.just(tick(1, true)), true))
+                .expectSubscription()
+                .expectNoEvent(Duration.ofMillis(299))
+                .thenAwait(Duration.ofMillis(1))
+                .assertNext(d -> {
+                    assertEquals(DecisionSource.FALLBACK, d.source());
+                    assertFalse(d.reconciled());
+                })
+                .then(() -> agent.answer(0))
+                .assertNext(d -> {
+                    assertEquals(DecisionSource.AGENT, d.source());
+                    assertTrue(d.reconciled());
+                    assertSame(agent.decisions.get(0), d.decision());
+                })
+                .expectComplete()
+                .verify(Duration.ofSeconds(1));
+    }
+
+    @Test
+    void hedgeFallsBackWhenTheAgentGivesNoAnswer() {
+        props.getHedge().setEnabled(true);
+        props.getHedge().setDeadlineMs(300);
+
+        StepVerifier.withVirtualTime(() -> dispatcher.dispatch("BTCUSDT", Flux.just(tick(1, true)), true))
+                .expectSubscription()
+                .then(() -> agent.calls.get(0).tryEmitEmpty())
+                .assertNext(d -> {
+                    assertEquals(DecisionSource.FALLBACK, d.source());
+                    assertFalse(d.reconciled());
+                })
+                .expectComplete()
+                .verify(Duration.ofSeconds(1));
+    }
+
+    private DispatchStatsDto stats() {
+        return dispatcher.getStats().get(0);
+    }
+
+    private static MarketTickDto tick(double close, boolean finalBar) {
+        return new MarketTickDto("BTCUSDT", "1s", null, 1000, 1999, close, close, close, close, 1, finalBar);
+    }
+
+    /**
+     * Holds every agent call until the test answers it.
+     */
+    private static final class HeldAgentClient extends PythonAgentClient {
+
+        private final List<MarketTickDto> sent = new ArrayList<>();
+        private final List<Sinks.One<BotDecisionDto>> calls = new ArrayList<>();
+        private final List<BotDecisionDto> decisions = new ArrayList<>();
+
+        private HeldAgentClient() {
+            super(null, null, null, null, null, null);
+        }
+
+        @Override
+        public Mono<BotDecisionDto> sendTickAndGetDecision(MarketTickDto tick) {
+            Sinks.One<BotDecisionDto> call = Sinks.one();
+            sent.add(tick);
+            calls.add(call);
+            decisions.add(new BotDecisionDto());
+            return call.asMono();
+        }
+
+        private void answer(int call) {
+            calls.get(call).tryEmitValue(decisions.get(call));
+        }
+
+        private List<Double> sentCloses() {
+            return sent.stream().map(MarketTickDto::getClose).toList();
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package com.trading.bot.service;
+
+import com.trading.bot.config.PythonAgentProperties;
+import com.trading.bot.domain.dto.MarketTickDto;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DispatchGateTest {
+
+    @Test
+    void skipsIdenticalUpdatesAndSmallMovesOnChange() {
+        PythonAgentProperties.Dispatch config = new PythonAgentProperties.Dispatch();
+        config.setMinPriceChangePct(0.1);
+        config.setMinVolumeChangePct(50);
+        DispatchGate gate = new DispatchGate(config);
+
+        assertTrue(gate.admit(tick(1000, 100.0, 10, false)));
+        assertFalse(gate.admit(tick(1000, 100.0, 10, false)));
+        assertFalse(gate.admit(tick(1000, 100.05, 12, false)));
+        assertTrue(gate.admit(tick(1000, 100.2, 12, false)));
+        assertTrue(gate.admit(tick(1000, 100.2, 12, true)));
+        assertFalse(gate.admit(tick(1000, 100.2, 12, true)));
+        assertTrue(gate.admit(tick(2000, 100.2, 0.1, false)));
+    }
+
+    @Test
+    void finalOnlyWaitsForClosedBars() {
+        PythonAgentProperties.Dispatch config = new PythonAgentProperties.Dispatch();
+        config.setPolicy(PythonAgentProperties.DispatchPolicy.FINAL_ONLY);
+        DispatchGate gate = new DispatchGate(config);
+
+        assertFalse(gate.admit(tick(1000, 100.0, 10, false)));
+        assertTrue(gate.admit(tick(1000, 101.0, 11, true)));
+        assertFalse(gate.admit(tick(2000, 102.0, 1, false)));
+        assertTrue(gate.admit(tick(2000, 102.0, 2, true)));
+    }
+
+    private static MarketTickDto tick(long openTime, double close, double volume, boolean finalBar) {
+        return new MarketTickDto("BTCUSDT", "1s", null, openTime, openTime + 999,
+                close, close, close, close, volume, finalBar);
+    }
+}
@@ -0,0 +1,57 @@
+package com.trading.bot.service;
+
+import com.trading.bot.domain.dto.MarketTickDto;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Sinks;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LiveTicksTest {
+
+    @Test
+    void mergesSessionsIntoOneFluxAndEndsAttachWithTheSession() {
+        LiveTicks liveTicks = new LiveTicks();
+        List<String> seen = new ArrayList<>();
+        var merged = liveTicks.ticks().subscribe(tick -> seen.add(tick.getInterval()));
+
+        Sinks.Many<MarketTickDto> klines = Sinks.many().unicast().onBackpressureBuffer();
+        Sinks.Many<MarketTickDto> trades = Sinks.many().unicast().onBackpressureBuffer();
+        StepVerifier klineSession = StepVerifier.create(liveTicks.attach(klines.asFlux())).expectComplete()
+                .verifyLater();
+        StepVerifier tradeSession = StepVerifier.create(liveTicks.attach(trades.asFlux()))
+                .expectErrorMessage("boom").verifyLater();
+
+        klines.tryEmitNext(tick("1m"));
+        trades.tryEmitNext(tick("250ms"));
+        klines.tryEmitNext(tick("1s"));
+        klines.tryEmitComplete();
+        trades.tryEmitError(new IllegalStateException("boom"));
+
+        klineSession.verify(Duration.ofSeconds(1));
+        tradeSession.verify(Duration.ofSeconds(1));
+        assertEquals(List.of("1m", "250ms", "1s"), seen);
+        assertFalse(merged.isDisposed());
+        merged.dispose();
+    }
+
+    @Test
+    void cancelledMergeEndsAttachedSessions() {
+        LiveTicks liveTicks = new LiveTicks();
+        var merged = liveTicks.ticks().subscribe();
+        Sinks.Many<MarketTickDto> klines = Sinks.many().unicast().onBackpressureBuffer();
+        StepVerifier session = StepVerifier.create(liveTicks.attach(klines.asFlux())).expectComplete().verifyLater();
+
+        merged.dispose();
+
+        session.verify(Duration.ofSeconds(1));
+    }
+
+    private static MarketTickDto tick(String interval) {
+        return new MarketTickDto("BTCUSDT", interval, null, 1000, 1999, 1, 1, 1, 1, 1, true);
+    }
+}
@@ -0,0 +1,70 @@
+package com.trading.bot.service;
+
+import com.trading.bot.domain.dto.MarketTickDto;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Sinks;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TickConflatorTest {
+
+    @Test
+    void keepsFinalBarsAndConflatesOpenBarsPerInterval() {
+        Sinks.Many<MarketTickDto> ticks = Sinks.many().unicast().onBackpressureBuffer();
+        AtomicInteger superseded = new AtomicInteger();
+
+        StepVerifier.create(TickConflator.conflate(ticks.asFlux(), superseded::incrementAndGet), 0)
+                .then(() -> {
+                    ticks.tryEmitNext(tick("1m", 0, 10, true));
+                    ticks.tryEmitNext(tick("1s", 59_000, 11, false));
+                    ticks.tryEmitNext(tick("1m", 60_000, 12, false));
+                    ticks.tryEmitNext(tick("1s", 59_000, 13, true));
+                    ticks.tryEmitNext(tick("1m", 60_000, 14, false));
+                    ticks.tryEmitComplete();
+                })
+                .expectNoEvent(Duration.ofMillis(10))
+                .thenRequest(1)
+                .assertNext(tick -> assertTick(tick, "1m", 10, true))
+                .thenRequest(2)
+                .assertNext(tick -> assertTick(tick, "1s", 13, true))
+                .assertNext(tick -> assertTick(tick, "1m", 14, false))
+                .expectComplete()
+                .verify(Duration.ofSeconds(1));
+
+        assertEquals(2, superseded.get());
+    }
+
+    @Test
+    void newerFinalBarSupersedesPendingFinalBarOfSameInterval() {
+        Sinks.Many<MarketTickDto> ticks = Sinks.many().unicast().onBackpressureBuffer();
+        AtomicInteger superseded = new AtomicInteger();
+
+        StepVerifier.create(TickConflator.conflate(ticks.asFlux(), superseded::incrementAndGet), 0)
+                .then(() -> {
+                    ticks.tryEmitNext(tick("1s", 1000, 1, true));
+                    ticks.tryEmitNext(tick("1s", 2000, 2, true));
+                    ticks.tryEmitComplete();
+                })
+                .thenRequest(5)
+                .assertNext(tick -> assertTick(tick, "1s", 2, true))
+                .expectComplete()
+                .verify(Duration.ofSeconds(1));
+
+        assertEquals(1, superseded.get());
+    }
+
+    private static void assertTick(MarketTickDto tick, String interval, double close, boolean finalBar) {
+        assertEquals(interval, tick.getInterval());
+        assertEquals(close, tick.getClose());
+        assertEquals(finalBar, tick.isFinalBar());
+    }
+
+    private static MarketTickDto tick(String interval, long openTime, double close, boolean finalBar) {
+        return new MarketTickDto("BTCUSDT", interval, null, openTime, openTime + 999,
+                close, close, close, close, 1, finalBar);
+    }
+}
@@ -0,0 +1,113 @@
+package com.trading.bot.service.account;
+
+import com.trading.bot.domain.dto.AccountMarkDto;
+import com.trading.bot.domain.dto.AccountStateDto;
+import com.trading.bot.domain.dto.TradeEventDto;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MarkedAccountTest {
+
+    @Test
+    void marksLongPositionFromAgentSeed() {
+        MarkedAccount account = new MarkedAccount("BTCUSDT");
+        assertFalse(account.shouldPublish());
+
+        AccountStateDto state = new AccountStateDto();
+        state.setBalance(9_000);
+        state.setEquity(10_100);
+        state.setLastPrice(110.0);
+        state.setRealizedPnl(5);
+        state.setPositionSide("LONG");
+        state.setPositionSize(10);
+        state.setAvgEntryPrice(100);
+        state.setTakeProfitPrice(121.0);
+        state.setStopLossPrice(99.0);
+        account.seed(state, List.of(), 110);
+
+        AccountMarkDto seeded = account.mark(110, 1, 10_000);
+        assertEquals(0, seeded.getTicksSinceSeed());
+        assertEquals(10_100, seeded.getEquity());
+
+        AccountMarkDto mark = account.mark(120, 2, 10_000);
+        assertEquals(10_200, mark.getEquity(), 1e-9);
+        assertEquals(200, mark.getUnrealizedPnl(), 1e-9);
+        assertEquals(2.0, mark.getRoiPct(), 1e-9);
+        assertEquals(0.8333333333, mark.getTakeProfitDistancePct(), 1e-9);
+        assertEquals(-17.5, mark.getStopLossDistancePct(), 1e-9);
+        assertEquals(1, mark.getTicksSinceSeed());
+        assertTrue(account.shouldPublish());
+    }
+
+    @Test
+    void shortGainsAsPriceFallsAndFlatPublishesOnce() {
+        MarkedAccount account = new MarkedAccount("ETHUSDT");
+        AccountStateDto state = new AccountStateDto();
+        state.setBalance(1_000);
+        state.setEquity(1_000);
+        state.setPositionSide("SHORT");
+        state.setPositionSize(2);
+        state.setAvgEntryPrice(50);
+        account.seed(state, null, 50);
+
+        assertEquals(1_010, account.mark(45, 1, 1_000).getEquity(), 1e-9);
+
+        TradeEventDto close = new TradeEventDto();
+        close.setSide("BUY");
+        close.setPrice(45);
+        close.setRealizedPnl(10);
+        close.setBalanceAfter(1_010);
+        close.setPositionSizeAfter(0);
+        account.seed(null, List.of(close), 45);
+
+        assertTrue(account.shouldPublish());
+        AccountMarkDto flat = account.mark(45, 2, 1_000);
+        assertNull(flat.getPositionSide());
+        assertEquals(1_010, flat.getEquity(), 1e-9);
+        assertEquals(10, flat.getRealizedPnl(), 1e-9);
+        assertFalse(account.shouldPublish());
+    }
+
+    @Test
+    void tradesBlendEntryOnAddsAndFlipSideOnReversal() {
+        MarkedAccount account = new MarkedAccount("BTCUSDT");
+        AccountStateDto state = new AccountStateDto();
+        state.setBalance(1_000);
+        state.setEquity(1_000);
+        state.setPositionSide("LONG");
+        state.setPositionSize(2);
+        state.setAvgEntryPrice(50);
+        account.seed(state, null, 50);
+
+        account.seed(null, List.of(trade("BUY", 60, 2, 4, 0, 880)), 60);
+        AccountMarkDto added = account.mark(60, 1, 1_000);
+        assertEquals("LONG", added.getPositionSide());
+        assertEquals(4, added.getPositionSize(), 1e-9);
+        assertEquals(55, added.getAvgEntryPrice(), 1e-9);
+        assertEquals(1_020, added.getEquity(), 1e-9);
+
+        account.seed(null, List.of(trade("SELL", 65, 6, 2, 40, 1_300)), 65);
+        AccountMarkDto reversed = account.mark(60, 2, 1_000);
+        assertEquals("SHORT", reversed.getPositionSide());
+        assertEquals(2, reversed.getPositionSize(), 1e-9);
+        assertEquals(65, reversed.getAvgEntryPrice(), 1e-9);
+        assertEquals(10, reversed.getUnrealizedPnl(), 1e-9);
+        assertEquals(1_050, reversed.getEquity(), 1e-9);
+        assertEquals(40, reversed.getRealizedPnl(), 1e-9);
+    }
+
+    private static TradeEventDto trade(String side, double price, double volume, double sizeAfter,
+                                       double realizedPnl, double balanceAfter) {
+        TradeEventDto trade = new TradeEventDto();
+        trade.setSide(side);
+        trade.setPrice(price);
+        trade.setVolume(volume);
+        trade.setPositionSizeAfter(sizeAfter);
+        trade.setRealizedPnl(realizedPnl);
+        trade.setBalanceAfter(balanceAfter);
+        return trade;
+    }
+}
@@ -0,0 +1,118 @@
+package com.trading.bot.service.agent;
+
+import com.trading.bot.config.PythonAgentProperties;
+import com.trading.bot.domain.dto.BotDecisionDto;
+import com.trading.bot.domain.dto.MarketTickDto;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AgentEndpointPoolTest {
+
+    private static final int SYMBOLS = 2000;
+
+    @Test
+    void addingAnInstanceOnlyMovesSymbolsOntoIt() {
+        AgentEndpointPool three = pool(endpoints(3, 16));
+        List<AgentEndpoint> fourEndpoints = endpoints(4, 16);
+        AgentEndpointPool four = pool(fourEndpoints);
+
+        int moved = 0;
+        Map<String, Integer> perEndpoint = new HashMap<>();
+        for (int i = 0; i < SYMBOLS; i++) {
+            String symbol = "SYM" + i + "USDT";
+            assertSame(three.select(symbol), three.select(symbol));
+            String before = three.home(symbol).getUrl();
+            String after = four.home(symbol).getUrl();
+            perEndpoint.merge(after, 1, Integer::sum);
+            if (!before.equals(after)) {
+                assertEquals(fourEndpoints.get(3).getUrl(), after);
+                moved++;
+            }
+        }
+        // roughly a quarter of the symbols move, and the ring stays balanced
+        assertTrue(moved > SYMBOLS / 8 && moved < SYMBOLS / 2, "moved " + moved);
+        perEndpoint.values().forEach(count -> assertTrue(count > SYMBOLS / 8, perEndpoint.toString()));
+    }
+
+    @Test
+    void failsOverStickilyAndReturnsHomeWhenHealthy() {
+        List<AgentEndpoint> endpoints = endpoints(3, 16);
+        AgentEndpointPool pool = pool(endpoints);
+        String symbol = "BTCUSDT";
+        AgentEndpoint home = pool.home(symbol);
+
+        home.setHealthy(false);
+        AgentEndpoint failover = pool.select(symbol);
+        assertNotSame(home, failover);
+        assertSame(failover, pool.select(symbol));
+
+        for (AgentEndpoint endpoint : endpoints) {
+            endpoint.setHealthy(false);
+        }
+        assertNull(pool.select(symbol));
+
+        for (AgentEndpoint endpoint : endpoints) {
+            endpoint.setHealthy(true);
+        }
+        assertSame(home, pool.select(symbol));
+    }
+
+    @Test
+    void saturatedHomeSpillsToAnotherInstance() {
+        Sinks.One<BotDecisionDto> held = Sinks.one();
+        List<AgentEndpoint> endpoints = new ArrayList<>();
+        endpoints.add(endpoint("http://agent-0", tick -> held.asMono(), 1));
+        endpoints.add(endpoint("http://agent-1", tick -> Mono.just(new BotDecisionDto()), 1));
+        AgentEndpointPool pool = pool(endpoints);
+        String symbol = symbolHomedAt(pool, endpoints.get(0));
+
+        pool.send(tick(symbol)).subscribe();
+        assertTrue(endpoints.get(0).isSaturated());
+        assertSame(endpoints.get(1), pool.select(symbol));
+
+        held.tryEmitValue(new BotDecisionDto());
+        assertEquals(0, endpoints.get(0).getInFlight());
+        assertSame(endpoints.get(0), pool.select(symbol));
+    }
+
+    private static String symbolHomedAt(AgentEndpointPool pool, AgentEndpoint endpoint) {
+        for (int i = 0; ; i++) {
+            String symbol = "SYM" + i + "USDT";
+            if (pool.home(symbol) == endpoint) {
+                return symbol;
+            }
+        }
+    }
+
+    private static AgentEndpointPool pool(List<AgentEndpoint> endpoints) {
+        return new AgentEndpointPool(endpoints, 128, 3.0);
+    }
+
+    private static List<AgentEndpoint> endpoints(int count, int maxInFlight) {
+        List<AgentEndpoint> endpoints = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            endpoints.add(endpoint("http://agent-" + i + ":8000", tick -> Mono.just(new BotDecisionDto()), maxInFlight));
+        }
+        return endpoints;
+    }
+
+    private static AgentEndpoint endpoint(String url, AgentTransport transport, int maxInFlight) {
+        AgentResilience resilience = new AgentResilience(new PythonAgentProperties.Resilience(), Duration.ofSeconds(1));
+        return new AgentEndpoint(url, transport, null, true, resilience, maxInFlight, null);
+    }
+
+    private static MarketTickDto tick(String symbol) {
+        MarketTickDto tick = new MarketTickDto();
+        tick.setSymbol(symbol);
+        return tick;
+    }
+}
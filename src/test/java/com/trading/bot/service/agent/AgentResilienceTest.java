@@ -0,0 +1,100 @@
+package com.trading.bot.service.agent;
+
+import com.trading.bot.config.PythonAgentProperties;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AgentResilienceTest {
+
+    @Test
+    void opensAfterConsecutiveFailuresAndRejectsWithoutCalling() {
+        PythonAgentProperties.Resilience config = new PythonAgentProperties.Resilience();
+        config.setFailureThreshold(2);
+        config.setOpenStateMs(60_000);
+        AgentResilience resilience = new AgentResilience(config, Duration.ofSeconds(1));
+
+        assertNull(resilience.protect(Mono.empty()).block());
+        assertEquals(AgentResilience.State.CLOSED, resilience.getState());
+        assertNull(resilience.protect(Mono.empty()).block());
+        assertEquals(AgentResilience.State.OPEN, resilience.getState());
+
+        assertNull(resilience.protect(Mono.just("decision")).block());
+        assertEquals(1, resilience.getRejected());
+    }
+
+    @Test
+    void closesAgainAfterSuccessfulProbe() {
+        PythonAgentProperties.Resilience config = new PythonAgentProperties.Resilience();
+        config.setFailureThreshold(1);
+        config.setOpenStateMs(60_000);
+        AtomicLong clock = new AtomicLong();
+        AgentResilience resilience = new AgentResilience(config, Duration.ofSeconds(1), e -> { }, clock::get);
+
+        resilience.protect(Mono.empty()).block();
+        clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(59_999));
+        assertEquals(AgentResilience.State.OPEN, resilience.getState());
+        clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(1));
+        assertEquals(AgentResilience.State.HALF_OPEN, resilience.getState());
+        assertEquals("decision", resilience.protect(Mono.just("decision")).block());
+        assertEquals(AgentResilience.State.CLOSED, resilience.getState());
+    }
+
+    @Test
+    void derivesTimeoutFromObservedLatency() {
+        PythonAgentProperties.Resilience config = new PythonAgentProperties.Resilience();
+        config.setLatencyWindow(16);
+        config.setMinSamples(16);
+        config.setMinTimeoutMs(5);
+        config.setFailureThreshold(0);
+        AtomicLong clock = new AtomicLong();
+        AgentResilience resilience = new AgentResilience(config, Duration.ofSeconds(1), e -> { }, clock::get);
+        assertEquals(1000, resilience.getTimeoutMillis());
+
+        for (int i = 1; i <= 15; i++) {
+            long latency = TimeUnit.MILLISECONDS.toNanos(i);
+            resilience.protect(Mono.fromSupplier(() -> clock.addAndGet(latency))).block();
+        }
+        assertEquals(1000, resilience.getTimeoutMillis());
+        resilience.protect(Mono.fromSupplier(() -> clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(16)))).block();
+
+        // p99 of 1..16 ms is 16 ms, times the default multiplier of 2
+        assertEquals(32, resilience.getTimeoutMillis());
+        assertNull(resilience.protect(Mono.delay(Duration.ofMillis(200)).thenReturn(1)).block());
+    }
+
+    @Test
+    void recoversWhenLatencyRisesAboveTheLearnedTimeout() {
+        PythonAgentProperties.Resilience config = new PythonAgentProperties.Resilience();
+        config.setLatencyWindow(16);
+        config.setMinSamples(16);
+        config.setMinTimeoutMs(5);
+        config.setFailureThreshold(2);
+        config.setOpenStateMs(1000);
+        AtomicLong clock = new AtomicLong();
+        AgentResilience resilience = new AgentResilience(config, Duration.ofSeconds(1), e -> { }, clock::get);
+        for (int i = 0; i < 16; i++) {
+            resilience.protect(Mono.fromSupplier(() -> clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(5)))).block();
+        }
+        assertEquals(10, resilience.getTimeoutMillis());
+
+        // the agent now needs 50 ms, past the learned 10 ms
+        Mono<Long> slow = Mono.delay(Duration.ofMillis(50))
+                .map(ignored -> clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(50)));
+        assertNull(resilience.protect(slow).block());
+        assertNull(resilience.protect(slow).block());
+        assertEquals(AgentResilience.State.OPEN, resilience.getState());
+        assertEquals(1000, resilience.getTimeoutMillis());
+
+        clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(1000));
+        assertEquals(AgentResilience.State.HALF_OPEN, resilience.getState());
+        assertNotNull(resilience.protect(slow).block());
+        assertEquals(AgentResilience.State.CLOSED, resilience.getState());
+        assertNotNull(resilience.protect(slow).block());
+    }
+}
@@ -0,0 +1,95 @@
+package com.trading.bot.service.agent;
+
+import com.trading.bot.config.PythonAgentProperties;
+import com.trading.bot.domain.dto.MarketTickDto;
+import com.trading.bot.service.codec.PayloadCodecs;
+import com.trading.bot.service.codec.PayloadEncoding;
+import com.trading.bot.service.metrics.PipelineMetrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.netty.handler.codec.http.HttpResponseStatus;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.server.HttpServer;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs the transport against a local agent that refuses CBOR bodies with a
+ * given status and answers JSON ones with {@code jsonStatus}.
+ */
+class HttpAgentTransportTest {
+
+    private final List<String> contentTypes = new CopyOnWriteArrayList<>();
+    private DisposableServer server;
+
+    @AfterEach
+    void tearDown() {
+        if (server != null) {
+            server.disposeNow();
+        }
+    }
+
+    @Test
+    void unsupportedMediaTypeSwitchesToJsonAtOnce() {
+        HttpAgentTransport transport = transport(415, 200);
+
+        assertNotNull(transport.send(tick()).block());
+        assertNotNull(transport.send(tick()).block());
+
+        assertEquals(List.of("application/cbor", "application/json", "application/json"), contentTypes);
+    }
+
+    @Test
+    void badRequestSwitchesOnlyOnceJsonIsAccepted() {
+        HttpAgentTransport transport = transport(400, 200);
+
+        assertNotNull(transport.send(tick()).block());
+        assertNotNull(transport.send(tick()).block());
+
+        assertEquals(List.of("application/cbor", "application/json", "application/json"), contentTypes);
+    }
+
+    @Test
+    void badRequestThatJsonCannotFixKeepsTheEncoding() {
+        HttpAgentTransport transport = transport(400, 400);
+
+        assertNull(transport.send(tick()).block());
+        assertNull(transport.send(tick()).block());
+
+        assertEquals(List.of("application/cbor", "application/json", "application/cbor", "application/json"),
+                contentTypes);
+    }
+
+    private HttpAgentTransport transport(int cborStatus, int jsonStatus) {
+        server = HttpServer.create()
+                .port(0)
+                .route(routes -> routes.post("/api/agent/on-tick", (request, response) -> {
+                    String contentType = request.requestHeaders().get("Content-Type");
+                    contentTypes.add(contentType);
+                    int status = contentType.startsWith("application/cbor") ? cborStatus : jsonStatus;
+                    return request.receive().then(response.status(HttpResponseStatus.valueOf(status))
+                            .header("Content-Type", "application/json")
+                            .sendString(Mono.just(status == 200 ? "{}" : "{\"error\":\"refused\"}"))
+                            .then());
+                }))
+                .bindNow();
+
+        PythonAgentProperties props = new PythonAgentProperties();
+        props.setEncoding(PayloadEncoding.CBOR);
+        return new HttpAgentTransport(WebClient.create("http://localhost:" + server.port()), props,
+                Duration.ofSeconds(2), new PipelineMetrics(new SimpleMeterRegistry()),
+                new PayloadCodecs(JsonMapper.builder().build()));
+    }
+
+    private static MarketTickDto tick() {
+        return new MarketTickDto("BTCUSDT", "1s", null, 1000, 1999, 1, 1, 1, 1, 1, true);
+    }
+}
@@ -0,0 +1,43 @@
+package com.trading.bot.service.agent;
+
+import com.trading.bot.domain.dto.AccountStateDto;
+import com.trading.bot.domain.dto.BotDecisionDto;
+import com.trading.bot.domain.dto.MarketTickDto;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RuleBasedFallbackStrategyTest {
+
+    private final RuleBasedFallbackStrategy strategy = new RuleBasedFallbackStrategy();
+
+    @Test
+    void holdsWithoutKnownPosition() {
+        assertEquals("HOLD", action(strategy.decide(tick(100.0))));
+    }
+
+    @Test
+    void closesLongAtStopLossAndTakeProfit() {
+        AccountStateDto account = new AccountStateDto();
+        account.setPositionSide("LONG");
+        account.setPositionSize(0.5);
+        account.setStopLossPrice(95.0);
+        account.setTakeProfitPrice(110.0);
+        BotDecisionDto last = new BotDecisionDto();
+        last.setAccount(account);
+        strategy.onAgentDecision("BTCUSDT", last);
+
+        assertEquals("HOLD", action(strategy.decide(tick(100.0))));
+        assertEquals("SELL", action(strategy.decide(tick(94.0))));
+        assertEquals("SELL", action(strategy.decide(tick(111.0))));
+        assertSame(account, strategy.decide(tick(100.0)).getAccount());
+    }
+
+    private static String action(BotDecisionDto decision) {
+        return String.valueOf(decision.getDebug().get("strategy_action"));
+    }
+
+    private static MarketTickDto tick(double close) {
+        return new MarketTickDto("BTCUSDT", "1s", null, 1000, 1999, close, close, close, close, 1, false);
+    }
+}
@@ -0,0 +1,126 @@
+package com.trading.bot.service.binance;
+
+import com.trading.bot.config.MarketProperties;
+import com.trading.bot.domain.dto.BinanceKlineMessage;
+import com.trading.bot.service.book.DepthUpdate;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BinanceFrameDecoderTest {
+
+    private static final String COMBINED = "{\"stream\":\"btcusdt@kline_1s\",\"data\":{\"e\":\"kline\",\"E\":1672515782136,"
+            + "\"s\":\"BTCUSDT\",\"k\":{\"t\":1672515780000,\"T\":1672515780999,\"s\":\"BTCUSDT\",\"i\":\"1s\","
+            + "\"f\":100,\"L\":200,\"o\":\"16541.01000000\",\"c\":\"16541.37000000\",\"h\":\"16542.99000000\","
+            + "\"l\":\"16540.00000000\",\"v\":\"12.34567000\",\"n\":100,\"x\":true,\"q\":\"1.0000\","
+            + "\"V\":\"500\",\"Q\":\"0.500\",\"B\":\"123456\"}}}";
+
+    private final BinanceFrameDecoder decoder = new BinanceFrameDecoder(JsonMapper.builder().build(), properties());
+
+    @Test
+    void decodesCombinedStreamFrameInPlace() {
+        KlineFrame frame = new KlineFrame();
+
+        assertTrue(decoder.decodeKline(buffer(COMBINED), decoder.newReader(), frame));
+
+        assertEquals("BTCUSDT", frame.getSymbol());
+        assertEquals("1s", frame.getInterval());
+        assertEquals(1672515780000L, frame.getOpenTime());
+        assertEquals(1672515780999L, frame.getCloseTime());
+        assertEquals(1672515782136L, frame.getEventTime());
+        assertEquals(Double.parseDouble("16541.01000000"), frame.getOpen());
+        assertEquals(Double.parseDouble("16542.99000000"), frame.getHigh());
+        assertEquals(Double.parseDouble("16540.00000000"), frame.getLow());
+        assertEquals(Double.parseDouble("16541.37000000"), frame.getClose());
+        assertEquals(Double.parseDouble("12.34567000"), frame.getVolume());
+        assertTrue(frame.isFinalBar());
+    }
+
+    @Test
+    void reusesKnownSymbolInstances() {
+        assertSame(decodeSymbol(), decodeSymbol());
+    }
+
+    @Test
+    void matchesJacksonPathForRawStreamFrame() {
+        String raw = COMBINED.substring(COMBINED.indexOf("\"data\":") + 7, COMBINED.length() - 1);
+        KlineFrame fast = new KlineFrame();
+        assertTrue(decoder.decodeKline(buffer(raw), decoder.newReader(), fast));
+
+        BinanceKlineMessage msg = decoder.parseBinanceMessage(COMBINED);
+        KlineFrame slow = new KlineFrame().fill(msg);
+
+        assertEquals(slow, fast);
+    }
+
+    @Test
+    void rejectsNonKlineEvents() {
+        String trade = "{\"e\":\"aggTrade\",\"E\":1,\"s\":\"BTCUSDT\",\"p\":\"1.0\"}";
+        assertFalse(decoder.decodeKline(buffer(trade), decoder.newReader(), new KlineFrame()));
+        assertFalse(decoder.decodeKline(buffer("{\"k\":"), decoder.newReader(), new KlineFrame()));
+    }
+
+    @Test
+    void decodesDepthDiffLikeJacksonPath() {
+        String depth = "{\"stream\":\"btcusdt@depth@100ms\",\"data\":{\"e\":\"depthUpdate\",\"E\":1672515782136,"
+                + "\"s\":\"BTCUSDT\",\"U\":157,\"u\":160,\"b\":[[\"16541.01\",\"0.5\"],[\"16540.00\",\"0\"]],"
+                + "\"a\":[[\"16541.37\",\"1.25\"]]}}";
+        DepthUpdate fast = new DepthUpdate();
+        assertTrue(decoder.decodeDepth(buffer(depth), decoder.newReader(), fast));
+        DepthUpdate slow = new DepthUpdate();
+        assertTrue(decoder.parseDepth(depth, slow));
+
+        for (DepthUpdate update : List.of(fast, slow)) {
+            assertEquals("BTCUSDT", update.getSymbol());
+            assertEquals(157, update.getFirstUpdateId());
+            assertEquals(160, update.getFinalUpdateId());
+            assertEquals(2, update.getBidCount());
+            assertEquals(16541.01, update.getBidPrices()[0]);
+            assertEquals(0.0, update.getBidQuantities()[1]);
+            assertEquals(1, update.getAskCount());
+            assertEquals(1.25, update.getAskQuantities()[0]);
+        }
+        assertFalse(decoder.decodeDepth(buffer(COMBINED), decoder.newReader(), new DepthUpdate()));
+    }
+
+    @Test
+    void decodesAggTradeLikeJacksonPath() {
+        String trade = "{\"stream\":\"btcusdt@aggTrade\",\"data\":{\"e\":\"aggTrade\",\"E\":1672515782136,"
+                + "\"s\":\"BTCUSDT\",\"a\":26129,\"p\":\"16541.37\",\"q\":\"0.01250000\",\"f\":100,"
+                + "\"l\":105,\"T\":1672515782130,\"m\":true,\"M\":true}}";
+        TradeFrame fast = new TradeFrame();
+        assertTrue(decoder.decodeTrade(buffer(trade), decoder.newReader(), fast));
+        TradeFrame slow = new TradeFrame();
+        assertTrue(decoder.parseTrade(trade, slow));
+
+        assertEquals(slow, fast);
+        assertEquals(16541.37, fast.getPrice());
+        assertEquals(0.0125, fast.getQuantity());
+        assertEquals(1672515782130L, fast.getTradeTime());
+        assertTrue(fast.isBuyerMaker());
+        assertFalse(decoder.decodeTrade(buffer(COMBINED), decoder.newReader(), new TradeFrame()));
+    }
+
+    private String decodeSymbol() {
+        KlineFrame frame = new KlineFrame();
+        decoder.decodeKline(buffer(COMBINED), decoder.newReader(), frame);
+        return frame.getSymbol();
+    }
+
+    private static DataBuffer buffer(String json) {
+        return DefaultDataBufferFactory.sharedInstance.wrap(json.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static MarketProperties properties() {
+        MarketProperties props = new MarketProperties();
+        props.setSymbol("BTCUSDT");
+        props.setSymbols(List.of("BTCUSDT", "ETHUSDT"));
+        return props;
+    }
+}
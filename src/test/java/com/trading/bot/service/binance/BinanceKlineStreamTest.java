@@ -0,0 +1,101 @@
+package com.trading.bot.service.binance;
+
+import com.trading.bot.config.JournalProperties;
+import com.trading.bot.config.MarketProperties;
+import com.trading.bot.domain.dto.MarketTickDto;
+import com.trading.bot.service.journal.TickJournal;
+import com.trading.bot.service.metrics.PipelineMetrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.socket.client.ReactorNettyWebSocketClient;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.server.HttpServer;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs the stream against a local stand-in for Binance: the first session
+ * delivers bars 1000 and 2000 then drops, the second resumes at 5000, and
+ * REST serves the bars in between.
+ */
+class BinanceKlineStreamTest {
+
+    private DisposableServer server;
+    private Disposable running;
+
+    @AfterEach
+    void tearDown() {
+        if (running != null) {
+            running.dispose();
+        }
+        if (server != null) {
+            server.disposeNow();
+        }
+    }
+
+    @Test
+    void backfillsMissedBarsInOrderBeforeLiveResumes() throws Exception {
+        AtomicInteger sessions = new AtomicInteger();
+        AtomicReference<String> backfillQuery = new AtomicReference<>();
+        server = HttpServer.create()
+                .port(0)
+                .route(routes -> routes
+                        .ws("/stream", (in, out) -> sessions.incrementAndGet() == 1
+                                ? out.sendString(Flux.just(frame(1000, false), frame(2000, false)))
+                                : out.sendString(Flux.just(frame(5000, false)).concatWith(Flux.never())))
+                        .get("/api/v3/klines", (request, response) -> {
+                            backfillQuery.set(request.uri());
+                            return response.header("Content-Type", "application/json")
+                                    .sendString(Mono.just("[" + row(2000) + "," + row(3000) + "," + row(4000) + "]"));
+                        }))
+                .bindNow();
+
+        MarketProperties props = new MarketProperties();
+        props.setSymbols(List.of("BTCUSDT"));
+        props.setCombinedStreamUrl("ws://localhost:" + server.port() + "/stream");
+        props.setReconnectMinBackoffMs(10);
+        props.setReconnectMaxBackoffMs(20);
+        BinanceFrameDecoder decoder = new BinanceFrameDecoder(tools.jackson.databind.json.JsonMapper.builder().build(), props);
+        WebClient rest = WebClient.create("http://localhost:" + server.port());
+        BinanceKlineStream stream = new BinanceKlineStream(new ReactorNettyWebSocketClient(), decoder,
+                new KlineBackfill(rest, decoder), props, new TickJournal(new JournalProperties()),
+                new PipelineMetrics(new SimpleMeterRegistry()));
+
+        List<MarketTickDto> received = new CopyOnWriteArrayList<>();
+        CountDownLatch done = new CountDownLatch(6);
+        running = stream.run(List.of("btcusdt@kline_1s"), ticks -> ticks.doOnNext(tick -> {
+            received.add(tick);
+            done.countDown();
+        })).subscribe();
+
+        assertTrue(done.await(10, TimeUnit.SECONDS), "received " + received.size());
+        assertEquals(List.of(1000L, 2000L, 2000L, 3000L, 4000L, 5000L),
+                received.stream().map(MarketTickDto::getOpenTime).toList());
+        assertTrue(received.get(2).isFinalBar());
+        assertTrue(backfillQuery.get().contains("startTime=2000"), backfillQuery.get());
+    }
+
+    private static String frame(long openTime, boolean finalBar) {
+        return "{\"stream\":\"btcusdt@kline_1s\",\"data\":{\"e\":\"kline\",\"E\":" + (openTime + 500)
+                + ",\"s\":\"BTCUSDT\",\"k\":{\"t\":" + openTime + ",\"T\":" + (openTime + 999)
+                + ",\"s\":\"BTCUSDT\",\"i\":\"1s\",\"o\":\"1.0\",\"c\":\"2.0\",\"h\":\"3.0\",\"l\":\"0.5\","
+                + "\"v\":\"10.0\",\"x\":" + finalBar + "}}}";
+    }
+
+    private static String row(long openTime) {
+        return "[" + openTime + ",\"1.0\",\"3.0\",\"0.5\",\"2.0\",\"10.0\"," + (openTime + 999)
+                + ",\"20.0\",5,\"4.0\",\"8.0\",\"0\"]";
+    }
+}
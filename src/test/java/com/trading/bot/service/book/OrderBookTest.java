@@ -0,0 +1,86 @@
+package com.trading.bot.service.book;
+
+import com.trading.bot.domain.dto.OrderBookDto;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OrderBookTest {
+
+    @Test
+    void buffersUntilSnapshotThenAppliesOnlyNewerDiffs() {
+        OrderBook book = new OrderBook("BTCUSDT", 100);
+
+        assertEquals(OrderBook.Status.BUFFERED, book.onDiff(update(95, 99).addBid(100.0, 9)));
+        assertEquals(OrderBook.Status.BUFFERED, book.onDiff(update(100, 102).addBid(100.0, 3).addAsk(101.0, 0)));
+        assertTrue(book.requestSnapshot());
+        assertFalse(book.requestSnapshot());
+        assertNull(book.view(5, 5));
+
+        assertTrue(book.applySnapshot(update(100, 100).addBid(100.0, 1).addBid(99.0, 2).addAsk(101.0, 4).addAsk(102.0, 5)));
+
+        OrderBookDto view = book.view(5, 5);
+        assertEquals(102, view.getLastUpdateId());
+        assertEquals(100.0, view.getBestBid());
+        assertEquals(3.0, view.getBestBidQty());
+        assertEquals(102.0, view.getBestAsk());
+        assertEquals(2.0, view.getSpread());
+        assertEquals(101.0, view.getMid());
+        assertArrayEquals(new double[]{99.0, 2.0}, view.getBids()[1]);
+        assertEquals(1, view.getAsks().length);
+        assertEquals((5.0 - 5.0) / 10.0, view.getImbalance());
+
+        assertEquals(OrderBook.Status.STALE, book.onDiff(update(101, 102).addBid(100.0, 7)));
+        assertEquals(OrderBook.Status.APPLIED, book.onDiff(update(103, 103).addBid(100.5, 1)));
+        assertEquals(100.5, book.view(0, 5).getBestBid());
+    }
+
+    @Test
+    void rejectsSnapshotOlderThanBufferedDiffs() {
+        OrderBook book = new OrderBook("BTCUSDT", 100);
+        book.onDiff(update(200, 205).addBid(100.0, 1));
+        book.requestSnapshot();
+
+        assertFalse(book.applySnapshot(update(150, 150).addBid(100.0, 1).addAsk(101.0, 1)));
+        assertFalse(book.isSynced());
+        assertTrue(book.applySnapshot(update(201, 201).addBid(100.0, 2).addAsk(101.0, 1)));
+        assertEquals(205, book.view(1, 1).getLastUpdateId());
+    }
+
+    @Test
+    void sequenceBreakDropsBackToBuffering() {
+        OrderBook book = new OrderBook("BTCUSDT", 100);
+        book.onDiff(update(10, 10));
+        book.requestSnapshot();
+        book.applySnapshot(update(10, 10).addBid(1.0, 1).addAsk(2.0, 1));
+
+        assertEquals(OrderBook.Status.GAP, book.onDiff(update(12, 13).addBid(1.5, 1)));
+        assertFalse(book.isSynced());
+        assertTrue(book.requestSnapshot());
+        assertTrue(book.applySnapshot(update(12, 12).addBid(1.0, 1).addAsk(2.0, 1)));
+        assertEquals(1.5, book.view(0, 1).getBestBid());
+    }
+
+    @Test
+    void sidesStaySortedAndCappedAtMaxLevels() {
+        OrderBook book = new OrderBook("BTCUSDT", 3);
+        book.onDiff(update(1, 1));
+        book.requestSnapshot();
+        book.applySnapshot(update(1, 1)
+                .addBid(10.0, 1).addBid(12.0, 1).addBid(11.0, 1).addBid(9.0, 1)
+                .addAsk(15.0, 1).addAsk(13.0, 1).addAsk(14.0, 1));
+        book.onDiff(update(2, 2).addBid(11.0, 0).addAsk(12.5, 2).addAsk(16.0, 1));
+
+        OrderBookDto view = book.view(10, 10);
+        assertArrayEquals(new double[][]{{12.0, 1}, {10.0, 1}}, view.getBids());
+        assertArrayEquals(new double[][]{{12.5, 2}, {13.0, 1}, {14.0, 1}}, view.getAsks());
+    }
+
+    private static DepthUpdate update(long first, long last) {
+        DepthUpdate update = new DepthUpdate();
+        update.setSymbol("BTCUSDT");
+        update.setFirstUpdateId(first);
+        update.setFinalUpdateId(last);
+        return update;
+    }
+}
@@ -0,0 +1,86 @@
+package com.trading.bot.service.candle;
+
+import com.trading.bot.domain.dto.CandleDto;
+import com.trading.bot.domain.dto.MarketTickDto;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CandleBuilderTest {
+
+    @Test
+    void ignoresRepeatedOpenKlineUpdatesAndClosesOnFinalBar() {
+        CandleBuilder builder = new CandleBuilder("BTCUSDT", "1m");
+        List<CandleDto> closed = new ArrayList<>();
+
+        for (int second = 0; second < 60; second++) {
+            long openTime = second * 1000L;
+            builder.update(tick(openTime, 100 + second, 1, false), closed::add);
+            builder.update(tick(openTime, 100 + second, 1, false), closed::add);
+            builder.update(tick(openTime, 100 + second, 1, true), closed::add);
+        }
+
+        assertEquals(1, closed.size());
+        CandleDto bar = closed.get(0);
+        assertEquals(0, bar.getOpenTime());
+        assertEquals(59_999, bar.getCloseTime());
+        assertEquals(100, bar.getOpen());
+        assertEquals(159, bar.getClose());
+        assertEquals(159, bar.getHigh());
+        assertEquals(100, bar.getLow());
+        assertEquals(60, bar.getVolume());
+        assertNull(builder.current());
+    }
+
+    @Test
+    void closesBarWhenNextBucketStartsWithoutFinalBar() {
+        CandleBuilder builder = new CandleBuilder("BTCUSDT", "1m");
+        List<CandleDto> closed = new ArrayList<>();
+
+        builder.update(tick(58_000, 100, 2, true), closed::add);
+        builder.update(tick(59_000, 101, 3, false), closed::add);
+        builder.update(tick(60_000, 102, 1, false), closed::add);
+
+        assertEquals(1, closed.size());
+        assertEquals(5, closed.get(0).getVolume());
+        assertEquals(101, closed.get(0).getClose());
+        assertEquals(60_000, builder.current().getOpenTime());
+    }
+
+    @Test
+    void alignsWeeksToMondayAndMonthsToTheFirstOfTheMonth() {
+        CandleBuilder weekly = new CandleBuilder("BTCUSDT", "1w");
+        CandleBuilder monthly = new CandleBuilder("BTCUSDT", "1M");
+        List<CandleDto> closed = new ArrayList<>();
+        long wednesday = Instant.parse("2024-01-03T10:00:00Z").toEpochMilli();
+        long leapDay = Instant.parse("2024-02-29T23:59:59Z").toEpochMilli();
+
+        weekly.update(tick(wednesday, 100, 1, true), closed::add);
+        monthly.update(tick(leapDay, 100, 1, true), closed::add);
+
+        assertEquals(Instant.parse("2024-01-01T00:00:00Z").toEpochMilli(), weekly.current().getOpenTime());
+        assertEquals(Instant.parse("2024-01-08T00:00:00Z").toEpochMilli() - 1, weekly.current().getCloseTime());
+        assertEquals(1, closed.size());
+        assertEquals(Instant.parse("2024-02-01T00:00:00Z").toEpochMilli(), closed.get(0).getOpenTime());
+        assertEquals(Instant.parse("2024-03-01T00:00:00Z").toEpochMilli() - 1, closed.get(0).getCloseTime());
+        assertNull(monthly.current());
+    }
+
+    @Test
+    void rejectsUnsupportedIntervals() {
+        assertEquals(Instant.parse("2024-01-01T00:00:00Z").toEpochMilli(),
+                Intervals.bucketStart("3M", Instant.parse("2024-03-31T00:00:00Z").toEpochMilli()));
+        assertThrows(IllegalArgumentException.class, () -> Intervals.toMillis("1M"));
+        assertThrows(IllegalArgumentException.class, () -> Intervals.validate("0m"));
+        assertThrows(IllegalArgumentException.class, () -> Intervals.validate("1y"));
+    }
+
+    private static MarketTickDto tick(long openTime, double price, double volume, boolean finalBar) {
+        return new MarketTickDto("BTCUSDT", "1s", null, openTime, openTime + 999,
+                price, price, price, price, volume, finalBar);
+    }
+}
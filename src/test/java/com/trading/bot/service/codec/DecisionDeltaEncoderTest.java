@@ -0,0 +1,52 @@
+package com.trading.bot.service.codec;
+
+import com.trading.bot.domain.dto.AgentDecisionDto;
+import org.junit.jupiter.api.Test;
+import tools.jackson.databind.node.ObjectNode;
+
+import java.util.Set;
+import java.util.TreeSet;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DecisionDeltaEncoderTest {
+
+    @Test
+    void sendsOnlyChangedFieldsBetweenKeyframes() {
+        DecisionDeltaEncoder encoder = new DecisionDeltaEncoder(3);
+        AgentDecisionDto decision = decision("BUY", 16541.0, 0.015);
+
+        ObjectNode first = encoder.next("BTCUSDT", decision);
+        assertTrue(first.get("keyframe").asBoolean());
+        assertEquals(1, first.get("seq").asLong());
+        assertEquals("BUY", first.get("fields").get("action").asString());
+
+        ObjectNode second = encoder.next("BTCUSDT", decision("HOLD", 16541.0, null));
+        assertFalse(second.get("keyframe").asBoolean());
+        assertEquals(Set.of("action", "quantity"), fieldNames(second));
+        assertTrue(second.get("fields").get("quantity").isNull());
+
+        ObjectNode third = encoder.next("BTCUSDT", decision("HOLD", 16541.0, null));
+        assertEquals(Set.of(), fieldNames(third));
+
+        ObjectNode fourth = encoder.next("BTCUSDT", decision("HOLD", 16541.0, null));
+        assertTrue(fourth.get("keyframe").asBoolean());
+        assertTrue(fieldNames(fourth).contains("price"));
+
+        assertTrue(encoder.next("ETHUSDT", decision).get("keyframe").asBoolean());
+    }
+
+    private static Set<String> fieldNames(ObjectNode delta) {
+        return new TreeSet<>(delta.get("fields").propertyNames());
+    }
+
+    private static AgentDecisionDto decision(String action, Double price, Double quantity) {
+        AgentDecisionDto decision = new AgentDecisionDto();
+        decision.setAction(action);
+        decision.setSymbol("BTCUSDT");
+        decision.setPrice(price);
+        decision.setQuantity(quantity);
+        decision.setBalance(10_000.0);
+        return decision;
+    }
+}
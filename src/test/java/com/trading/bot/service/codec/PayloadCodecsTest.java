@@ -0,0 +1,52 @@
+package com.trading.bot.service.codec;
+
+import com.trading.bot.domain.dto.AgentDecisionDto;
+import com.trading.bot.domain.dto.MarketTickDto;
+import org.junit.jupiter.api.Test;
+import tools.jackson.databind.JsonNode;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PayloadCodecsTest {
+
+    private final PayloadCodecs codecs = new PayloadCodecs(JsonMapper.builder().build());
+
+    @Test
+    void binaryEncodingsRoundTripWithEpochMillisTimes() {
+        LocalDateTime timestamp = LocalDateTime.of(2023, 1, 1, 0, 3, 0);
+        MarketTickDto tick = new MarketTickDto("BTCUSDT", "1s", timestamp, 1672531380000L, 1672531380999L,
+                16541.01, 16542.99, 16540.00, 16541.37, 12.34567, true, Map.of("ema_9", 16540.9));
+
+        for (PayloadEncoding encoding : new PayloadEncoding[]{PayloadEncoding.CBOR, PayloadEncoding.SMILE}) {
+            byte[] bytes = codecs.encode(encoding, tick);
+            JsonNode tree = codecs.mapper(encoding).readTree(bytes);
+            assertEquals(timestamp.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli(),
+                    tree.get("timestamp").asLong(), encoding.name());
+            assertEquals(tick, codecs.mapper(encoding).readValue(bytes, MarketTickDto.class), encoding.name());
+        }
+    }
+
+    @Test
+    void binaryEncodingsDropNullsAndShrinkDecisions() {
+        AgentDecisionDto decision = new AgentDecisionDto();
+        decision.setAction("HOLD");
+        decision.setSymbol("BTCUSDT");
+        decision.setBalance(10_000.0);
+        decision.setEquity(10_012.5);
+        decision.setSource("AGENT");
+
+        byte[] json = codecs.encode(PayloadEncoding.JSON, decision);
+        byte[] cbor = codecs.encode(PayloadEncoding.CBOR, decision);
+        byte[] smile = codecs.encode(PayloadEncoding.SMILE, decision);
+
+        assertFalse(codecs.mapper(PayloadEncoding.CBOR).readTree(cbor).has("quantity"));
+        assertTrue(cbor.length < json.length / 2, cbor.length + " vs " + json.length);
+        assertTrue(smile.length < json.length / 2, smile.length + " vs " + json.length);
+        assertEquals(decision, codecs.mapper(PayloadEncoding.SMILE).readValue(smile, AgentDecisionDto.class));
+    }
+}
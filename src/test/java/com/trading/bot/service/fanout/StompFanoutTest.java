@@ -0,0 +1,158 @@
+package com.trading.bot.service.fanout;
+
+import com.trading.bot.config.WebSocketProperties;
+import com.trading.bot.service.codec.PayloadCodecs;
+import com.trading.bot.service.codec.PayloadEncoding;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StompFanoutTest {
+
+    private final RecordingTemplate template = new RecordingTemplate();
+    private final WebSocketProperties props = new WebSocketProperties();
+    private final PayloadCodecs codecs = new PayloadCodecs(JsonMapper.builder().build());
+    private StompFanout fanout;
+
+    @AfterEach
+    void stop() {
+        if (fanout != null) {
+            fanout.stop();
+        }
+    }
+
+    @Test
+    void throttledTierSendsTheLatestPayloadPerKeyOnFlush() {
+        start(List.of(60_000L), List.of());
+
+        fanout.publish("/topic/market", "BTCUSDT", Map.of("close", 1));
+        fanout.publish("/topic/market", "ETHUSDT", Map.of("close", 10));
+        fanout.publish("/topic/market", "BTCUSDT", Map.of("close", 2));
+        assertEquals(List.of("/topic/market", "/topic/market", "/topic/market"), template.destinations());
+        template.sent.clear();
+
+        fanout.flush();
+
+        assertEquals(2, template.sent.size());
+        assertEquals(List.of("/topic/throttled/60000/market", "/topic/throttled/60000/market"),
+                template.destinations());
+        assertEquals(Set.of("{\"close\":2}", "{\"close\":10}"), Set.copyOf(template.bodies()));
+    }
+
+    @Test
+    void flushSendsOnlyWhatArrivedSinceTheLastOne() {
+        start(List.of(60_000L), List.of());
+
+        fanout.publish("/topic/market", "BTCUSDT", Map.of("close", 1));
+        fanout.flush();
+        template.sent.clear();
+
+        fanout.flush();
+        assertTrue(template.sent.isEmpty());
+
+        fanout.publish("/topic/market", "BTCUSDT", Map.of("close", 3));
+        template.sent.clear();
+        fanout.flush();
+        assertEquals(List.of("{\"close\":3}"), template.bodies());
+    }
+
+    @Test
+    void unthrottledPublishesSkipTheTiers() {
+        start(List.of(60_000L), List.of());
+
+        fanout.publishUnthrottled("/topic/agent/decision/delta", Map.of("action", "BUY"));
+        fanout.flush();
+
+        assertEquals(List.of("/topic/agent/decision/delta"), template.destinations());
+    }
+
+    @Test
+    void tiersFlushOnTheirOwnPeriod() throws InterruptedException {
+        start(List.of(50L, 60_000L), List.of());
+
+        fanout.publish("/topic/market", "BTCUSDT", Map.of("close", 1));
+
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!template.destinations().contains("/topic/throttled/50/market")) {
+            assertTrue(System.nanoTime() < deadline, "timed out");
+            Thread.sleep(5);
+        }
+        assertFalse(template.destinations().contains("/topic/throttled/60000/market"));
+    }
+
+    @Test
+    void encodedTopicsAreBinaryAndThrottledUnderTheirOwnSegment() {
+        start(List.of(1000L), List.of(PayloadEncoding.JSON, PayloadEncoding.CBOR));
+
+        fanout.publish("/topic/market", "BTCUSDT", Map.of("close", 1));
+        fanout.flush();
+
+        assertEquals(4, template.sent.size());
+        assertEquals(Set.of("/topic/market", "/topic/cbor/market",
+                "/topic/throttled/1000/market", "/topic/throttled/1000/cbor/market"),
+                Set.copyOf(template.destinations()));
+        for (Sent sent : template.sent) {
+            Message<?> message = sent.message();
+            SimpMessageHeaderAccessor headers = SimpMessageHeaderAccessor.wrap(message);
+            if (sent.destination().contains("/cbor/")) {
+                assertEquals("application/octet-stream", headers.getContentType().toString());
+                assertEquals("cbor", headers.getFirstNativeHeader(StompFanout.ENCODING_HEADER));
+                assertArrayEquals(codecs.encode(PayloadEncoding.CBOR, Map.of("close", 1)),
+                        (byte[]) message.getPayload());
+            } else {
+                assertEquals("application/json", headers.getContentType().toString());
+                assertNull(headers.getFirstNativeHeader(StompFanout.ENCODING_HEADER));
+            }
+        }
+    }
+
+    private void start(List<Long> tiers, List<PayloadEncoding> encodings) {
+        props.setThrottleTiersMs(tiers);
+        props.setEncodings(encodings);
+        fanout = new StompFanout(template, codecs, props);
+        fanout.start();
+    }
+
+    private record Sent(String destination, Message<?> message) {
+    }
+
+    /**
+     * Records every message with its destination instead of handing it to
+     * a broker.
+     */
+    private static final class RecordingTemplate extends SimpMessagingTemplate {
+
+        private final List<Sent> sent = new CopyOnWriteArrayList<>();
+
+        private RecordingTemplate() {
+            super((message, timeout) -> true);
+        }
+
+        @Override
+        public void send(String destination, Message<?> message) {
+            sent.add(new Sent(destination, message));
+        }
+
+        private List<String> destinations() {
+            return sent.stream().map(Sent::destination).toList();
+        }
+
+        private List<String> bodies() {
+            return sent.stream()
+                    .map(s -> new String((byte[]) s.message().getPayload(), StandardCharsets.UTF_8))
+                    .toList();
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package com.trading.bot.service.history;
+
+import com.trading.bot.domain.dto.TickHistoryDto;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TickRingBufferTest {
+
+    @Test
+    void updatesOpenBarInPlace() {
+        TickRingBuffer buffer = new TickRingBuffer(4);
+        buffer.write(1000, 1, 2, 0.5, 1.5, 10);
+        buffer.write(1000, 1, 3, 0.5, 2.5, 12);
+
+        TickHistoryDto result = buffer.read(Long.MIN_VALUE, Long.MAX_VALUE, 10, new TickHistoryDto());
+
+        assertEquals(1, result.getCount());
+        assertEquals(3, result.getHigh()[0]);
+        assertEquals(2.5, result.getClose()[0]);
+    }
+
+    @Test
+    void keepsNewestRowsAfterWrapAround() {
+        TickRingBuffer buffer = new TickRingBuffer(3);
+        for (int i = 1; i <= 5; i++) {
+            buffer.write(i * 1000L, i, i, i, i, i);
+        }
+
+        TickHistoryDto all = buffer.read(Long.MIN_VALUE, Long.MAX_VALUE, 10, new TickHistoryDto());
+        assertArrayEquals(new long[]{3000, 4000, 5000}, all.getOpenTime());
+        assertEquals(3, buffer.size());
+
+        TickHistoryDto range = buffer.read(3500, 5000, 10, new TickHistoryDto());
+        assertArrayEquals(new long[]{4000, 5000}, range.getOpenTime());
+
+        TickHistoryDto limited = buffer.read(Long.MIN_VALUE, Long.MAX_VALUE, 1, new TickHistoryDto());
+        assertArrayEquals(new long[]{5000}, limited.getOpenTime());
+        assertArrayEquals(new double[]{5}, limited.getClose());
+    }
+}
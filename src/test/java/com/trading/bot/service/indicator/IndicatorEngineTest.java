@@ -0,0 +1,120 @@
+package com.trading.bot.service.indicator;
+
+import com.trading.bot.config.IndicatorProperties;
+import com.trading.bot.domain.dto.MarketTickDto;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IndicatorEngineTest {
+
+    private static final double EPS = 1e-9;
+
+    private static final double[] HIGH = {10.5, 11.5, 12.5, 12.0, 13.5, 14.5};
+    private static final double[] LOW = {9.5, 10.2, 11.4, 10.5, 12.0, 13.2};
+    private static final double[] CLOSE = {10, 11, 12, 11, 13, 14};
+    private static final double[] VOLUME = {1, 2, 3, 4, 5, 6};
+
+    @Test
+    void matchesReferenceValuesOnFinalBars() {
+        IndicatorEngine engine = new IndicatorEngine(props());
+        MarketTickDto last = null;
+        for (int i = 0; i < CLOSE.length; i++) {
+            last = bar(i, HIGH[i], LOW[i], CLOSE[i], VOLUME[i], true);
+            engine.onTick(last);
+        }
+        Map<String, Double> values = last.getIndicators();
+
+        // SMA seed 11 over the first three closes, then alpha = 0.5
+        assertEquals(13.0, values.get("ema_3"), EPS);
+        // Wilder averages: gain 29/27, loss 4/27
+        assertEquals(100 - 400.0 / 33, values.get("rsi_3"), EPS);
+        // true ranges 1.0, 1.5, 1.5, 1.5, 2.5, 1.5 with Wilder smoothing
+        assertEquals(271.0 / 162, values.get("atr_3"), EPS);
+        // population deviation of 11, 13, 14
+        double mean = 38.0 / 3;
+        double std = Math.sqrt(14.0 / 9);
+        assertEquals(mean, values.get("bb_mid_3"), EPS);
+        assertEquals(mean + 2 * std, values.get("bb_upper_3"), EPS);
+        assertEquals(mean - 2 * std, values.get("bb_lower_3"), EPS);
+        // typical price times volume over total volume 21
+        assertEquals((10 + 21.8 + 35.9 + 134.0 / 3 + 192.5 / 3 + 83.4) / 21, values.get("vwap"), EPS);
+    }
+
+    @Test
+    void openBarUpdatesAreProvisionalUntilTheBarCloses() {
+        IndicatorEngine engine = new IndicatorEngine(props());
+        for (int i = 0; i < 5; i++) {
+            engine.onTick(bar(i, HIGH[i], LOW[i], CLOSE[i], VOLUME[i], true));
+        }
+
+        MarketTickDto spike = bar(5, 20.5, 13.2, 20, 100, false);
+        engine.onTick(spike);
+        assertEquals(16.0, spike.getIndicators().get("ema_3"), EPS);
+
+        MarketTickDto open = bar(5, HIGH[5], LOW[5], CLOSE[5], VOLUME[5], false);
+        engine.onTick(open);
+        MarketTickDto closed = bar(5, HIGH[5], LOW[5], CLOSE[5], VOLUME[5], true);
+        engine.onTick(closed);
+
+        assertEquals(closed.getIndicators(), open.getIndicators());
+        assertEquals(13.0, closed.getIndicators().get("ema_3"), EPS);
+        assertEquals(271.0 / 162, closed.getIndicators().get("atr_3"), EPS);
+
+        MarketTickDto next = bar(6, 13.5, 12.5, 13, 0, false);
+        engine.onTick(next);
+        assertEquals(13.0, next.getIndicators().get("ema_3"), EPS);
+        assertEquals(closed.getIndicators().get("vwap"), next.getIndicators().get("vwap"), EPS);
+    }
+
+    @Test
+    void warmsUpFromCommittedBarsOnly() {
+        IndicatorEngine engine = new IndicatorEngine(props());
+        engine.onTick(bar(0, HIGH[0], LOW[0], CLOSE[0], VOLUME[0], true));
+        MarketTickDto second = bar(1, HIGH[1], LOW[1], CLOSE[1], VOLUME[1], false);
+        engine.onTick(second);
+        assertNull(second.getIndicators().get("ema_3"));
+
+        engine.onTick(bar(1, HIGH[1], LOW[1], CLOSE[1], VOLUME[1], true));
+        MarketTickDto third = bar(2, HIGH[2], LOW[2], CLOSE[2], VOLUME[2], false);
+        engine.onTick(third);
+        assertEquals(11.0, third.getIndicators().get("ema_3"), EPS);
+        assertEquals(mean(HIGH[0] - LOW[0], 1.5, 1.5), third.getIndicators().get("atr_3"), EPS);
+        assertNull(third.getIndicators().get("rsi_3"));
+    }
+
+    @Test
+    void rejectsEmaPeriodsBelowOne() {
+        IndicatorProperties props = new IndicatorProperties();
+        props.setEmaPeriods(List.of(9, 0));
+        assertThrows(IllegalStateException.class, props::afterPropertiesSet);
+    }
+
+    private static IndicatorProperties props() {
+        IndicatorProperties props = new IndicatorProperties();
+        props.setEmaPeriods(List.of(3));
+        props.setRsiPeriod(3);
+        props.setAtrPeriod(3);
+        props.setBollingerPeriod(3);
+        props.setBollingerStdDev(2.0);
+        return props;
+    }
+
+    private static double mean(double... values) {
+        double sum = 0;
+        for (double v : values) {
+            sum += v;
+        }
+        return sum / values.length;
+    }
+
+    private static MarketTickDto bar(int index, double high, double low, double close, double volume,
+                                     boolean finalBar) {
+        long openTime = index * 60_000L;
+        return new MarketTickDto("BTCUSDT", "1m", null, openTime, openTime + 59_999,
+                close, high, low, close, volume, finalBar);
+    }
+}
@@ -0,0 +1,102 @@
+package com.trading.bot.service.journal;
+
+import com.trading.bot.config.JournalProperties;
+import com.trading.bot.service.binance.KlineFrame;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import reactor.core.scheduler.Schedulers;
+import reactor.test.StepVerifier;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TickJournalTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void replaysAcrossSegmentsAndResumesAfterRestart() throws Exception {
+        JournalProperties props = new JournalProperties();
+        props.setEnabled(true);
+        props.setDir(dir.toString());
+        props.setSegmentBytes(JournalSegment.RECORD_SIZE * 3L);
+
+        TickJournal journal = new TickJournal(props);
+        journal.start();
+        KlineFrame frame = new KlineFrame();
+        frame.setSymbol("BTCUSDT");
+        frame.setInterval("1s");
+        for (int i = 1; i <= 5; i++) {
+            frame.setOpenTime(i * 1000L);
+            frame.setClose(i);
+            journal.append(frame);
+        }
+        journal.close();
+
+        TickJournal reopened = new TickJournal(props);
+        reopened.start();
+        assertEquals(5, reopened.getLastSeq());
+        frame.setOpenTime(6000L);
+        frame.setClose(6);
+        assertEquals(6, reopened.append(frame));
+
+        List<Double> closes = new ArrayList<>();
+        long next = reopened.newReader().replay(2, r -> {
+            assertEquals("BTCUSDT", r.getSymbol());
+            assertEquals("1s", r.getInterval());
+            closes.add(r.getClose());
+        });
+
+        assertEquals(List.of(2.0, 3.0, 4.0, 5.0, 6.0), closes);
+        assertEquals(7, next);
+        assertEquals(1, reopened.newReader().seekByTime(0));
+        reopened.close();
+    }
+
+    @Test
+    void tailEmitsDistinctRecordsToASlowSubscriberAndFollowsAppends() throws Exception {
+        JournalProperties props = new JournalProperties();
+        props.setEnabled(true);
+        props.setDir(dir.toString());
+        props.setSegmentBytes(JournalSegment.RECORD_SIZE * 3L);
+
+        TickJournal journal = new TickJournal(props);
+        journal.start();
+        KlineFrame frame = new KlineFrame();
+        frame.setSymbol("BTCUSDT");
+        frame.setInterval("1s");
+        for (int i = 1; i <= 5; i++) {
+            frame.setOpenTime(i * 1000L);
+            frame.setClose(i);
+            journal.append(frame);
+        }
+
+        List<JournalRecord> received = new ArrayList<>();
+        StepVerifier.create(journal.newReader()
+                        .tail(2, Duration.ofMillis(10), 2, Schedulers.boundedElastic())
+                        .take(5), 1)
+                .recordWith(() -> received)
+                .expectNextCount(1)
+                .thenAwait(Duration.ofMillis(50))
+                .thenRequest(3)
+                .expectNextCount(3)
+                .then(() -> {
+                    frame.setOpenTime(6000L);
+                    frame.setClose(6);
+                    journal.append(frame);
+                })
+                .thenRequest(1)
+                .expectNextCount(1)
+                .expectComplete()
+                .verify(Duration.ofSeconds(5));
+
+        assertEquals(List.of(2L, 3L, 4L, 5L, 6L), received.stream().map(JournalRecord::getSeq).toList());
+        assertEquals(List.of(2.0, 3.0, 4.0, 5.0, 6.0), received.stream().map(JournalRecord::getClose).toList());
+        journal.close();
+    }
+}
@@ -0,0 +1,214 @@
+package com.trading.bot.service.persistence;
+
+import com.trading.bot.config.PersistenceProperties;
+import com.trading.bot.config.ReplayProperties;
+import com.trading.bot.domain.dto.MarketTickDto;
+import com.trading.bot.domain.dto.PersistenceStatsDto;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ParameterizedPreparedStatementSetter;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class WriteBehindWriterTest {
+
+    @TempDir
+    Path dir;
+
+    private final HeldJdbcTemplate jdbc = new HeldJdbcTemplate();
+    private WriteBehindWriter writer;
+
+    @AfterEach
+    void stop() throws InterruptedException {
+        jdbc.release.countDown();
+        if (writer != null) {
+            writer.stop();
+        }
+    }
+
+    @Test
+    void writesQueuedRowsInBatches() throws Exception {
+        start(props(PersistenceProperties.OverflowPolicy.DROP_OLDEST, 16, 3));
+
+        writer.recordTick(tick(1));
+        awaitTrue(() -> jdbc.entered.getCount() == 0);
+        for (int i = 2; i <= 7; i++) {
+            writer.recordTick(tick(i));
+        }
+        jdbc.release.countDown();
+        awaitTrue(() -> writer.getStats().getWritten() == 7);
+
+        assertEquals(List.of(List.of(1.0), List.of(2.0, 3.0, 4.0), List.of(5.0, 6.0, 7.0)), jdbc.batches);
+    }
+
+    @Test
+    void writesOnlyTheLatestUpdateOfABarInABatch() throws Exception {
+        start(props(PersistenceProperties.OverflowPolicy.DROP_OLDEST, 16, 4));
+
+        writer.recordTick(tick(1));
+        awaitTrue(() -> jdbc.entered.getCount() == 0);
+        writer.recordTick(tick(2000, 2));
+        writer.recordTick(tick(3000, 3));
+        writer.recordTick(tick(2000, 4));
+        jdbc.release.countDown();
+        awaitTrue(() -> writer.getStats().getWritten() == 3);
+
+        assertEquals(List.of(List.of(1.0), List.of(3.0, 4.0)), jdbc.batches);
+    }
+
+    @Test
+    void dropNewestKeepsQueuedRows() throws Exception {
+        assertEquals(List.of(1.0, 2.0, 3.0), overflow(PersistenceProperties.OverflowPolicy.DROP_NEWEST));
+        assertEquals(1, writer.getStats().getDropped());
+    }
+
+    @Test
+    void dropOldestKeepsNewestRows() throws Exception {
+        assertEquals(List.of(1.0, 3.0, 4.0), overflow(PersistenceProperties.OverflowPolicy.DROP_OLDEST));
+        assertEquals(1, writer.getStats().getDropped());
+    }
+
+    @Test
+    void spillWritesOverflowToDiskAndReplaysIt() throws Exception {
+        assertEquals(List.of(1.0, 2.0, 3.0, 4.0), overflow(PersistenceProperties.OverflowPolicy.SPILL));
+        PersistenceStatsDto stats = writer.getStats();
+        assertEquals(1, stats.getSpilled());
+        assertEquals(0, stats.getDropped());
+        try (var files = Files.list(dir)) {
+            assertEquals(0, files.count());
+        }
+    }
+
+    @Test
+    void spillKeepsFailedBatchesUntilTheDatabaseRecovers() throws Exception {
+        start(props(PersistenceProperties.OverflowPolicy.SPILL, 16, 10));
+        jdbc.release.countDown();
+        jdbc.failing = true;
+
+        writer.recordTick(tick(1));
+        writer.recordTick(tick(2));
+        awaitTrue(() -> writer.getStats().getSpilled() == 2);
+        assertTrue(jdbc.batches.isEmpty());
+
+        jdbc.failing = false;
+        writer.recordTick(tick(3));
+        awaitTrue(() -> writer.getStats().getWritten() == 3);
+
+        assertEquals(List.of(3.0, 1.0, 2.0), closes());
+    }
+
+    @Test
+    void writesNothingInReplayMode() {
+        ReplayProperties replay = new ReplayProperties();
+        replay.setEnabled(true);
+        writer = new WriteBehindWriter(jdbc, JsonMapper.builder().build(),
+                props(PersistenceProperties.OverflowPolicy.DROP_OLDEST, 16, 1), replay);
+        writer.start();
+
+        writer.recordTick(tick(1));
+
+        assertFalse(writer.getStats().isEnabled());
+        assertEquals(1, jdbc.entered.getCount());
+    }
+
+    /**
+     * Holds the first batch in the database while a queue of two takes
+     * three more rows.
+     */
+    private List<Double> overflow(PersistenceProperties.OverflowPolicy policy) throws Exception {
+        start(props(policy, 2, 1));
+        writer.recordTick(tick(1));
+        awaitTrue(() -> jdbc.entered.getCount() == 0);
+        writer.recordTick(tick(2));
+        writer.recordTick(tick(3));
+        writer.recordTick(tick(4));
+        jdbc.release.countDown();
+        int expected = policy == PersistenceProperties.OverflowPolicy.SPILL ? 4 : 3;
+        awaitTrue(() -> writer.getStats().getWritten() == expected);
+        return closes();
+    }
+
+    private void start(PersistenceProperties props) {
+        writer = new WriteBehindWriter(jdbc, JsonMapper.builder().build(), props, new ReplayProperties());
+        writer.start();
+    }
+
+    private PersistenceProperties props(PersistenceProperties.OverflowPolicy policy, int capacity, int batchSize) {
+        PersistenceProperties props = new PersistenceProperties();
+        props.setEnabled(true);
+        props.setInitSchema(false);
+        props.setQueueCapacity(capacity);
+        props.setBatchSize(batchSize);
+        props.setFlushIntervalMs(20);
+        props.setOverflowPolicy(policy);
+        props.setSpillDir(dir.toString());
+        return props;
+    }
+
+    private List<Double> closes() {
+        return jdbc.batches.stream().flatMap(List::stream).toList();
+    }
+
+    private static MarketTickDto tick(double close) {
+        return tick((long) close * 1000, close);
+    }
+
+    private static MarketTickDto tick(long openTime, double close) {
+        return new MarketTickDto("BTCUSDT", "1s", null, openTime, openTime + 999,
+                close, close, close, close, 1, true);
+    }
+
+    private static void awaitTrue(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.nanoTime() < deadline, "timed out");
+            Thread.sleep(5);
+        }
+    }
+
+    /**
+     * Records the closes of each tick batch; the first call waits for
+     * {@link #release}, and calls fail while {@link #failing} is set.
+     */
+    private static final class HeldJdbcTemplate extends JdbcTemplate {
+
+        private final List<List<Double>> batches = new CopyOnWriteArrayList<>();
+        private final CountDownLatch entered = new CountDownLatch(1);
+        private final CountDownLatch release = new CountDownLatch(1);
+        private volatile boolean failing;
+
+        @Override
+        public <T> int[][] batchUpdate(String sql, Collection<T> batchArgs, int batchSize,
+                                       ParameterizedPreparedStatementSetter<T> pss) {
+            entered.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            if (failing) {
+                throw new DataAccessResourceFailureException("database down");
+            }
+            List<Double> closes = new ArrayList<>();
+            for (T row : batchArgs) {
+                closes.add(((PendingWrite) row).tick().getClose());
+            }
+            batches.add(closes);
+            return new int[0][];
+        }
+    }
+}
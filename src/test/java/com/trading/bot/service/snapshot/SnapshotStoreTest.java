@@ -0,0 +1,48 @@
+package com.trading.bot.service.snapshot;
+
+import org.junit.jupiter.api.Test;
+import reactor.test.StepVerifier;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SnapshotStoreTest {
+
+    private final SnapshotStore store = new SnapshotStore();
+
+    @Test
+    void numbersUpdatesPerChannelWithDistinctTags() {
+        String ticks = SnapshotStore.tickKey("btcusdt", "1s");
+        assertNull(store.latest(ticks));
+
+        store.publish(ticks, bytes("a"));
+        store.publish(ticks, bytes("b"));
+        store.publish(SnapshotStore.decisionKey("BTCUSDT"), bytes("d"));
+        store.publish(ticks, null);
+
+        Snapshot latest = store.latest(ticks);
+        assertEquals(2, latest.seq());
+        assertArrayEquals(bytes("b"), latest.body());
+        assertTrue(latest.etag().startsWith("\"") && latest.etag().endsWith("-2\""));
+        assertEquals(1, store.latest(SnapshotStore.decisionKey("btcusdt")).seq());
+    }
+
+    @Test
+    void updatesStartFromCurrentSnapshot() {
+        String key = SnapshotStore.decisionKey("ETHUSDT");
+        store.publish(key, bytes("1"));
+        store.publish(key, bytes("2"));
+
+        StepVerifier.create(store.updates(key).map(Snapshot::seq))
+                .expectNext(2L)
+                .then(() -> store.publish(key, bytes("3")))
+                .expectNext(3L)
+                .thenCancel()
+                .verify();
+    }
+
+    private static byte[] bytes(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,87 @@
+package com.trading.bot.service.trade;
+
+import com.trading.bot.domain.dto.MarketTickDto;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TradeBarsTest {
+
+    private static LocalDateTime utc(long millis) {
+        return LocalDateTime.ofEpochSecond(millis / 1000, (int) (millis % 1000) * 1_000_000, ZoneOffset.UTC);
+    }
+
+    @Test
+    void timeBarClosesOnFirstTradeOfNextBucketWithFlowSplit() {
+        TradeBars bars = new TradeBars(List.of(TradeBarSpec.parse("250ms")), TradeBarsTest::utc);
+
+        assertTrue(bars.onTrade("BTCUSDT", 1010, 100.0, 2.0, false).isEmpty());
+        assertTrue(bars.onTrade("BTCUSDT", 1100, 102.0, 1.0, true).isEmpty());
+        assertTrue(bars.onTrade("BTCUSDT", 1249, 99.0, 1.0, false).isEmpty());
+        List<MarketTickDto> closed = bars.onTrade("BTCUSDT", 1250, 101.0, 5.0, true);
+
+        assertEquals(1, closed.size());
+        MarketTickDto bar = closed.get(0);
+        assertEquals("250ms", bar.getInterval());
+        assertEquals(1000, bar.getOpenTime());
+        assertEquals(1249, bar.getCloseTime());
+        assertEquals(100.0, bar.getOpen());
+        assertEquals(102.0, bar.getHigh());
+        assertEquals(99.0, bar.getLow());
+        assertEquals(99.0, bar.getClose());
+        assertEquals(4.0, bar.getVolume());
+        assertTrue(bar.isFinalBar());
+        assertEquals(3.0, bar.getIndicators().get("trade_count"));
+        assertEquals(3.0, bar.getIndicators().get("trade_buy_volume"));
+        assertEquals(1.0, bar.getIndicators().get("trade_sell_volume"));
+        assertEquals((200.0 + 102.0 + 99.0) / 4.0, bar.getIndicators().get("trade_vwap"), 1e-12);
+    }
+
+    @Test
+    void tickAndVolumeBarsCloseOnThresholdTrade() {
+        TradeBars bars = new TradeBars(List.of(TradeBarSpec.parse("3t"), TradeBarSpec.parse("2.5v")),
+                TradeBarsTest::utc);
+
+        assertTrue(bars.onTrade("ETHUSDT", 1, 10.0, 1.0, false).isEmpty());
+        List<MarketTickDto> volume = bars.onTrade("ETHUSDT", 2, 11.0, 2.0, false);
+        assertEquals(List.of("2.5v"), volume.stream().map(MarketTickDto::getInterval).toList());
+        assertEquals(3.0, volume.get(0).getVolume());
+
+        List<MarketTickDto> ticks = bars.onTrade("ETHUSDT", 3, 12.0, 0.5, true);
+        assertEquals(List.of("3t"), ticks.stream().map(MarketTickDto::getInterval).toList());
+        assertEquals(1, ticks.get(0).getOpenTime());
+        assertEquals(3, ticks.get(0).getCloseTime());
+        assertEquals(12.0, ticks.get(0).getClose());
+
+        assertTrue(bars.onTrade("BTCUSDT", 4, 10.0, 1.0, false).isEmpty());
+    }
+
+    @Test
+    void barsClosingInOneMillisecondGetIncreasingOpenTimes() {
+        TradeBars bars = new TradeBars(List.of(TradeBarSpec.parse("1t")), TradeBarsTest::utc);
+
+        List<Long> openTimes = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            openTimes.add(bars.onTrade("BTCUSDT", 1000, 10.0 + i, 1.0, false).get(0).getOpenTime());
+        }
+        openTimes.add(bars.onTrade("BTCUSDT", 1001, 13.0, 1.0, false).get(0).getOpenTime());
+        openTimes.add(bars.onTrade("BTCUSDT", 1500, 14.0, 1.0, false).get(0).getOpenTime());
+
+        assertEquals(List.of(1000L, 1001L, 1002L, 1003L, 1500L), openTimes);
+        assertEquals(List.of(1000L), bars.onTrade("ETHUSDT", 1000, 1.0, 1.0, false).stream()
+                .map(MarketTickDto::getOpenTime).toList());
+    }
+
+    @Test
+    void rejectsInvalidSpecs() {
+        assertThrows(IllegalArgumentException.class, () -> TradeBarSpec.parse("0t"));
+        assertThrows(IllegalArgumentException.class, () -> TradeBarSpec.parse("x"));
+        assertEquals(250, TradeBarSpec.parse("250ms").millis());
+        assertEquals(5000, TradeBarSpec.parse("5s").millis());
+    }
+}